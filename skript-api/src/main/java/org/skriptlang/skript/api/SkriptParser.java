@@ -6,8 +6,14 @@ import org.skriptlang.skript.api.nodes.SyntaxNodeType;
 import org.skriptlang.skript.api.scope.SectionScope;
 import org.skriptlang.skript.api.script.ScriptSource;
 import org.skriptlang.skript.api.util.ResultWithDiagnostics;
+import org.skriptlang.skript.api.util.ScriptDiagnostic;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * The Skript Parser is responsible for parsing Skript code into a syntax tree.
@@ -41,4 +47,30 @@ public interface SkriptParser {
 	List<SyntaxNodeType<?>> getNodeTypes();
 
 	ResultWithDiagnostics<SectionNode> parse(ScriptSource source);
+
+	/**
+	 * Parses multiple sources, each as its own task on the given executor.
+	 * The parser must be locked, as it may not change while the sources are parsed concurrently.
+	 * @param sources The sources to parse
+	 * @param executor The executor to parse the sources on
+	 * @return The parse result of each source, in the order of the given sources.
+	 *         An exception thrown while parsing a source is reported as a diagnostic of its result.
+	 */
+	default @NotNull Map<ScriptSource, ResultWithDiagnostics<SectionNode>> parseAll(
+		@NotNull Collection<? extends ScriptSource> sources,
+		@NotNull Executor executor
+	) {
+		if (!isLocked()) throw new IllegalStateException("The parser is not locked and cannot parse.");
+
+		Map<ScriptSource, CompletableFuture<ResultWithDiagnostics<SectionNode>>> futures = new LinkedHashMap<>();
+		for (ScriptSource source : sources) {
+			futures.put(source, CompletableFuture.supplyAsync(() -> parse(source), executor)
+				// a parser crash should only fail the script that caused it
+				.exceptionally(e -> ResultWithDiagnostics.failure(ScriptDiagnostic.error(source, e))));
+		}
+
+		Map<ScriptSource, ResultWithDiagnostics<SectionNode>> results = new LinkedHashMap<>();
+		futures.forEach((source, future) -> results.put(source, future.join()));
+		return results;
+	}
 }
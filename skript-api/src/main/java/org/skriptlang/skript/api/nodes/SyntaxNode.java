@@ -8,6 +8,9 @@ package org.skriptlang.skript.api.nodes;
  * This is a base interface for all nodes in the syntax tree.
  * Note that the likelihood of needing to implement this interface is low.
  * Instead, see the sub-interfaces of this.
+ * <p>
+ * The parser reuses the node parsed from some tokens wherever the same tokens are parsed as the same kind of child syntax,
+ * so a node may be the child of several parent nodes. Nodes must therefore not be modified once they are created.
  */
 public interface SyntaxNode {
 
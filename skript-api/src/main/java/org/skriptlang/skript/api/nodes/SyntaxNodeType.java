@@ -24,6 +24,10 @@ public interface SyntaxNodeType<T extends SyntaxNode> {
 	/**
 	 * Whether this node type can be parsed in the current context.
 	 * This must be deterministic.
+	 * <p>
+	 * The parser reuses the result of parsing some tokens as a child syntax wherever the same tokens
+	 * are parsed as the same child of the same parent node type in the same section,
+	 * so this should only depend on the innermost context of the context stack, not on the contexts below it.
 	 * @param context The current parsing context.
 	 * @param matchedPattern The index of the syntax pattern that was matched.
 	 * @return Whether this node type can be parsed.
@@ -70,6 +70,25 @@ public interface ExecuteContext {
 	 */
 	@Nullable Variable getVariable(String name);
 
+	/**
+	 * Gets a variable by its slot, without looking into parent contexts.
+	 * @param slot the slot of the variable
+	 * @return the variable, or null if the variable does not exist
+	 */
+	default @Nullable Variable getVariableInPlace(@NotNull VariableSlot slot) {
+		return getVariableInPlace(slot.name());
+	}
+
+	/**
+	 * Gets a variable by its slot.
+	 * @param slot the slot of the variable
+	 * @return the variable, or null if the variable does not exist
+	 * @see #getVariable(String)
+	 */
+	default @Nullable Variable getVariable(@NotNull VariableSlot slot) {
+		return getVariable(slot.name());
+	}
+
 	/**
 	 * Sets a variable with the given name in this context.
 	 * If the variable already exists in some parent context, it will be shadowed.
@@ -108,6 +127,41 @@ public interface ExecuteContext {
 		return setVariable(name, NoneValue.get());
 	}
 
+	/**
+	 * Sets a variable by its slot in this context.
+	 * If the variable already exists in some parent context, it will be shadowed.
+	 * @param slot the slot of the variable
+	 * @param initialValue the initial value to assign to the variable
+	 * @return the variable that was initialized
+	 * @see #setVariableInPlace(String, SkriptValue)
+	 */
+	default @NotNull Variable setVariableInPlace(@NotNull VariableSlot slot, @NotNull SkriptValue initialValue) {
+		return setVariableInPlace(slot.name(), initialValue);
+	}
+
+	/**
+	 * Sets a variable by its slot in this context.
+	 * If the variable already exists in some parent context, the variable will be set in that context.
+	 * @param slot the slot of the variable
+	 * @param initialValue the value of the variable
+	 * @return the variable that was initialized
+	 * @see #setVariable(String, SkriptValue)
+	 */
+	default @NotNull Variable setVariable(@NotNull VariableSlot slot, @NotNull SkriptValue initialValue) {
+		return setVariable(slot.name(), initialValue);
+	}
+
+	/**
+	 * Sets a variable by its slot in this context.
+	 * If the variable already exists in some parent context, the variable will be set in that context.
+	 * @param slot the slot of the variable
+	 * @return the variable that was initialized
+	 * @see #setVariable(String)
+	 */
+	default @NotNull Variable setVariable(@NotNull VariableSlot slot) {
+		return setVariable(slot, NoneValue.get());
+	}
+
 	/**
 	 * Unsets a variable with the given name in this context.
 	 * @param name the name of the variable
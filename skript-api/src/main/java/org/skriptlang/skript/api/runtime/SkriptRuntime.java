@@ -5,6 +5,10 @@ import org.jetbrains.annotations.Nullable;
 import org.skriptlang.skript.api.script.Script;
 import org.skriptlang.skript.api.types.*;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * The runtime environment for Skript.
  * <p>
@@ -76,6 +80,22 @@ public interface SkriptRuntime {
 	 */
 	@Nullable ExecuteContext load(@NotNull Script script);
 
+	/**
+	 * Loads multiple scripts into the runtime.
+	 * Implementations may interleave the structures of all scripts,
+	 * so that structures of a script can rely on structures of another script with an earlier priority.
+	 * @param scripts the scripts to load
+	 * @return the execute context of each script, in the order of the given scripts.
+	 *         The context is null if a structure of that script failed.
+	 */
+	default @NotNull Map<Script, @Nullable ExecuteContext> loadAll(@NotNull Collection<? extends Script> scripts) {
+		Map<Script, ExecuteContext> contexts = new LinkedHashMap<>();
+		for (Script script : scripts) {
+			contexts.put(script, load(script));
+		}
+		return contexts;
+	}
+
 	/**
 	 * Unloads a script from its root node.
 	 * @param script the script
@@ -0,0 +1,118 @@
+package org.skriptlang.skript.api.runtime;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A variable name used by a syntax node, which remembers its index in the {@link VariableSlotTable}s it is used with.
+ * <p>
+ * Syntax nodes create the slots of the names they use while being created at parse time.
+ * The index of a slot in a table is looked up the first time the slot is used with that table, and is then kept,
+ * so that later accesses need neither hash the name nor look it up again.
+ * A slot keeps one index per table it is used with, e.g. for the table of its script and the one of the global context
+ * that lookups fall through to. That a name has no index in a table is kept as well, until the table assigns a new index.
+ * Indices are numbered per script, and are dropped with the table when the script is unloaded.
+ */
+public final class VariableSlot {
+
+	/**
+	 * The maximum amount of tables a slot keeps its index in.
+	 * A slot is usually used with its script's table and the tables of the contexts above it, which are few.
+	 */
+	private static final int MAX_BINDINGS = 4;
+
+	private static final Binding[] NO_BINDINGS = new Binding[0];
+
+	private final @NotNull String name;
+
+	/**
+	 * The tables this slot has been used with, together with its index in each of them.
+	 * Replaced as a whole, so it may be published without synchronization.
+	 */
+	private volatile Binding @NotNull [] bindings = NO_BINDINGS;
+
+	private VariableSlot(@NotNull String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Creates a slot for the given variable name.
+	 * @param name the name of the variable
+	 * @return the slot
+	 */
+	public static @NotNull VariableSlot of(@NotNull String name) {
+		Preconditions.checkNotNull(name, "name cannot be null");
+		return new VariableSlot(name);
+	}
+
+	/**
+	 * Gets the name of the variable.
+	 */
+	public @NotNull String name() {
+		return name;
+	}
+
+	/**
+	 * Gets the index of this slot in the given table, without assigning one.
+	 * @param table the table of the executing context
+	 * @return the index, or -1 if the name has not been assigned one
+	 */
+	public int find(@NotNull VariableSlotTable table) {
+		Binding binding = binding(table);
+		// a missing index stays missing until the table assigns a new one
+		if (binding != null && (binding.index() != -1 || binding.tableSize() == table.size())) return binding.index();
+		int size = table.size();
+		int index = table.find(name);
+		bind(table, index, size);
+		return index;
+	}
+
+	/**
+	 * Gets the index of this slot in the given table, assigning a new one if the name has not been used before.
+	 * @param table the table of the executing context
+	 * @return the index
+	 */
+	public int assign(@NotNull VariableSlotTable table) {
+		Binding binding = binding(table);
+		if (binding != null && binding.index() != -1) return binding.index();
+		int index = table.assign(name);
+		bind(table, index, -1);
+		return index;
+	}
+
+	private @Nullable Binding binding(VariableSlotTable table) {
+		for (Binding binding : bindings) {
+			if (binding.table() == table) return binding;
+		}
+		return null;
+	}
+
+	private void bind(VariableSlotTable table, int index, int tableSize) {
+		Binding[] bindings = this.bindings;
+		List<Binding> kept = new ArrayList<>(bindings.length + 1);
+		for (Binding binding : bindings) {
+			// tables of unloaded scripts are never used again
+			if (binding.table() != table && !binding.table().isReleased()) kept.add(binding);
+		}
+		if (kept.size() >= MAX_BINDINGS) kept.removeFirst();
+		kept.add(new Binding(table, index, tableSize));
+		this.bindings = kept.toArray(NO_BINDINGS);
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+	/**
+	 * The index of a slot in a table.
+	 * @param index the index, or -1 if the name had not been assigned one
+	 * @param tableSize the size of the table when the name was found not to have an index
+	 */
+	private record Binding(@NotNull VariableSlotTable table, int index, int tableSize) { }
+
+}
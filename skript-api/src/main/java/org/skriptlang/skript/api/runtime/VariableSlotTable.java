@@ -0,0 +1,65 @@
+package org.skriptlang.skript.api.runtime;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Numbers the variable names used by one script, so that its execute contexts can store their variables in an array.
+ * <p>
+ * A table is owned by the context of a script and is dropped together with it when the script is unloaded,
+ * so indices stay as small as the number of distinct names the script actually uses.
+ */
+public final class VariableSlotTable {
+	private final Map<String, Integer> indices = new ConcurrentHashMap<>();
+	private final AtomicInteger nextIndex = new AtomicInteger();
+	private volatile boolean released;
+
+	/**
+	 * Gets the index of the given variable name, without assigning one.
+	 * @param name the name of the variable
+	 * @return the index, or -1 if the name has not been assigned one
+	 */
+	public int find(@NotNull String name) {
+		Integer index = indices.get(name);
+		return index != null ? index : -1;
+	}
+
+	/**
+	 * Gets the index of the given variable name, assigning a new one if the name has not been used before.
+	 * @param name the name of the variable
+	 * @return the index
+	 */
+	public int assign(@NotNull String name) {
+		Preconditions.checkNotNull(name, "name cannot be null");
+		Integer index = indices.get(name);
+		if (index != null) return index;
+		return indices.computeIfAbsent(name, key -> nextIndex.getAndIncrement());
+	}
+
+	/**
+	 * Gets the number of indices assigned so far.
+	 */
+	public int size() {
+		return nextIndex.get();
+	}
+
+	/**
+	 * Marks this table as no longer in use, e.g. because its script was unloaded.
+	 * Slots drop their index in a released table.
+	 */
+	public void release() {
+		released = true;
+	}
+
+	/**
+	 * Whether this table has been {@link #release() released}.
+	 */
+	public boolean isReleased() {
+		return released;
+	}
+
+}
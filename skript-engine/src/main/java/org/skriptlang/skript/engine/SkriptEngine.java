@@ -1,11 +1,23 @@
 package org.skriptlang.skript.engine;
 
+import org.jetbrains.annotations.NotNull;
 import org.skriptlang.skript.api.SkriptParser;
+import org.skriptlang.skript.api.nodes.SectionNode;
+import org.skriptlang.skript.api.runtime.ExecuteContext;
 import org.skriptlang.skript.api.runtime.SkriptRuntime;
+import org.skriptlang.skript.api.script.Script;
+import org.skriptlang.skript.api.script.ScriptSource;
 import org.skriptlang.skript.api.util.LockAccess;
+import org.skriptlang.skript.api.util.ResultWithDiagnostics;
+import org.skriptlang.skript.api.util.ScriptDiagnostic;
 import org.skriptlang.skript.parser.SkriptParserImpl;
+import org.skriptlang.skript.runtime.ScriptImpl;
 import org.skriptlang.skript.runtime.SkriptRuntimeImpl;
 
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
 public class SkriptEngine {
 	private final LockAccess lockAccess = new LockAccess();
 
@@ -13,13 +25,61 @@ public class SkriptEngine {
 	private final SkriptParser parser = new SkriptParserImpl(lockAccess);
 	private final SkriptRuntime runtime = new SkriptRuntimeImpl(lockAccess);
 
+	private final Executor parseExecutor;
+
 	public SkriptEngine() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param parseExecutor The executor scripts are parsed on by {@link #loadAll(Collection)}.
+	 */
+	public SkriptEngine(@NotNull Executor parseExecutor) {
 		LockAccess stubLockAccess = new LockAccess();
 
 		this.addonStubParser = new SkriptParserImpl(stubLockAccess);
+		this.parseExecutor = parseExecutor;
 
 		stubLockAccess.lock();
 	}
 
+	/**
+	 * Parses the given sources in parallel, then loads all scripts that parsed successfully into the runtime.
+	 * @param sources The sources to load.
+	 * @return The result of each source, in the order of the given sources.
+	 *         Each result contains the diagnostics of its own source only.
+	 * @see SkriptParser#parseAll(Collection, Executor)
+	 * @see SkriptRuntime#loadAll(Collection)
+	 */
+	public @NotNull Map<ScriptSource, ResultWithDiagnostics<ExecuteContext>> loadAll(@NotNull Collection<? extends ScriptSource> sources) {
+		Map<ScriptSource, ResultWithDiagnostics<SectionNode>> parsed = parser.parseAll(sources, parseExecutor);
+
+		Map<ScriptSource, Script> scripts = new LinkedHashMap<>();
+		parsed.forEach((source, result) -> {
+			if (result.isSuccess()) scripts.put(source, new ScriptImpl(source, result.get()));
+		});
+
+		Map<Script, ExecuteContext> contexts = runtime.loadAll(scripts.values());
+
+		Map<ScriptSource, ResultWithDiagnostics<ExecuteContext>> results = new LinkedHashMap<>();
+		parsed.forEach((source, result) -> {
+			Script script = scripts.get(source);
+			if (script == null) {
+				results.put(source, ResultWithDiagnostics.failure(result.getDiagnostics()));
+				return;
+			}
+
+			ExecuteContext context = contexts.get(script);
+			if (context == null) {
+				List<ScriptDiagnostic> diagnostics = new ArrayList<>(result.getDiagnostics());
+				diagnostics.add(ScriptDiagnostic.error(source, "Script could not be loaded"));
+				results.put(source, ResultWithDiagnostics.failure(diagnostics));
+				return;
+			}
+
+			results.put(source, ResultWithDiagnostics.success(context, result.getDiagnostics()));
+		});
+		return results;
+	}
 
 }
@@ -3,15 +3,18 @@ package org.skriptlang.skript.parser;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.skriptlang.skript.api.ParseContext;
+import org.skriptlang.skript.api.nodes.SyntaxNodeType;
 import org.skriptlang.skript.api.scope.SectionScope;
 import org.skriptlang.skript.api.script.ScriptSource;
+import org.skriptlang.skript.api.scope.InputDefinition;
 import org.skriptlang.skript.api.util.ScriptDiagnostic;
+import org.skriptlang.skript.parser.pattern.SyntaxPatternElement;
 import org.skriptlang.skript.parser.tokens.Token;
+import org.skriptlang.skript.parser.tokens.TokenBuffer;
 import org.skriptlang.skript.parser.tokens.TokenType;
 
-import java.util.Deque;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * A stack plus context of a script being parsed.
@@ -25,8 +28,45 @@ public class ParseContextImpl implements ParseContext {
 
 	private final Deque<SyntaxFrame> syntaxFrames = new LinkedList<>();
 
+	private final @NotNull SyntaxIndex syntaxIndex;
+
+	/**
+	 * Ids of the distinct syntax frame contents seen so far, used to key {@link #memo}.
+	 */
+	private final Map<FrameSignature, Integer> frameIds = new HashMap<>();
+
+	/**
+	 * The results of parsing token ranges as child syntaxes.
+	 */
+	private final Map<MemoKey, MemoEntry> memo = new HashMap<>();
+
+	/**
+	 * The entry of a range while it is being parsed.
+	 */
+	private static final MemoEntry IN_PROGRESS = new MemoEntry(null, List.of());
+
+	/**
+	 * The keys of the ranges being parsed, the innermost one last.
+	 */
+	private final List<MemoKey> parsing = new ArrayList<>();
+
+	/**
+	 * The index in {@link #parsing} from which on the parses are provisional, as they depend on a parse that was still in progress.
+	 * Their results are not memoized. {@link Integer#MAX_VALUE} if there are none.
+	 */
+	private int provisionalFrom = Integer.MAX_VALUE;
+
 	public ParseContextImpl(@NotNull ScriptSource source) {
+		this(source, new SyntaxIndex(List.of()));
+	}
+
+	/**
+	 * @param syntaxIndex The index of the syntaxes that will usually be pushed in syntax frames.
+	 *                    Syntaxes that are not part of it can still be pushed, but will be looked up linearly.
+	 */
+	ParseContextImpl(@NotNull ScriptSource source, @NotNull SyntaxIndex syntaxIndex) {
 		this.source = source;
+		this.syntaxIndex = syntaxIndex;
 		contextStack.push(new Context(null, 0));
 	}
 
@@ -147,7 +187,35 @@ public class ParseContextImpl implements ParseContext {
 	}
 
 	public void pushSyntaxFrame(List<TokenizedSyntax> syntaxes) {
-		syntaxFrames.push(new SyntaxFrame(syntaxes));
+		SyntaxFrame parent = syntaxFrames.peek();
+		BitSet own = new BitSet(syntaxIndex.size());
+		List<TokenizedSyntax> unindexed = new ArrayList<>();
+		// whether the syntaxes of this frame are in the order of the index, so that they can be looked up in that order
+		boolean indexOrdered = true;
+		int lastOrdinal = -1;
+		for (TokenizedSyntax syntax : syntaxes) {
+			int ordinal = syntaxIndex.ordinalOf(syntax);
+			if (ordinal != -1) {
+				own.set(ordinal);
+				if (ordinal <= lastOrdinal)
+					indexOrdered = false;
+				lastOrdinal = ordinal;
+			} else {
+				unindexed.add(syntax);
+			}
+		}
+		indexOrdered &= unindexed.isEmpty();
+		BitSet indexed = parent != null ? (BitSet) parent.indexed().clone() : new BitSet(syntaxIndex.size());
+		indexed.or(own);
+
+		int id;
+		if (parent != null && unindexed.isEmpty() && indexed.equals(parent.indexed())) {
+			// this frame does not make any more syntaxes available
+			id = parent.id();
+		} else {
+			id = frameIds.computeIfAbsent(new FrameSignature(parent != null ? parent.id() : -1, indexed, unindexed), signature -> frameIds.size());
+		}
+		syntaxFrames.push(new SyntaxFrame(syntaxes, own, indexOrdered, indexed, unindexed, id));
 	}
 
 	public void popSyntaxFrame() {
@@ -158,8 +226,187 @@ public class ParseContextImpl implements ParseContext {
 		return syntaxFrames.stream().flatMap(frame -> frame.syntaxes().stream()).toList();
 	}
 
+	/**
+	 * Returns whether the given syntax is part of any syntax frame.
+	 */
+	public boolean isAvailable(@NotNull TokenizedSyntax syntax) {
+		SyntaxFrame top = syntaxFrames.peek();
+		if (top == null) return false;
+
+		int ordinal = syntaxIndex.ordinalOf(syntax);
+		if (ordinal != -1) return top.indexed().get(ordinal);
+
+		return syntaxFrames.stream().anyMatch(frame -> frame.unindexed().contains(syntax));
+	}
+
+	/**
+	 * Returns the available syntaxes whose literal tokens could match the start of the given tokens,
+	 * in the same order as {@link #availableSyntaxes()}: from the innermost frame outwards,
+	 * and in the order of each frame's syntaxes.
+	 * This order decides which syntax wins when several match equally well.
+	 * <p>
+	 * This only narrows down the available syntaxes,
+	 * so {@link TokenizedSyntax#canMatch(List)} must still be checked for the returned syntaxes.
+	 * @param tokens The script tokens to match against.
+	 */
+	public List<TokenizedSyntax> candidateSyntaxes(@NotNull List<Token> tokens) {
+		SyntaxFrame top = syntaxFrames.peek();
+		if (top == null) return List.of();
+
+		BitSet found = syntaxIndex.candidates(tokens, top.indexed());
+		List<TokenizedSyntax> candidates = new ArrayList<>();
+		for (SyntaxFrame frame : syntaxFrames) {
+			if (frame.indexOrdered()) {
+				// the candidates of this frame can be taken from the index, which already has them in frame order
+				BitSet own = (BitSet) frame.own().clone();
+				own.and(found);
+				for (int ordinal = own.nextSetBit(0); ordinal >= 0; ordinal = own.nextSetBit(ordinal + 1)) {
+					candidates.add(syntaxIndex.get(ordinal));
+				}
+				continue;
+			}
+			if (frame.unindexed().isEmpty() && !frame.own().intersects(found)) continue;
+			for (TokenizedSyntax syntax : frame.syntaxes()) {
+				int ordinal = syntaxIndex.ordinalOf(syntax);
+				if (ordinal == -1 || found.get(ordinal))
+					candidates.add(syntax);
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * Parses the given tokens as the given child syntax element, or returns the result of an earlier parse
+	 * of the same tokens as the same child of the same parent node type, with the same syntaxes available in the same section.
+	 * <p>
+	 * While the tokens are being parsed, parsing them again as the same child fails, as that parse could only recurse forever.
+	 * All parses that were started since then depend on that failure, which may not have happened without the recursion,
+	 * so their results are not memoized.
+	 * <p>
+	 * The diagnostics the parse added to the current context are added again whenever its result is reused,
+	 * so that every parent reusing a failed parse reports why it failed.
+	 * The same node may be returned to several parents, which is why nodes must not be modified once created.
+	 * @param tokens The tokens to parse.
+	 * @param parent The node type of the parent candidate the tokens are parsed for.
+	 * @param childIndex The index of the child in the pattern of the parent.
+	 * @param element The syntax element the tokens are parsed as.
+	 * @param parse The function parsing the tokens, returning null if they could not be parsed.
+	 * @return The result of the parse, or null if the tokens could not be parsed.
+	 */
+	public <T> @Nullable T memoize(
+		@NotNull TokenBuffer tokens,
+		@Nullable SyntaxNodeType<?> parent,
+		int childIndex,
+		@NotNull SyntaxPatternElement element,
+		@NotNull Supplier<@Nullable T> parse
+	) {
+		SyntaxFrame frame = syntaxFrames.peek();
+		MemoKey key = new MemoKey(
+			tokens, parent, childIndex, element.syntaxType(), element.inputs(), element.output(),
+			frame != null ? frame.id() : -1, currentSection()
+		);
+
+		MemoEntry entry = memo.get(key);
+		if (entry == IN_PROGRESS) {
+			// the parses started since depend on this failure
+			int dependent = parsing.lastIndexOf(key) + 1;
+			if (dependent < parsing.size())
+				provisionalFrom = Math.min(provisionalFrom, dependent);
+			error("These tokens are already being parsed as this syntax", tokens.isEmpty() ? 0 : tokens.getFirst().start());
+			return null;
+		}
+
+		if (entry == null) {
+			memo.put(key, IN_PROGRESS);
+			int index = parsing.size();
+			parsing.add(key);
+			Context context = currentContext();
+			int diagnosticCount = context.diagnostics().size();
+			boolean parsed = false;
+			T result = null;
+			try {
+				result = parse.get();
+				parsed = true;
+			} finally {
+				parsing.remove(index);
+				boolean provisional = index >= provisionalFrom;
+				if (index == provisionalFrom)
+					provisionalFrom = Integer.MAX_VALUE;
+				if (parsed && !provisional) {
+					List<ScriptDiagnostic> diagnostics = context.diagnostics();
+					memo.put(key, new MemoEntry(result, diagnostics.subList(diagnosticCount, diagnostics.size())));
+				} else {
+					memo.remove(key);
+				}
+			}
+			return result;
+		}
+
+		for (ScriptDiagnostic diagnostic : entry.diagnostics()) {
+			diagnostic(diagnostic);
+		}
+		//noinspection unchecked
+		return (T) entry.result();
+	}
+
+	/**
+	 * A memoized parse.
+	 * @param result The result of the parse, or null if the tokens could not be parsed.
+	 * @param diagnostics The diagnostics the parse added to the context it was started in.
+	 */
+	private record MemoEntry(@Nullable Object result, List<ScriptDiagnostic> diagnostics) {}
+
 	/**
 	 * Represents a frame of parseable syntax.
+	 * @param syntaxes All syntaxes of this frame.
+	 * @param own The ordinals of the indexed syntaxes of this frame.
+	 * @param indexOrdered Whether all syntaxes of this frame are indexed and in the order of the index.
+	 * @param indexed The ordinals of the indexed syntaxes available in this frame and all frames below it.
+	 * @param unindexed The syntaxes of this frame which are not part of the syntax index.
+	 * @param id The id of the syntaxes available in this frame and all frames below it.
+	 *           Frames that make the same syntaxes available share an id.
+	 */
+	private record SyntaxFrame(List<TokenizedSyntax> syntaxes, BitSet own, boolean indexOrdered, BitSet indexed, List<TokenizedSyntax> unindexed, int id) {}
+
+	/**
+	 * The contents of a syntax frame that determine which syntaxes are available.
+	 */
+	private record FrameSignature(int parentId, BitSet indexed, List<TokenizedSyntax> unindexed) {}
+
+	/**
+	 * The key of a memoized parse. Token ranges are compared by position, not by their tokens.
+	 * <p>
+	 * The parent node type and child index are part of the key, as they are in the context
+	 * that {@link SyntaxNodeType#canBeParsed(ParseContext, int)} is checked in.
 	 */
-	private record SyntaxFrame(List<TokenizedSyntax> syntaxes) {}
+	private record MemoKey(
+		TokenBuffer tokens,
+		@Nullable SyntaxNodeType<?> parent,
+		int childIndex,
+		String syntaxType,
+		List<InputDefinition> inputs,
+		@Nullable String output,
+		int frameId,
+		@Nullable Section section
+	) {
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof MemoKey other
+				&& tokens.isSameRange(other.tokens)
+				&& Objects.equals(parent, other.parent)
+				&& childIndex == other.childIndex
+				&& syntaxType.equals(other.syntaxType)
+				&& inputs.equals(other.inputs)
+				&& Objects.equals(output, other.output)
+				&& frameId == other.frameId
+				&& section == other.section;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(tokens.rangeHashCode(), parent, childIndex, syntaxType, inputs, output, frameId, System.identityHashCode(section));
+		}
+
+	}
 }
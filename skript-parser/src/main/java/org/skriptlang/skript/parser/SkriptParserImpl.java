@@ -23,12 +23,15 @@ import java.util.stream.Stream;
 /**
  * The JVM implementation of the Skript Parser.
  * <p>
+ * Once locked, the parser can parse multiple scripts concurrently.
+ * All parse state is kept in a {@link ParseContextImpl} per parse.
+ * <p>
  * This is no-man's land. I wish you luck, brave soul.
  */
 public final class SkriptParserImpl implements SkriptParser {
 	private final LockAccess lockAccess;
 
-	private final List<SyntaxNodeType<?>> nodeTypes = new LinkedList<>();
+	private final List<SyntaxNodeType<?>> nodeTypes = new ArrayList<>();
 
 	/**
 	 * The tokenized syntaxes that have been generated from the node types.
@@ -37,10 +40,15 @@ public final class SkriptParserImpl implements SkriptParser {
 	 * Note this is not directly used during parse-time.
 	 * This will be copied into a context object.
 	 */
-	private @Nullable List<TokenizedSyntax> tokenizedSyntaxes = null;
+	private volatile @Nullable List<TokenizedSyntax> tokenizedSyntaxes = null;
+
+	/**
+	 * The index over {@link #tokenizedSyntaxes}, computed alongside them.
+	 */
+	private volatile @Nullable SyntaxIndex syntaxIndex = null;
 
 	// TODO: this can and should be lazily computed just like tokenized syntaxes
-	private final List<SectionScope> scopes = new LinkedList<>();
+	private final List<SectionScope> scopes = new ArrayList<>();
 
 	public SkriptParserImpl(@NotNull LockAccess lockAccess) {
 		Preconditions.checkNotNull(lockAccess, "lockAccess cannot be null");
@@ -59,6 +67,7 @@ public final class SkriptParserImpl implements SkriptParser {
 		synchronized (nodeTypes) {
 			nodeTypes.add(nodeType);
 			tokenizedSyntaxes = null;
+			syntaxIndex = null;
 		}
 	}
 
@@ -112,9 +121,9 @@ public final class SkriptParserImpl implements SkriptParser {
 			return ResultWithDiagnostics.failure(diagnostics);
 		}
 
-		var tokens = tokenizeResult.get();
+		var tokens = TokenBuffer.of(tokenizeResult.get());
 
-		ParseContextImpl parseContextImpl = new ParseContextImpl(source);
+		ParseContextImpl parseContextImpl = new ParseContextImpl(source, Objects.requireNonNull(syntaxIndex));
 		pushParseableSyntaxes(parseContextImpl);
 
 		var fileNode = parseSection(parseContextImpl, null, tokens);
@@ -141,7 +150,7 @@ public final class SkriptParserImpl implements SkriptParser {
 	private @Nullable Match<SectionNode> parseSection(
 		ParseContextImpl parseContextImpl,
 		@Nullable SectionScope scope,
-		List<Token> tokens
+		TokenBuffer tokens
 	) {
 		// at head, we are just after a colon
 
@@ -153,12 +162,12 @@ public final class SkriptParserImpl implements SkriptParser {
 
 		// depth is now 0
 
-		List<StatementNode> statements = new LinkedList<>();
+		List<StatementNode> statements = new ArrayList<>();
 
 		Token whitespace;
 		do {
 			if (index >= tokens.size()) break;
-			Match<StatementNode> next = parseStatement(parseContextImpl, tokens.subList(index, tokens.size()), parseContextImpl.depth() == 0 ? StructureNodeType.class : EffectNodeType.class);
+			Match<StatementNode> next = parseStatement(parseContextImpl, tokens.subList(index), parseContextImpl.depth() == 0 ? StructureNodeType.class : EffectNodeType.class);
 			if (next == null) {
 				parseContextImpl.info("Fail occurred in section depth " + parseContextImpl.depth(), tokens.get(index).start());
 				parseContextImpl.popSection();
@@ -192,13 +201,10 @@ public final class SkriptParserImpl implements SkriptParser {
 	 */
 	private @Nullable Match<StatementNode> parseStatement(
 		@NotNull ParseContextImpl parseContextImpl,
-		List<Token> tokens,
+		TokenBuffer tokens,
 		Class<?> superType
 	) {
-		int end = tokens.stream()
-			.map(token -> token.type() == TokenType.WHITESPACE && token.asString().contains("\n"))
-			.toList()
-			.indexOf(true);
+		int end = tokens.nextNewline();
 
 		// edge case: this is the last line of the script, and there is no newline. therefore, the effect goes to the end.
 		if (end == -1) end = tokens.size();
@@ -208,7 +214,7 @@ public final class SkriptParserImpl implements SkriptParser {
 			return null;
 		}
 
-		List<Token> singleLineTokens = tokens.subList(0, Math.min(end + 1, tokens.size()));
+		TokenBuffer singleLineTokens = tokens.subList(0, Math.min(end + 1, tokens.size()));
 		// This edge case shouldn't even occur
 		// because the tokenizer does not output duplicate newline-containing whitespace tokens
 		if (singleLineTokens.isEmpty()) {
@@ -245,12 +251,12 @@ public final class SkriptParserImpl implements SkriptParser {
 	private Match<SyntaxNode> parseCandidate(
 		@NotNull ParseContextImpl context,
 		@NotNull TokenizedSyntax candidate,
-		@NotNull List<Token> tokens
+		@NotNull TokenBuffer tokens
 	) {
 
 		List<Token> syntaxTokens = candidate.tokens();
 
-		List<SyntaxNode> children = new LinkedList<>();
+		List<SyntaxNode> children = new ArrayList<>();
 
 		int tokenIndex = 0;
 		for (int i = 0; i < syntaxTokens.size(); i++) {
@@ -262,16 +268,16 @@ public final class SkriptParserImpl implements SkriptParser {
 
 			SyntaxPatternElement element = (SyntaxPatternElement) syntaxToken.value();
 
-			List<Token> subTokens;
+			TokenBuffer subTokens;
 			if (element.syntaxType().equals("section") || element.syntaxType().equals("entries")) {
 				if (i != syntaxTokens.size() - 1) {
 					context.error("Section or entries syntax must be at the end of a pattern", syntaxToken.start());
 					return null;
 				}
-				subTokens = tokens.subList(tokenIndex, tokens.size());
+				subTokens = tokens.subList(tokenIndex);
 			} else {
 				subTokens = tokens.subList(tokenIndex, tokenIndex + findEnd(
-					tokens.subList(tokenIndex, tokens.size()),
+					tokens.subList(tokenIndex),
 					syntaxTokens.subList(i + 1, syntaxTokens.size())
 				));
 				if (
@@ -302,7 +308,7 @@ public final class SkriptParserImpl implements SkriptParser {
 	}
 
 	private int findEnd(
-		@NotNull List<Token> tokens,
+		@NotNull TokenBuffer tokens,
 		@NotNull List<Token> syntaxTokens
 	) {
 		if (syntaxTokens.isEmpty() || syntaxTokens.stream().allMatch(it -> it.type() == TokenType.SYNTAX)) {
@@ -310,22 +316,22 @@ public final class SkriptParserImpl implements SkriptParser {
 		}
 
 		if (tokens.getFirst().asPunctuation() == Punctuation.OPEN_PARENTHESIS) {
-			Deque<Punctuation> parenStack = new LinkedList<>();
+			int depth = 0;
 			for (int i = 1; i < tokens.size(); i++) {
 				Token token = tokens.get(i);
 				if (token.asPunctuation() == Punctuation.OPEN_PARENTHESIS) {
-					parenStack.push(Punctuation.OPEN_PARENTHESIS);
+					depth++;
 				} else if (token.asPunctuation() == Punctuation.CLOSE_PARENTHESIS) {
-					if (parenStack.isEmpty()) {
+					if (depth == 0) {
 						return i + 1;
 					}
-					parenStack.pop();
+					depth--;
 				}
 			}
 		}
 
 		for (int i = 0; i < tokens.size(); i++) {
-			if (TokenComparer.canMatch(syntaxTokens, tokens.subList(i, tokens.size()))) {
+			if (TokenComparer.canMatch(syntaxTokens, tokens.subList(i))) {
 				return i;
 			}
 		}
@@ -336,7 +342,23 @@ public final class SkriptParserImpl implements SkriptParser {
 	private @Nullable Match<? extends SyntaxNode> parseChild(
 		@NotNull ParseContextImpl context,
 		@NotNull TokenizedSyntax parentCandidate,
-		@NotNull List<Token> tokens,
+		@NotNull TokenBuffer tokens,
+		@NotNull SyntaxPatternElement childElement,
+		int childIndex
+	) {
+		// sections and entries change the section stack, so they are always parsed in place
+		if (childElement.syntaxType().equals("section") || childElement.syntaxType().equals("entries"))
+			return parseChildUncached(context, parentCandidate, tokens, childElement, childIndex);
+
+		// competing candidates and splits often contain the same child, which would otherwise be parsed every time
+		return context.memoize(tokens, parentCandidate.nodeType(), childIndex, childElement,
+			() -> parseChildUncached(context, parentCandidate, tokens, childElement, childIndex));
+	}
+
+	private @Nullable Match<? extends SyntaxNode> parseChildUncached(
+		@NotNull ParseContextImpl context,
+		@NotNull TokenizedSyntax parentCandidate,
+		@NotNull TokenBuffer tokens,
 		@NotNull SyntaxPatternElement childElement,
 		int childIndex
 	) {
@@ -375,10 +397,10 @@ public final class SkriptParserImpl implements SkriptParser {
 
 				if (token.type() == TokenType.STRING) {
 					// special case for string tokens
-					List<ExpressionNode<?>> children = new LinkedList<>();
+					List<ExpressionNode<?>> children = new ArrayList<>();
 					// TODO: string template context
 					for (List<Token> subTokens : Objects.requireNonNull(token.children())) {
-						Match<ExpressionNode<?>> expression = parseExpression(context, subTokens, "string");
+						Match<ExpressionNode<?>> expression = parseExpression(context, TokenBuffer.of(subTokens), "string");
 						if (expression == null) {
 							context.error("Failed to parse string template expression", subTokens.getFirst().start());
 							return null;
@@ -404,7 +426,7 @@ public final class SkriptParserImpl implements SkriptParser {
 
 	private Match<ExpressionNode<?>> parseExpression(
 		@NotNull ParseContextImpl context,
-		@NotNull List<Token> tokens,
+		@NotNull TokenBuffer tokens,
 		@Nullable String desiredTypeName
 	) {
 		List<TokenizedSyntax> candidates = findCandidates(context, tokens, ExpressionNodeType.class);
@@ -433,7 +455,7 @@ public final class SkriptParserImpl implements SkriptParser {
 
 	private Match<StructureSectionNode> parseEntries(
 		@NotNull ParseContextImpl context,
-		@NotNull List<Token> tokens,
+		@NotNull TokenBuffer tokens,
 		@Nullable EntryStructureDefinition structure
 	) {
 		if (structure == null) return null;
@@ -466,7 +488,7 @@ public final class SkriptParserImpl implements SkriptParser {
 		Token whitespace;
 		do {
 			if (index >= tokens.size()) break;
-			Match<StructureEntryNode> next = parseEntry(context, tokens.subList(index, tokens.size()), unused);
+			Match<StructureEntryNode> next = parseEntry(context, tokens.subList(index), unused);
 			if (next == null) {
 				context.info("Fail occurred in section depth " + context.depth(), tokens.get(index).start());
 				context.popSection();
@@ -508,7 +530,7 @@ public final class SkriptParserImpl implements SkriptParser {
 
 	private Match<StructureEntryNode> parseEntry(
 		@NotNull ParseContextImpl context,
-		@NotNull List<Token> tokens,
+		@NotNull TokenBuffer tokens,
 		@NotNull Map<String, EntryDefinition> unused
 	) {
 		List<TokenizedSyntax> candidates = findCandidates(context, tokens, StructureEntryNodeType.class);
@@ -570,7 +592,7 @@ public final class SkriptParserImpl implements SkriptParser {
 		@NotNull List<Token> tokens,
 		@NotNull Class<?> superType
 	) {
-		return context.availableSyntaxes().stream()
+		return context.candidateSyntaxes(tokens).stream()
 			.filter(tokenizedSyntax -> superType.isInstance(tokenizedSyntax.nodeType()))
 			.filter(tokenizedSyntax -> tokenizedSyntax.canMatch(tokens))
 			.filter(tokenizedSyntax -> tokenizedSyntax.nodeType().canBeParsed(context, tokenizedSyntax.patternIndex()))
@@ -578,11 +600,10 @@ public final class SkriptParserImpl implements SkriptParser {
 	}
 
 	private void pushParseableSyntaxes(@NotNull ParseContextImpl context) {
-		List<TokenizedSyntax> alreadyAvailable = context.availableSyntaxes();
 		context.pushSyntaxFrame(
 			Objects.requireNonNull(tokenizedSyntaxes).stream()
 				.filter(it ->
-					!alreadyAvailable.contains(it)
+					!context.isAvailable(it)
 						&& it.nodeType().canBeParsed(context, it.patternIndex())
 				)
 				.toList()
@@ -590,13 +611,13 @@ public final class SkriptParserImpl implements SkriptParser {
 	}
 
 	/**
-	 * Lazily computes the tokenized syntaxes from the node types.
+	 * Lazily computes the tokenized syntaxes from the node types, and the index over them.
 	 */
 	private synchronized ResultWithDiagnostics<Object> computeTokenizedSyntaxes() {
 		if (tokenizedSyntaxes != null) return ResultWithDiagnostics.success(new Object());
 		if (!isLocked()) throw new IllegalStateException("Cannot compute tokenized syntaxes because the parser is not locked");
 
-		var list = new LinkedList<TokenizedSyntax>();
+		var list = new ArrayList<TokenizedSyntax>();
 
 		for (var nodeType : nodeTypes) {
 
@@ -618,6 +639,8 @@ public final class SkriptParserImpl implements SkriptParser {
 			}
 		}
 
+		// the index must be ready once the syntaxes are visible, as parse only checks for the latter
+		syntaxIndex = new SyntaxIndex(list);
 		tokenizedSyntaxes = Collections.unmodifiableList(list);
 		return ResultWithDiagnostics.success(new Object());
 	}
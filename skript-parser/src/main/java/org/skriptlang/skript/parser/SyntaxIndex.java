@@ -0,0 +1,105 @@
+package org.skriptlang.skript.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.skriptlang.skript.parser.tokens.Token;
+import org.skriptlang.skript.parser.tokens.TokenType;
+
+import java.util.*;
+
+/**
+ * An index over tokenized syntaxes, used to find the syntaxes that could match some script tokens
+ * without testing every single syntax.
+ * <p>
+ * The index is a trie over the literal tokens each syntax starts with, i.e. all tokens up to its first
+ * {@link TokenType#SYNTAX} token. Those tokens must be matched exactly by the script tokens,
+ * so only the syntaxes along the path of the script tokens through the trie can match them.
+ * <p>
+ * Every indexed syntax is assigned an ordinal, which is its position in the list the index was built from.
+ * Sets of indexed syntaxes are represented as {@link BitSet}s of these ordinals.
+ */
+final class SyntaxIndex {
+	private final List<TokenizedSyntax> syntaxes;
+
+	private final Map<TokenizedSyntax, Integer> ordinals = new IdentityHashMap<>();
+
+	private final Node root = new Node();
+
+	/**
+	 * Builds the index for the given syntaxes.
+	 * @param syntaxes The syntaxes to index. The order of this list is kept in lookups.
+	 */
+	SyntaxIndex(@NotNull List<TokenizedSyntax> syntaxes) {
+		this.syntaxes = List.copyOf(syntaxes);
+
+		for (int ordinal = 0; ordinal < this.syntaxes.size(); ordinal++) {
+			TokenizedSyntax syntax = this.syntaxes.get(ordinal);
+			ordinals.put(syntax, ordinal);
+
+			Node node = root;
+			for (Token token : syntax.tokens()) {
+				if (token.type() == TokenType.SYNTAX) break;
+				node = node.children.computeIfAbsent(new Key(token.type(), token.value()), key -> new Node());
+			}
+			node.syntaxes.set(ordinal);
+		}
+	}
+
+	/**
+	 * Returns the amount of indexed syntaxes.
+	 */
+	int size() {
+		return syntaxes.size();
+	}
+
+	/**
+	 * Returns the ordinal of the given syntax, or -1 if it is not part of this index.
+	 */
+	int ordinalOf(@NotNull TokenizedSyntax syntax) {
+		Integer ordinal = ordinals.get(syntax);
+		return ordinal != null ? ordinal : -1;
+	}
+
+	/**
+	 * Returns the syntax with the given ordinal.
+	 */
+	@NotNull TokenizedSyntax get(int ordinal) {
+		return syntaxes.get(ordinal);
+	}
+
+	/**
+	 * Finds the indexed syntaxes whose literal tokens match the start of the given script tokens.
+	 * The remainder of each syntax is not checked, so {@link TokenizedSyntax#canMatch(List)} may still fail for them.
+	 * @param scriptTokens The script tokens to match against.
+	 * @param filter The ordinals of the syntaxes that may be returned.
+	 * @return The ordinals of the syntaxes.
+	 */
+	@NotNull BitSet candidates(@NotNull List<Token> scriptTokens, @NotNull BitSet filter) {
+		BitSet found = (BitSet) root.syntaxes.clone();
+
+		Node node = root;
+		for (Token token : scriptTokens) {
+			node = node.children.get(new Key(token.type(), token.value()));
+			if (node == null) break;
+			found.or(node.syntaxes);
+		}
+		found.and(filter);
+		return found;
+	}
+
+	/**
+	 * A node of the trie.
+	 */
+	private static final class Node {
+		private final Map<Key, Node> children = new HashMap<>();
+
+		/**
+		 * The ordinals of the syntaxes whose literal tokens end at this node.
+		 */
+		private final BitSet syntaxes = new BitSet();
+	}
+
+	/**
+	 * The parts of a token that are compared by {@link Token#matches(Token)}.
+	 */
+	private record Key(@NotNull TokenType type, @NotNull Object value) { }
+}
@@ -23,7 +23,8 @@ public record TokenizedSyntax(@NotNull SyntaxNodeType<?> nodeType, int patternIn
 
 		this.nodeType = nodeType;
 		this.patternIndex = patternIndex;
-		this.tokens = Collections.unmodifiableList(tokens);
+		// copied into a random-access list, as tokens are looked up by index while matching
+		this.tokens = List.copyOf(tokens);
 	}
 
 	/**
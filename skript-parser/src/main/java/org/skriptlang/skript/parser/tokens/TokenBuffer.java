@@ -0,0 +1,121 @@
+package org.skriptlang.skript.parser.tokens;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable, random-access list of script tokens.
+ * <p>
+ * Sub lists of a token buffer are token buffers themselves, which share the backing array
+ * of the buffer they were created from. Creating one is constant time, and views of views do not chain,
+ * so accessing a token is always constant time no matter how often the buffer has been split up.
+ * <p>
+ * The buffer also knows the positions of all tokens that contain a newline,
+ * so the end of the current line can be found in logarithmic time with {@link #nextNewline()}.
+ */
+public final class TokenBuffer extends AbstractList<Token> implements RandomAccess {
+	private static final int[] NO_NEWLINES = new int[0];
+
+	private final Token[] tokens;
+
+	/**
+	 * The indices in {@link #tokens} of the whitespace tokens which contain a newline, in ascending order.
+	 */
+	private final int[] newlines;
+
+	private final int from;
+	private final int to;
+
+	private TokenBuffer(@NotNull Token[] tokens, @NotNull int[] newlines, int from, int to) {
+		this.tokens = tokens;
+		this.newlines = newlines;
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * Creates a token buffer containing the given tokens.
+	 * @param tokens The tokens. If this already is a token buffer, it is returned as is.
+	 * @return The token buffer.
+	 */
+	public static @NotNull TokenBuffer of(@NotNull List<Token> tokens) {
+		Preconditions.checkNotNull(tokens, "tokens cannot be null");
+		if (tokens instanceof TokenBuffer buffer) return buffer;
+
+		Token[] array = tokens.toArray(new Token[0]);
+		int[] newlines = new int[array.length];
+		int count = 0;
+		for (int i = 0; i < array.length; i++) {
+			Preconditions.checkNotNull(array[i], "tokens cannot contain null");
+			if (isNewline(array[i])) newlines[count++] = i;
+		}
+		return new TokenBuffer(array, count == 0 ? NO_NEWLINES : Arrays.copyOf(newlines, count), 0, array.length);
+	}
+
+	/**
+	 * Returns whether the given token is a whitespace token which contains a newline.
+	 */
+	public static boolean isNewline(@NotNull Token token) {
+		return token.type() == TokenType.WHITESPACE && token.asString().indexOf('\n') != -1;
+	}
+
+	@Override
+	public Token get(int index) {
+		if (index < 0 || index >= size())
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+		return tokens[from + index];
+	}
+
+	@Override
+	public int size() {
+		return to - from;
+	}
+
+	@Override
+	public @NotNull TokenBuffer subList(int fromIndex, int toIndex) {
+		if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex)
+			throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") out of bounds for length " + size());
+		return new TokenBuffer(tokens, newlines, from + fromIndex, from + toIndex);
+	}
+
+	/**
+	 * Returns a view of this buffer without its first {@code fromIndex} tokens.
+	 */
+	public @NotNull TokenBuffer subList(int fromIndex) {
+		return subList(fromIndex, size());
+	}
+
+	/**
+	 * Returns whether this buffer is a view of the exact same tokens as the given buffer,
+	 * meaning both were split off the same buffer at the same positions.
+	 * Unlike {@link #equals(Object)}, this does not consider equal tokens at other positions the same.
+	 */
+	public boolean isSameRange(@NotNull TokenBuffer other) {
+		return tokens == other.tokens && from == other.from && to == other.to;
+	}
+
+	/**
+	 * Returns a hash code that is consistent with {@link #isSameRange(TokenBuffer)}.
+	 */
+	public int rangeHashCode() {
+		return 31 * (31 * System.identityHashCode(tokens) + from) + to;
+	}
+
+	/**
+	 * Finds the first whitespace token which contains a newline.
+	 * @return The index of that token in this buffer, or -1 if there is none.
+	 */
+	public int nextNewline() {
+		int position = Arrays.binarySearch(newlines, from);
+		// binarySearch returns (-(insertion point) - 1) if the index itself is not a newline
+		if (position < 0) position = -position - 1;
+		if (position >= newlines.length || newlines[position] >= to) return -1;
+		return newlines[position] - from;
+	}
+
+}
@@ -24,7 +24,7 @@ public final class TokenComparer {
 			return false;
 		}
 
-		int nextSyntaxTokenIndex = syntaxTokens.stream().map(token -> token.type() == TokenType.SYNTAX).toList().indexOf(true);
+		int nextSyntaxTokenIndex = indexOfSyntaxToken(syntaxTokens);
 
 		if (nextSyntaxTokenIndex == -1) {
 			// No more syntax tokens to match
@@ -64,6 +64,18 @@ public final class TokenComparer {
 		return false;
 	}
 
+	/**
+	 * Returns the index of the first syntax token in the given token list, or -1 if there is none.
+	 */
+	private static int indexOfSyntaxToken(@NotNull List<Token> tokens) {
+		for (int i = 0; i < tokens.size(); i++) {
+			if (tokens.get(i).type() == TokenType.SYNTAX) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	/**
 	 * Returns whether the first and second token list elements all match each other, disregarding syntax tokens.
 	 * @param first The first token list.
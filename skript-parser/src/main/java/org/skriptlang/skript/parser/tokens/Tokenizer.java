@@ -333,7 +333,7 @@ public class Tokenizer {
 	public static ResultWithDiagnostics<List<Token>> tokenize(@NotNull ScriptSource source) {
 		String content = source.content();
 
-		var tokens = new LinkedList<Token>();
+		var tokens = new ArrayList<Token>();
 		var diagnostics = new LinkedList<ScriptDiagnostic>();
 
 		// switch that silences duplicate tokenization issues until a non-null token is found
@@ -362,7 +362,7 @@ public class Tokenizer {
 					&& !token.asString().contains("\n"))
 		);
 
-		return ResultWithDiagnostics.success(Collections.unmodifiableList(tokens), diagnostics);
+		return ResultWithDiagnostics.success(TokenBuffer.of(tokens), diagnostics);
 	}
 
 	private static @Nullable Token nextToken(ScriptSource source, List<ScriptDiagnostic> diagnostics, @NotNull String content, int index) {
@@ -467,7 +467,7 @@ public class Tokenizer {
 					if (end < content.length() && content.charAt(end) == '%') {
 						end++;
 						templateTokens.removeIf(it -> it.type() == TokenType.WHITESPACE);
-						children.add(templateTokens);
+						children.add(TokenBuffer.of(templateTokens));
 						lastTemplateEnd = end;
 					} else {
 						// TODO fail case, no closing %
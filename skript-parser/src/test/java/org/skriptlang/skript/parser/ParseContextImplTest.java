@@ -0,0 +1,168 @@
+package org.skriptlang.skript.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.skriptlang.skript.api.nodes.EffectNode;
+import org.skriptlang.skript.api.nodes.SyntaxNode;
+import org.skriptlang.skript.api.nodes.SyntaxNodeType;
+import org.skriptlang.skript.api.script.ScriptSource;
+import org.skriptlang.skript.parser.pattern.SyntaxPatternElement;
+import org.skriptlang.skript.parser.tokens.Token;
+import org.skriptlang.skript.parser.tokens.TokenBuffer;
+import org.skriptlang.skript.parser.tokens.Tokenizer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ParseContextImplTest {
+
+	private record TestSource(String name, String content) implements ScriptSource {}
+
+	/**
+	 * A node type that is only equal to itself, so that syntaxes with the same pattern can be told apart.
+	 */
+	private static final class TestNodeType implements SyntaxNodeType<EffectNode> {
+
+		private final String syntax;
+
+		private TestNodeType(String syntax) {
+			this.syntax = syntax;
+		}
+
+		@Override
+		public List<String> getSyntaxes() {
+			return List.of(syntax);
+		}
+
+		@Override
+		public @NotNull EffectNode create(List<SyntaxNode> children, int matchedPattern) {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+	private static TokenizedSyntax syntax(String pattern) {
+		return Tokenizer.tokenizeSyntax(new TestSource("syntax", pattern), new TestNodeType(pattern), 0).get().getFirst();
+	}
+
+	private static List<Token> tokens(String script) {
+		return Tokenizer.tokenize(new TestSource("script", script)).get();
+	}
+
+	@Test
+	public void testShadowedSyntaxComesFirst() {
+		TokenizedSyntax outer = syntax("broadcast");
+		TokenizedSyntax other = syntax("stop");
+		TokenizedSyntax inner = syntax("broadcast");
+		ParseContextImpl context = new ParseContextImpl(new TestSource("script", "broadcast"), new SyntaxIndex(List.of(outer, other, inner)));
+
+		context.pushSyntaxFrame(List.of(outer, other));
+		context.pushSyntaxFrame(List.of(inner));
+
+		// the syntax of the innermost frame wins ties, even though it comes last in the index
+		assertEquals(List.of(inner, outer), context.candidateSyntaxes(tokens("broadcast")));
+		assertEquals(context.availableSyntaxes().stream().filter(it -> it != other).toList(), context.candidateSyntaxes(tokens("broadcast")));
+
+		context.popSyntaxFrame();
+		assertEquals(List.of(outer), context.candidateSyntaxes(tokens("broadcast")));
+	}
+
+	@Test
+	public void testFrameOrderIsKeptWhenNotInIndexOrder() {
+		TokenizedSyntax first = syntax("broadcast");
+		TokenizedSyntax second = syntax("broadcast");
+		TokenizedSyntax unindexed = syntax("broadcast");
+		ParseContextImpl context = new ParseContextImpl(new TestSource("script", "broadcast"), new SyntaxIndex(List.of(first, second)));
+
+		context.pushSyntaxFrame(List.of(second, unindexed, first));
+
+		assertEquals(List.of(second, unindexed, first), context.candidateSyntaxes(tokens("broadcast")));
+	}
+
+	@Test
+	public void testMemoizedFailureReportsAgain() {
+		TestSource source = new TestSource("script", "broadcast");
+		ParseContextImpl context = new ParseContextImpl(source);
+		TokenBuffer tokens = TokenBuffer.of(tokens("broadcast"));
+		SyntaxPatternElement element = new SyntaxPatternElement("expr", List.of(), "string");
+		AtomicInteger parses = new AtomicInteger();
+
+		for (int i = 1; i <= 2; i++) {
+			Object result = context.memoize(tokens, null, 0, element, () -> {
+				parses.incrementAndGet();
+				context.error("No possible expression", 0);
+				return null;
+			});
+			assertNull(result);
+			// the second parent reusing the failure gets its diagnostic too
+			assertEquals(i, context.currentContext().diagnostics().size());
+		}
+		assertEquals(1, parses.get());
+	}
+
+	@Test
+	public void testSameRangeUnderDifferentParents() {
+		TestSource source = new TestSource("script", "broadcast");
+		ParseContextImpl context = new ParseContextImpl(source);
+		TokenBuffer tokens = TokenBuffer.of(tokens("broadcast"));
+		SyntaxPatternElement element = new SyntaxPatternElement("expr", List.of(), "string");
+		TestNodeType first = new TestNodeType("first %string%");
+		TestNodeType second = new TestNodeType("second %string%");
+		AtomicInteger parses = new AtomicInteger();
+
+		// a child may be parseable under one parent only, so the result of one parent must not be reused by another
+		assertEquals("first", context.memoize(tokens, first, 0, element, () -> {
+			parses.incrementAndGet();
+			return "first";
+		}));
+		assertNull(context.memoize(tokens, second, 0, element, () -> {
+			parses.incrementAndGet();
+			return null;
+		}));
+		assertNull(context.memoize(tokens, first, 1, element, () -> {
+			parses.incrementAndGet();
+			return null;
+		}));
+		assertEquals(3, parses.get());
+
+		assertEquals("first", context.memoize(tokens, first, 0, element, () -> {
+			parses.incrementAndGet();
+			return null;
+		}));
+		assertEquals(3, parses.get());
+	}
+
+	@Test
+	public void testRecursiveParseIsNotMemoized() {
+		TestSource source = new TestSource("script", "broadcast");
+		ParseContextImpl context = new ParseContextImpl(source);
+		TokenBuffer tokens = TokenBuffer.of(tokens("broadcast"));
+		SyntaxPatternElement element = new SyntaxPatternElement("expr", List.of(), "string");
+		TestNodeType outer = new TestNodeType("outer %string%");
+		TestNodeType inner = new TestNodeType("inner %string%");
+		AtomicInteger innerParses = new AtomicInteger();
+		Supplier<String> parseInner = () -> {
+			innerParses.incrementAndGet();
+			// the same range as the same child of the outer node, which is still being parsed
+			return context.memoize(tokens, outer, 0, element, () -> "recursed");
+		};
+
+		assertEquals("outer", context.memoize(tokens, outer, 0, element, () -> {
+			assertNull(context.memoize(tokens, inner, 0, element, parseInner));
+			return "outer";
+		}));
+		assertEquals(1, innerParses.get());
+		assertEquals(1, context.currentContext().diagnostics().size());
+
+		// the inner parse only failed because of the recursion, so it is parsed again
+		assertEquals("outer", context.memoize(tokens, inner, 0, element, parseInner));
+		assertEquals(2, innerParses.get());
+		assertEquals("outer", context.memoize(tokens, inner, 0, element, parseInner));
+		assertEquals(2, innerParses.get());
+	}
+
+}
@@ -5,11 +5,14 @@ import org.jetbrains.annotations.Nullable;
 import org.skriptlang.skript.api.nodes.SyntaxNode;
 import org.skriptlang.skript.api.runtime.ExecuteContext;
 import org.skriptlang.skript.api.runtime.SkriptRuntime;
+import org.skriptlang.skript.api.runtime.VariableSlot;
+import org.skriptlang.skript.api.runtime.VariableSlotTable;
 import org.skriptlang.skript.api.script.Script;
 import org.skriptlang.skript.api.types.SkriptValue;
 import org.skriptlang.skript.api.types.Variable;
 import org.skriptlang.skript.api.util.ExecuteResult;
 
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Supplier;
@@ -19,12 +22,28 @@ public class ExecuteContextImpl implements ExecuteContext {
 	private final @NotNull SkriptRuntime runtime;
 	private final @Nullable ExecuteContext parent;
 
-	private final @NotNull Map<String, Variable> variables = new LinkedHashMap<>();
+	private static final Variable[] NO_VARIABLES = new Variable[0];
+
+	/**
+	 * Numbers the variables of this context. Shared with the contexts forked from it.
+	 */
+	private final @NotNull VariableSlotTable slots;
+
+	/**
+	 * The variables set in this context, indexed by their index in {@link #slots}.
+	 * Only grows as far as the highest slot set in this context.
+	 */
+	private Variable[] variables = NO_VARIABLES;
 	private final @NotNull Map<String, Variable> literalVariables = new LinkedHashMap<>();
 
-	protected ExecuteContextImpl(@NotNull SkriptRuntime runtime, @Nullable ExecuteContext parent) {
+	protected ExecuteContextImpl(@NotNull SkriptRuntime runtime, @Nullable ExecuteContext parent, @NotNull VariableSlotTable slots) {
 		this.runtime = runtime;
 		this.parent = parent;
+		this.slots = slots;
+	}
+
+	protected ExecuteContextImpl(@NotNull SkriptRuntime runtime, @Nullable ExecuteContext parent) {
+		this(runtime, parent, parent instanceof ExecuteContextImpl impl ? impl.slots : new VariableSlotTable());
 	}
 
 	public ExecuteContextImpl(@NotNull SkriptRuntime runtime) {
@@ -51,50 +70,94 @@ public class ExecuteContextImpl implements ExecuteContext {
 		return parent;
 	}
 
+	/**
+	 * Gets the table numbering the variables of this context.
+	 */
+	protected @NotNull VariableSlotTable slots() {
+		return slots;
+	}
+
 	@Override
 	public boolean hasVariableInPlace(String name) {
-		return variables.containsKey(name);
+		return getVariableInPlace(name) != null;
 	}
 
 	@Override
 	public boolean hasVariable(String name) {
-		return hasVariableInPlace(name) || (parent != null && parent.hasVariable(name));
+		return getVariable(name) != null;
 	}
 
 	@Override
 	public @Nullable Variable getVariableInPlace(String name) {
-		return variables.get(name);
+		return getVariableAt(slots.find(name));
+	}
+
+	@Override
+	public @Nullable Variable getVariableInPlace(@NotNull VariableSlot slot) {
+		return getVariableAt(slot.find(slots));
+	}
+
+	private @Nullable Variable getVariableAt(int index) {
+		return index != -1 && index < variables.length ? variables[index] : null;
 	}
 
 	@Override
 	public @Nullable Variable getVariable(String name) {
-		if (hasVariableInPlace(name)) {
-			return getVariableInPlace(name);
-		} else if (parent != null) {
-			return parent.getVariable(name);
-		} else {
-			return null;
-		}
+		Variable variable = getVariableInPlace(name);
+		if (variable != null) return variable;
+		return parent != null ? parent.getVariable(name) : null;
+	}
+
+	@Override
+	public @Nullable Variable getVariable(@NotNull VariableSlot slot) {
+		Variable variable = getVariableInPlace(slot);
+		if (variable != null) return variable;
+		return parent != null ? parent.getVariable(slot) : null;
 	}
 
 	@Override
 	public @NotNull Variable setVariableInPlace(String name, @NotNull SkriptValue initialValue) {
+		return setVariableAt(slots.assign(name), initialValue);
+	}
+
+	@Override
+	public @NotNull Variable setVariableInPlace(@NotNull VariableSlot slot, @NotNull SkriptValue initialValue) {
+		return setVariableAt(slot.assign(slots), initialValue);
+	}
+
+	private @NotNull Variable setVariableAt(int index, @NotNull SkriptValue initialValue) {
+		if (index >= variables.length) variables = Arrays.copyOf(variables, Math.max(index + 1, variables.length * 2));
+
+		// reuse the holder of the variable rather than allocating one on each set
+		if (variables[index] instanceof VariableImpl.OfValue existing) {
+			existing.set(initialValue);
+			return existing;
+		}
 		Variable variable = new VariableImpl.OfValue(runtime, initialValue);
-		variables.put(name, variable);
+		variables[index] = variable;
 		return variable;
 	}
 
 	@Override
 	public @NotNull Variable setVariable(String name, @NotNull SkriptValue initialValue) {
 		// set in parent if it has the variable, and we don't have one by the same name
-		if (!hasVariableInPlace(name) && parent != null && parent.hasVariable(name)) {
+		if (getVariableInPlace(name) == null && parent != null && parent.getVariable(name) != null) {
 			return parent.setVariable(name, initialValue);
 		} else return setVariableInPlace(name, initialValue);
 	}
 
+	@Override
+	public @NotNull Variable setVariable(@NotNull VariableSlot slot, @NotNull SkriptValue initialValue) {
+		// set in parent if it has the variable, and we don't have one by the same name
+		if (getVariableInPlace(slot) == null && parent != null && parent.getVariable(slot) != null) {
+			return parent.setVariable(slot, initialValue);
+		} else return setVariableInPlace(slot, initialValue);
+	}
+
 	@Override
 	public void unsetVariableInPlace(String name) {
-		variables.remove(name);
+		int index = slots.find(name);
+		if (index != -1 && index < variables.length) variables[index] = null;
 	}
 
 	@Override
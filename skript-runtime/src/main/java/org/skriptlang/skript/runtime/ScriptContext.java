@@ -5,6 +5,7 @@ import org.jetbrains.annotations.Nullable;
 import org.skriptlang.skript.api.nodes.SyntaxNode;
 import org.skriptlang.skript.api.runtime.ExecuteContext;
 import org.skriptlang.skript.api.runtime.SkriptRuntime;
+import org.skriptlang.skript.api.runtime.VariableSlotTable;
 import org.skriptlang.skript.api.script.Script;
 
 import java.util.LinkedHashMap;
@@ -19,7 +20,8 @@ public class ScriptContext extends ExecuteContextImpl {
 	private final Map<SyntaxNode, Object> scriptData = new LinkedHashMap<>();
 
 	public ScriptContext(@NotNull SkriptRuntime runtime, @Nullable Script script, @Nullable ExecuteContext parent) {
-		super(runtime, parent);
+		// every script numbers its own variables
+		super(runtime, parent, new VariableSlotTable());
 		this.script = script;
 	}
 
@@ -27,6 +29,13 @@ public class ScriptContext extends ExecuteContextImpl {
 		this(runtime, script, null);
 	}
 
+	/**
+	 * Releases the variable slots of this script, once it has been unloaded.
+	 */
+	public void release() {
+		slots().release();
+	}
+
 	@Override
 	public @Nullable Script script() {
 		return script;
@@ -2,6 +2,8 @@ package org.skriptlang.skript.runtime;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.skriptlang.skript.api.nodes.StatementNode;
+import org.skriptlang.skript.api.nodes.StructureNode;
 import org.skriptlang.skript.api.runtime.ExecuteContext;
 import org.skriptlang.skript.api.runtime.SkriptRuntime;
 import org.skriptlang.skript.api.script.Script;
@@ -107,6 +109,65 @@ public class SkriptRuntimeImpl implements SkriptRuntime {
 		return scriptContext;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The structures of all scripts are loaded together, ordered by their priority,
+	 * so that e.g. the functions of every script are loaded before any events.
+	 * Structures of the same priority are loaded in the order of their scripts.
+	 * If a structure fails, the remaining structures of its script are skipped.
+	 */
+	@Override
+	public @NotNull Map<Script, @Nullable ExecuteContext> loadAll(@NotNull Collection<? extends Script> scripts) {
+		Set<Script> batch = new LinkedHashSet<>(scripts);
+		synchronized (loadingScripts) {
+			for (Script script : batch) {
+				if (loadingScripts.contains(script)) throw new IllegalStateException("Script is already being loaded");
+				if (loadedScripts.containsKey(script)) throw new IllegalStateException("Script is already loaded");
+			}
+			loadingScripts.addAll(batch);
+		}
+
+		Map<Script, ExecuteContext> contexts = new LinkedHashMap<>();
+		Set<Script> failed = new HashSet<>();
+		List<LoadingStructure> structures = new ArrayList<>();
+		for (Script script : batch) {
+			contexts.put(script, new ScriptContext(this, script, globalContext()));
+			for (StatementNode node : script.root().children()) {
+				if (node instanceof StructureNode structure) {
+					structures.add(new LoadingStructure(script, structure));
+				} else {
+					// the root of a script may only contain structures
+					failed.add(script);
+				}
+			}
+		}
+
+		// stable, so structures of the same priority keep the order of their scripts
+		structures.sort(Comparator.comparing(it -> it.structure().priority()));
+
+		for (LoadingStructure it : structures) {
+			if (failed.contains(it.script())) continue;
+			if (it.structure().load(contexts.get(it.script())) instanceof ExecuteResult.Failure) failed.add(it.script());
+		}
+
+		for (LoadingStructure it : structures) {
+			if (failed.contains(it.script())) continue;
+			if (it.structure().postLoad(contexts.get(it.script())) instanceof ExecuteResult.Failure) failed.add(it.script());
+		}
+
+		synchronized (loadingScripts) {
+			contexts.forEach((script, context) -> {
+				if (!failed.contains(script)) loadedScripts.put(script, context);
+			});
+			loadingScripts.removeAll(batch);
+		}
+
+		Map<Script, ExecuteContext> results = new LinkedHashMap<>();
+		contexts.forEach((script, context) -> results.put(script, failed.contains(script) ? null : context));
+		return results;
+	}
+
 	@Override
 	public void unload(@NotNull Script script) {
 		synchronized (loadingScripts) {
@@ -120,5 +181,8 @@ public class SkriptRuntimeImpl implements SkriptRuntime {
 		synchronized (loadingScripts) {
 			loadedScripts.remove(script);
 		}
+		if (scriptContext instanceof ScriptContext context) context.release();
 	}
+
+	private record LoadingStructure(@NotNull Script script, @NotNull StructureNode structure) { }
 }
@@ -42,7 +42,7 @@ public class SetEffect implements EffectNode {
 				// this case covers a special case
 				// where a variable expression will return NoneValue because the variable is not set.
 				// since it's the set effect, we just create a new variable.
-				variable = context.setVariable(varExpr.name());
+				variable = context.setVariable(varExpr.slot());
 			} else {
 				return ExecuteResult.failure(new ErrorValue("Cannot set <none> to a value"));
 			}
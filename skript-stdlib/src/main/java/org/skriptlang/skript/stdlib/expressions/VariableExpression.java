@@ -6,8 +6,10 @@ import org.skriptlang.skript.api.nodes.ExpressionNodeType;
 import org.skriptlang.skript.api.nodes.SyntaxNode;
 import org.skriptlang.skript.api.nodes.TokenNode;
 import org.skriptlang.skript.api.runtime.ExecuteContext;
+import org.skriptlang.skript.api.runtime.VariableSlot;
 import org.skriptlang.skript.api.types.NoneValue;
 import org.skriptlang.skript.api.types.SkriptValueOrVariable;
+import org.skriptlang.skript.api.types.Variable;
 
 import java.util.List;
 
@@ -31,19 +33,24 @@ public class VariableExpression implements ExpressionNode<SkriptValueOrVariable>
 		}
 	};
 
-	private final String name;
+	private final VariableSlot slot;
 
 	public VariableExpression(String name) {
-		this.name = name;
+		// created once while parsing, so executing this expression does not need to look up the name
+		this.slot = VariableSlot.of(name);
 	}
 
 	public String name() {
-		return name;
+		return slot.name();
+	}
+
+	public VariableSlot slot() {
+		return slot;
 	}
 
 	@Override
 	public @NotNull SkriptValueOrVariable resolve(@NotNull ExecuteContext context) {
-		//noinspection DataFlowIssue
-		return context.hasVariable(name) ? context.getVariable(name) : NoneValue.get();
+		Variable variable = context.getVariable(slot);
+		return variable != null ? variable : NoneValue.get();
 	}
 }
@@ -1,6 +1,7 @@
 package ch.njol.skript;
 
 import ch.njol.skript.config.Config;
+import ch.njol.skript.config.EntryNode;
 import ch.njol.skript.config.Node;
 import ch.njol.skript.config.SectionNode;
 import ch.njol.skript.config.SimpleNode;
@@ -10,10 +11,12 @@ import ch.njol.skript.lang.SkriptParser;
 import ch.njol.skript.lang.Statement;
 import ch.njol.skript.lang.TriggerItem;
 import ch.njol.skript.lang.parser.ParserInstance;
+import ch.njol.skript.lang.util.ConstantFolding;
 import ch.njol.skript.log.CountingLogHandler;
 import ch.njol.skript.log.LogEntry;
 import ch.njol.skript.log.RetainingLogHandler;
 import ch.njol.skript.log.SkriptLogger;
+import ch.njol.skript.structures.StructEvent;
 import ch.njol.skript.structures.StructOptions.OptionsData;
 import ch.njol.skript.test.runner.TestMode;
 import ch.njol.skript.util.ExceptionUtils;
@@ -28,6 +31,7 @@ import org.bukkit.Bukkit;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 import org.skriptlang.skript.lang.script.Script;
+import org.skriptlang.skript.lang.script.ScriptData;
 import org.skriptlang.skript.lang.script.ScriptWarning;
 import org.skriptlang.skript.lang.structure.Structure;
 import org.skriptlang.skript.util.event.EventRegistry;
@@ -40,6 +44,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -278,6 +283,13 @@ public class ScriptLoader {
 		return asyncLoaderSize > 1;
 	}
 
+	/**
+	 * @return the amount of async loaders, see {@link #setAsyncLoaderSize(int)}.
+	 */
+	public static int getAsyncLoaderSize() {
+		return asyncLoaderSize;
+	}
+
 	/**
 	 * Sets the amount of async loaders, by updating
 	 * {@link #asyncLoaderSize} and {@link #loaderThreads}.
@@ -453,16 +465,31 @@ public class ScriptLoader {
 	 *  and closed after the {@link Structure#postLoad()} stage.
 	 * @return Info on the loaded scripts.
 	 */
-	@SuppressWarnings("removal")
 	private static CompletableFuture<ScriptInfo> loadScripts(List<Config> configs, OpenCloseable openCloseable) {
 		if (configs.isEmpty()) // Nothing to load
 			return CompletableFuture.completedFuture(new ScriptInfo());
 
+		callPreInitEvents(configs);
+		return loadConfigs(configs, openCloseable);
+	}
+
+	/**
+	 * Calls the events that are called before scripts are loaded. Listeners may change the given configs.
+	 * @param configs The configs of the scripts that are about to be loaded.
+	 */
+	@SuppressWarnings("removal")
+	private static void callPreInitEvents(List<Config> configs) {
 		eventRegistry().events(ScriptPreInitEvent.class)
 				.forEach(event -> event.onPreInit(configs));
 		//noinspection deprecation - we still need to call it
 		Bukkit.getPluginManager().callEvent(new PreScriptLoadEvent(configs));
+	}
 
+	/**
+	 * Loads the specified scripts like {@link #loadScripts(List, OpenCloseable)},
+	 * once the events before loading them have been called.
+	 */
+	private static CompletableFuture<ScriptInfo> loadConfigs(List<Config> configs, OpenCloseable openCloseable) {
 		ScriptInfo scriptInfo = new ScriptInfo();
 
 		List<LoadingScriptInfo> scripts = new ArrayList<>();
@@ -505,82 +532,48 @@ public class ScriptLoader {
 					pairs.removeIf(pair -> {
 						LoadingScriptInfo loadingInfo = pair.getFirst();
 						Structure structure = pair.getSecond();
-
-						parser.setActive(loadingInfo.script);
-						parser.setCurrentStructure(structure);
-						parser.setNode(loadingInfo.nodeMap.get(structure));
-
-						try {
-							if (!structure.preLoad()) {
-								loadingInfo.structures.remove(structure);
-								return true;
-							}
-						} catch (Exception e) {
-							//noinspection ThrowableNotThrown
-							Skript.exception(e, "An error occurred while trying to preLoad a Structure.");
-							loadingInfo.structures.remove(structure);
-							return true;
-						}
-						return false;
+						if (runLoadingStage(parser, loadingInfo.script, structure, loadingInfo.nodeMap.get(structure), Structure::preLoad, "preLoad"))
+							return false;
+						loadingInfo.structures.remove(structure);
+						return true;
 					});
 					parser.setInactive();
 
-					// TODO in the future, Structure#load/Structure#postLoad should be split across multiple threads if parallel loading is enabled.
+					// TODO in the future, all Structures should be loaded in parallel if parallel loading is enabled.
 					// However, this is not possible right now as reworks in multiple areas will be needed.
 					// For example, the "Commands" class still uses a static list for currentArguments that is cleared between loads.
-					// Until these reworks happen, limiting main loading to asynchronous (not parallel) is the only choice we have.
+					// Until these reworks happen, only events, which just parse their triggers while loading, are loaded in parallel.
 
 					// loading
-					pairs.removeIf(pair -> {
-						LoadingScriptInfo loadingInfo = pair.getFirst();
-						Structure structure = pair.getSecond();
-
-						parser.setActive(loadingInfo.script);
-						parser.setCurrentStructure(structure);
-						parser.setNode(loadingInfo.nodeMap.get(structure));
-
-						try {
-							if (!structure.load()) {
-								loadingInfo.structures.remove(structure);
-								return true;
-							}
-						} catch (Exception e) {
-							//noinspection ThrowableNotThrown
-							Skript.exception(e, "An error occurred while trying to load a Structure.");
+					if (isParallel()) {
+						loadInParallel(pairs, parser);
+					} else {
+						pairs.removeIf(pair -> {
+							LoadingScriptInfo loadingInfo = pair.getFirst();
+							Structure structure = pair.getSecond();
+							if (runLoadingStage(parser, loadingInfo.script, structure, loadingInfo.nodeMap.get(structure), Structure::load, "load"))
+								return false;
 							loadingInfo.structures.remove(structure);
 							return true;
-						}
-						return false;
-					});
+						});
+					}
 					parser.setInactive();
 
 					// post-loading
 					pairs.removeIf(pair -> {
 						LoadingScriptInfo loadingInfo = pair.getFirst();
 						Structure structure = pair.getSecond();
-
-						parser.setActive(loadingInfo.script);
-						parser.setCurrentStructure(structure);
-						parser.setNode(loadingInfo.nodeMap.get(structure));
-
-						try {
-							if (!structure.postLoad()) {
-								loadingInfo.structures.remove(structure);
-								return true;
-							}
-						} catch (Exception e) {
-							//noinspection ThrowableNotThrown
-							Skript.exception(e, "An error occurred while trying to postLoad a Structure.");
-							loadingInfo.structures.remove(structure);
-							return true;
-						}
-						return false;
+						if (runLoadingStage(parser, loadingInfo.script, structure, loadingInfo.nodeMap.get(structure), Structure::postLoad, "postLoad"))
+							return false;
+						loadingInfo.structures.remove(structure);
+						return true;
 					});
 					parser.setInactive();
 
 					// trigger events
 					scripts.forEach(loadingInfo -> {
 						Script script = loadingInfo.script;
+						reportFoldedExpressions(script);
 
 						parser.setActive(script);
 						parser.setNode(script.getConfig().getMainNode());
@@ -606,6 +599,100 @@ public class ScriptLoader {
 			});
 	}
 
+	/**
+	 * Loads the given Structures in order, like {@link Structure#load()} in {@link #loadScripts(List, OpenCloseable)},
+	 * but loads consecutive events in parallel on {@link #asyncLoaderSize} threads, each with its own {@link ParserInstance}.
+	 * Events only parse their triggers while loading, they are registered when post-loading.
+	 * The log of each event is printed on this thread, in order, once all of them have been loaded.
+	 * @param pairs The Structures to load, sorted by their priority. Structures that fail to load are removed.
+	 * @param parser The ParserInstance of this thread.
+	 */
+	private static void loadInParallel(List<NonNullPair<LoadingScriptInfo, Structure>> pairs, ParserInstance parser) {
+		ExecutorService executor = null;
+		try {
+			List<NonNullPair<LoadingScriptInfo, Structure>> loaded = new ArrayList<>(pairs.size());
+			int index = 0;
+			while (index < pairs.size()) {
+				int end = index;
+				while (end < pairs.size() && pairs.get(end).getSecond() instanceof StructEvent)
+					end++;
+
+				if (end - index < 2) { // not worth parallelizing
+					NonNullPair<LoadingScriptInfo, Structure> pair = pairs.get(index++);
+					LoadingScriptInfo loadingInfo = pair.getFirst();
+					Structure structure = pair.getSecond();
+					if (runLoadingStage(parser, loadingInfo.script, structure, loadingInfo.nodeMap.get(structure), Structure::load, "load")) {
+						loaded.add(pair);
+					} else {
+						loadingInfo.structures.remove(structure);
+					}
+					continue;
+				}
+
+				if (executor == null) {
+					executor = Executors.newFixedThreadPool(asyncLoaderSize,
+						runnable -> new Thread(asyncLoaderThreadGroup, runnable, "Skript structure loader"));
+				}
+				List<Future<NonNullPair<Boolean, RetainingLogHandler>>> futures = new ArrayList<>(end - index);
+				for (NonNullPair<LoadingScriptInfo, Structure> pair : pairs.subList(index, end)) {
+					futures.add(executor.submit(() -> {
+						LoadingScriptInfo loadingInfo = pair.getFirst();
+						Structure structure = pair.getSecond();
+						ParserInstance threadParser = getParser();
+						RetainingLogHandler log = SkriptLogger.startRetainingLog();
+						boolean success;
+						try {
+							success = runLoadingStage(threadParser, loadingInfo.script, structure, loadingInfo.nodeMap.get(structure), Structure::load, "load");
+						} finally {
+							threadParser.setInactive();
+						}
+						// the log is printed on the loading thread, where the log handlers of the load are
+						RetainingLogHandler retained = log.backup();
+						log.clear();
+						log.printLog();
+						return new NonNullPair<>(success, retained);
+					}));
+				}
+
+				for (int i = 0; i < futures.size(); i++) {
+					NonNullPair<LoadingScriptInfo, Structure> pair = pairs.get(index + i);
+					LoadingScriptInfo loadingInfo = pair.getFirst();
+					Structure structure = pair.getSecond();
+					NonNullPair<Boolean, RetainingLogHandler> result;
+					try {
+						result = futures.get(i).get();
+					} catch (ExecutionException e) {
+						//noinspection ThrowableNotThrown
+						Skript.exception(e.getCause(), "An error occurred while trying to load a Structure.");
+						loadingInfo.structures.remove(structure);
+						continue;
+					}
+
+					parser.setActive(loadingInfo.script);
+					parser.setCurrentStructure(structure);
+					parser.setNode(loadingInfo.nodeMap.get(structure));
+					result.getSecond().printLog();
+					if (result.getFirst()) {
+						loaded.add(pair);
+					} else {
+						loadingInfo.structures.remove(structure);
+					}
+				}
+				index = end;
+			}
+
+			pairs.clear();
+			pairs.addAll(loaded);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw Skript.exception(e);
+		} finally {
+			if (executor != null)
+				executor.shutdown();
+			parser.setInactive();
+		}
+	}
+
 	private static class LoadingScriptInfo {
 
 		public final Script script;
@@ -635,6 +722,7 @@ public class ScriptLoader {
 		ParserInstance parser = getParser();
 		Map<Structure, Node> nodeMap = new HashMap<>();
 		List<Structure> structures = new ArrayList<>();
+		List<LoadedNode> loadedNodes = new ArrayList<>();
 		Script script = new Script(config, structures);
 		parser.setActive(script);
 
@@ -653,6 +741,8 @@ public class ScriptLoader {
 					String line = node.getKey();
 					if (line == null)
 						continue;
+					LoadedNode loadedNode = new LoadedNode(fingerprint(node)); // before parsing, which may modify the node
+					loadedNodes.add(loadedNode);
 					line = replaceOptions(line); // replace options here before validation
 
 					if (!SkriptParser.validateLine(line))
@@ -668,7 +758,9 @@ public class ScriptLoader {
 
 					structures.add(structure);
 					nodeMap.put(structure, node);
+					loadedNode.structure = structure;
 				}
+				script.addData(new LoadedNodes(loadedNodes));
 
 				if (Skript.logHigh()) {
 					int count = structures.size();
@@ -891,11 +983,35 @@ public class ScriptLoader {
 
 	/**
 	 * Reloads a single Script.
+	 * If only event Structures of the Script changed, only those are reloaded.
+	 * Either way, the loading and unloading events of the Script are fired.
+	 * Like any other load, the changed Structures are loaded on a loader thread if loading is asynchronous.
 	 * @param script The Script to reload.
+	 * @param openCloseable An {@link OpenCloseable} that will be called before and after
+	 *                         loading the Script (see {@link #makeFuture(Supplier, OpenCloseable)}).
 	 * @return Info on the loaded Script.
 	 */
 	public static CompletableFuture<ScriptInfo> reloadScript(Script script, OpenCloseable openCloseable) {
-		return reloadScripts(Collections.singleton(script), openCloseable);
+		ChangedNodes changes = findChangedNodes(script);
+		if (changes == null)
+			return reloadScripts(Collections.singleton(script), openCloseable);
+
+		// call the events of a complete reload before anything is parsed, so that listeners see this reload like any other
+		List<Config> configs = new ArrayList<>(List.of(changes.config));
+		callPreInitEvents(configs);
+		if (configs.size() != 1 || configs.get(0) != changes.config) { // only a complete reload can load what listeners changed
+			unloadScript(script);
+			return loadConfigs(configs, openCloseable);
+		}
+
+		return makeFuture(() -> reloadChangedStructures(script, changes), openCloseable)
+			.thenCompose(info -> {
+				if (info != null)
+					return CompletableFuture.completedFuture(info);
+				// a changed structure is not an event
+				unloadScript(script);
+				return loadConfigs(configs, openCloseable);
+			});
 	}
 
 	/**
@@ -920,6 +1036,263 @@ public class ScriptLoader {
 		return loadScripts(configs, openCloseable);
 	}
 
+	/**
+	 * The top-level nodes of a loaded Script, used to find the nodes that changed when the Script is reloaded.
+	 * @see #findChangedNodes(Script)
+	 */
+	private static final class LoadedNodes implements ScriptData {
+
+		private final List<LoadedNode> nodes;
+
+		private LoadedNodes(List<LoadedNode> nodes) {
+			this.nodes = nodes;
+		}
+
+	}
+
+	private static final class LoadedNode {
+
+		/**
+		 * The code and line numbers of the node and its children, see {@link #fingerprint(Node)}.
+		 */
+		private final String fingerprint;
+
+		/**
+		 * The Structure the node was parsed as, or null if it could not be parsed.
+		 * The Structure may have failed to load, in which case it is not in its Script's Structures.
+		 */
+		private @Nullable Structure structure;
+
+		private LoadedNode(String fingerprint) {
+			this.fingerprint = fingerprint;
+		}
+
+	}
+
+	/**
+	 * @return A string that is equal for two nodes if they contain the same code on the same lines.
+	 * Line numbers are included, as loaded elements keep the nodes they were loaded from, e.g. for error messages.
+	 */
+	private static String fingerprint(Node node) {
+		StringBuilder builder = new StringBuilder();
+		appendFingerprint(builder, node);
+		return builder.toString();
+	}
+
+	private static void appendFingerprint(StringBuilder builder, Node node) {
+		builder.append(node.getLine()).append(' ').append(node.getKey());
+		if (node instanceof EntryNode entryNode)
+			builder.append(": ").append(entryNode.getValue());
+		builder.append('\n');
+		if (node instanceof SectionNode sectionNode) {
+			builder.append('{');
+			for (Node child : sectionNode)
+				appendFingerprint(builder, child);
+			builder.append('}');
+		}
+	}
+
+	/**
+	 * The changes of a Script's file since the Script was loaded, see {@link #findChangedNodes(Script)}.
+	 */
+	private static final class ChangedNodes {
+
+		/**
+		 * The new Config of the Script.
+		 */
+		private final Config config;
+
+		/**
+		 * The top-level nodes of the new Config, to be stored once the changed Structures have been reloaded.
+		 */
+		private final List<LoadedNode> nodes;
+
+		/**
+		 * The top-level nodes that have been changed or added, which are yet to be parsed.
+		 */
+		private final Map<LoadedNode, Node> added;
+
+		/**
+		 * The event Structures whose nodes have been changed or removed.
+		 */
+		private final List<Structure> removed;
+
+		private ChangedNodes(Config config, List<LoadedNode> nodes, Map<LoadedNode, Node> added, List<Structure> removed) {
+			this.config = config;
+			this.nodes = nodes;
+			this.added = added;
+			this.removed = removed;
+		}
+
+	}
+
+	/**
+	 * Compares the code of a Script's file with the code the Script was loaded from, without parsing it.
+	 * @param script The Script to reload.
+	 * @return The changes, or null if the Script has to be reloaded completely,
+	 * e.g. because a Structure that is not an event has been changed or removed.
+	 */
+	private static @Nullable ChangedNodes findChangedNodes(Script script) {
+		LoadedNodes loadedNodes = script.getData(LoadedNodes.class);
+		File file = script.getConfig().getFile();
+		if (loadedNodes == null || file == null || !file.exists())
+			return null;
+
+		Config config = loadStructure(file);
+		if (config == null)
+			return null;
+
+		// find the nodes that did not change
+		Map<String, LoadedNode> oldNodes = new HashMap<>();
+		for (LoadedNode loadedNode : loadedNodes.nodes)
+			oldNodes.put(loadedNode.fingerprint, loadedNode);
+		List<LoadedNode> newNodes = new ArrayList<>();
+		Map<LoadedNode, Node> addedNodes = new LinkedHashMap<>();
+		for (Node node : config.getMainNode()) {
+			if (node.getKey() == null) // not loaded as a structure either
+				continue;
+			String fingerprint = fingerprint(node);
+			LoadedNode loadedNode = oldNodes.remove(fingerprint);
+			if (loadedNode == null) {
+				loadedNode = new LoadedNode(fingerprint);
+				addedNodes.put(loadedNode, node);
+			}
+			newNodes.add(loadedNode);
+		}
+
+		// the remaining old nodes have been changed or removed
+		List<Structure> removed = new ArrayList<>();
+		for (LoadedNode loadedNode : oldNodes.values()) {
+			Structure structure = loadedNode.structure;
+			if (structure == null || !script.getStructures().contains(structure))
+				continue;
+			if (!(structure instanceof StructEvent))
+				return null;
+			removed.add(structure);
+		}
+
+		return new ChangedNodes(config, newNodes, addedNodes, removed);
+	}
+
+	/**
+	 * Reloads only the Structures of a Script whose code changed since it was loaded.
+	 * This is only done if all changed Structures are events, as other Structures, e.g. functions or options,
+	 * may affect other Structures. Unchanged Structures keep their triggers and event listeners.
+	 * <p>
+	 * Note that the Script keeps its Config, while the reloaded Structures use the nodes of the new Config.
+	 * <p>
+	 * The same events as for a complete reload are fired. {@link ScriptPreInitEvent} has already been called
+	 * by {@link #reloadScript(Script, OpenCloseable)}, {@link ScriptUnloadEvent} and {@link ScriptLoadEvent} are called here.
+	 *
+	 * @param script The Script to reload.
+	 * @param changes The changes of the Script, see {@link #findChangedNodes(Script)}.
+	 * @return Info on the reloaded Structures, or null if the Script has to be reloaded completely.
+	 */
+	private static @Nullable ScriptInfo reloadChangedStructures(Script script, ChangedNodes changes) {
+		ParserInstance parser = getParser();
+		List<Structure> removed = changes.removed;
+		List<Structure> added = new ArrayList<>();
+		Map<Structure, Node> nodeMap = new HashMap<>();
+		try {
+			parser.setActive(script);
+			try (RetainingLogHandler log = SkriptLogger.startRetainingLog()) {
+				for (Map.Entry<LoadedNode, Node> entry : changes.added.entrySet()) {
+					Node node = entry.getValue();
+					if (!(node instanceof SimpleNode) && !(node instanceof SectionNode)) {
+						Skript.error("could not interpret line as a structure");
+						continue;
+					}
+
+					String line = node.getKey();
+					assert line != null;
+					line = replaceOptions(line);
+					if (!SkriptParser.validateLine(line))
+						continue;
+
+					Structure structure = Structure.parse(line, node, "Can't understand this structure: " + line);
+					if (structure == null)
+						continue;
+					if (!(structure instanceof StructEvent)) {
+						// its errors will be printed when the script is reloaded completely
+						log.clear();
+						log.printLog();
+						return null;
+					}
+
+					added.add(structure);
+					nodeMap.put(structure, node);
+					entry.getKey().structure = structure;
+				}
+				log.printLog();
+			}
+
+			eventRegistry().events(ScriptUnloadEvent.class)
+					.forEach(event -> event.onUnload(parser, script));
+			script.eventRegistry().events(ScriptUnloadEvent.class)
+					.forEach(event -> event.onUnload(parser, script));
+
+			// unload the changed structures
+			for (Structure structure : removed)
+				structure.unload();
+			for (Structure structure : removed)
+				structure.postUnload();
+
+			// load the new structures
+			added.sort(Comparator.comparing(Structure::getPriority));
+			added.removeIf(structure -> !runLoadingStage(parser, script, structure, nodeMap.get(structure), Structure::preLoad, "preLoad"));
+			added.removeIf(structure -> !runLoadingStage(parser, script, structure, nodeMap.get(structure), Structure::load, "load"));
+			added.removeIf(structure -> !runLoadingStage(parser, script, structure, nodeMap.get(structure), Structure::postLoad, "postLoad"));
+
+			script.replaceStructures(removed, added);
+			script.addData(new LoadedNodes(changes.nodes));
+			reportFoldedExpressions(script);
+
+			parser.setActive(script);
+			parser.setNode(script.getConfig().getMainNode());
+			eventRegistry().events(ScriptLoadEvent.class)
+					.forEach(event -> event.onLoad(parser, script));
+			script.eventRegistry().events(ScriptLoadEvent.class)
+					.forEach(event -> event.onLoad(parser, script));
+
+			return new ScriptInfo(1, added.size());
+		} finally {
+			parser.setInactive();
+		}
+	}
+
+	/**
+	 * Runs a loading stage of a Structure.
+	 * @return Whether the stage was successful.
+	 */
+	private static boolean runLoadingStage(
+		ParserInstance parser, Script script, Structure structure, Node node, Predicate<Structure> stage, String stageName
+	) {
+		parser.setActive(script);
+		parser.setCurrentStructure(structure);
+		parser.setNode(node);
+		// each Structure starts without type hints, so that it parses the same whichever thread loads it after what
+		TypeHints.clear();
+		TypeHints.enterScope();
+		try {
+			return stage.test(structure);
+		} catch (Exception e) {
+			//noinspection ThrowableNotThrown
+			Skript.exception(e, "An error occurred while trying to " + stageName + " a Structure.");
+			return false;
+		} finally {
+			TypeHints.exitScope();
+		}
+	}
+
+	/**
+	 * Logs how many expressions of a script have been folded into constants while loading it, see {@link ConstantFolding}.
+	 */
+	private static void reportFoldedExpressions(Script script) {
+		int folded = ConstantFolding.takeFoldedCount(script);
+		if (folded > 0 && Skript.logHigh())
+			Skript.info("computed " + folded + " constant expression" + (folded == 1 ? "" : "s") + " of '" + script.getConfig().getFileName() + "' while loading");
+	}
+
 	/*
 	 * Code Loading Methods
 	 */
@@ -981,6 +1354,7 @@ public class ScriptLoader {
 				if (Skript.debug() || subNode.debug())
 					Skript.debug(SkriptColor.replaceColorChar(parser.getIndentation() + item.toString(null, true)));
 
+				ConstantFolding.kept(parser, item);
 				items.add(item);
 			} else if (subNode instanceof SectionNode) {
 				TypeHints.enterScope(); // Begin conditional type hints
@@ -1019,6 +1393,7 @@ public class ScriptLoader {
 				if (Skript.debug() || subNode.debug())
 					Skript.debug(SkriptColor.replaceColorChar(parser.getIndentation() + item.toString(null, true)));
 
+				ConstantFolding.kept(parser, item);
 				items.add(item);
 
 				// Destroy these conditional type hints
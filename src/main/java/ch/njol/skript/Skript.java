@@ -1375,6 +1375,7 @@ public final class Skript extends JavaPlugin implements Listener {
 		Converters.createChainedConverters();
 		acceptRegistrations = false;
 		Classes.onRegistrationsStop();
+		EventValues.onRegistrationsStop();
 	}
 
 	// ================ ADDONS ================
@@ -182,9 +182,8 @@ public class SkriptCommand implements CommandExecutor {
 						reloading(sender, "script", logHandler, scriptFile.getName());
 
 						Script script = ScriptLoader.getScript(scriptFile);
-						if (script != null)
-							ScriptLoader.unloadScript(script);
-						ScriptLoader.loadScripts(scriptFile, OpenCloseable.combine(logHandler, timingLogHandler))
+						OpenCloseable openCloseable = OpenCloseable.combine(logHandler, timingLogHandler);
+						(script != null ? ScriptLoader.reloadScript(script, openCloseable) : ScriptLoader.loadScripts(scriptFile, openCloseable))
 							.thenAccept(scriptInfo ->
 								reloaded(sender, logHandler, timingLogHandler, "script", scriptFile.getName())
 							);
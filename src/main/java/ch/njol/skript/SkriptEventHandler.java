@@ -21,6 +21,8 @@ import org.jetbrains.annotations.Nullable;
 
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -28,7 +30,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class SkriptEventHandler {
 
@@ -71,17 +73,63 @@ public final class SkriptEventHandler {
 	private static final Multimap<Class<? extends Event>, Trigger> triggers = ArrayListMultimap.create();
 
 	/**
-	 * A utility method to get all Triggers registered under the provided Event class.
+	 * A dispatch table caching what Triggers should be executed for a concrete Event class.
+	 * Each entry is indexed by {@link EventPriority#ordinal()} and only contains the Triggers listening at that priority.
+	 * Entries are computed the first time an Event class is called, and the whole table is discarded
+	 *  whenever {@link #triggers} is modified.
+	 */
+	private static volatile Map<Class<? extends Event>, Trigger[][]> dispatchTable = new ConcurrentHashMap<>();
+
+	private static final Trigger[] NO_TRIGGERS = new Trigger[0];
+
+	/**
+	 * A utility method to get all Triggers registered under the provided Event class for a priority.
 	 * @param event The event to find pairs from.
-	 * @return A List containing all Triggers registered under the provided Event class.
+	 * @param priority The priority the Triggers must be listening at.
+	 * @return An array containing all Triggers registered under the provided Event class at the provided priority.
+	 *  This array is shared and must not be modified.
 	 */
-	private static List<Trigger> getTriggers(Class<? extends Event> event) {
+	private static Trigger[] getTriggers(Class<? extends Event> event, EventPriority priority) {
+		return dispatchTable.computeIfAbsent(event, SkriptEventHandler::createDispatchEntry)[priority.ordinal()];
+	}
+
+	/**
+	 * Computes the entry of {@link #dispatchTable} for the provided Event class.
+	 * @param event The event to find pairs from.
+	 * @return All Triggers registered under the provided Event class, grouped by {@link EventPriority#ordinal()}.
+	 */
+	private static Trigger[][] createDispatchEntry(Class<? extends Event> event) {
 		HandlerList eventHandlerList = getHandlerList(event);
 		assert eventHandlerList != null; // It had one at some point so this should remain true
-		return triggers.asMap().entrySet().stream()
-				.filter(entry -> entry.getKey().isAssignableFrom(event) && getHandlerList(entry.getKey()) == eventHandlerList)
-				.flatMap(entry -> entry.getValue().stream())
-				.collect(Collectors.toList()); // forces evaluation now and prevents us from having to call getTriggers again if very high logging is enabled
+
+		EventPriority[] priorities = EventPriority.values();
+		List<List<Trigger>> grouped = new ArrayList<>(priorities.length);
+		for (int i = 0; i < priorities.length; i++)
+			grouped.add(new ArrayList<>());
+
+		synchronized (triggers) {
+			for (Entry<Class<? extends Event>, Collection<Trigger>> entry : triggers.asMap().entrySet()) {
+				if (!entry.getKey().isAssignableFrom(event) || getHandlerList(entry.getKey()) != eventHandlerList)
+					continue;
+				for (Trigger trigger : entry.getValue())
+					grouped.get(trigger.getEvent().getEventPriority().ordinal()).add(trigger);
+			}
+		}
+
+		Trigger[][] dispatchEntry = new Trigger[priorities.length][];
+		for (int i = 0; i < priorities.length; i++) {
+			List<Trigger> priorityTriggers = grouped.get(i);
+			dispatchEntry[i] = priorityTriggers.isEmpty() ? NO_TRIGGERS : priorityTriggers.toArray(new Trigger[0]);
+		}
+		return dispatchEntry;
+	}
+
+	/**
+	 * Discards all entries of {@link #dispatchTable}.
+	 * This must be called after any modification of {@link #triggers}.
+	 */
+	private static void invalidateDispatchTable() {
+		dispatchTable = new ConcurrentHashMap<>();
 	}
 
 	/**
@@ -92,26 +140,20 @@ public final class SkriptEventHandler {
 	 * @param priority The priority of the Event.
 	 */
 	private static void check(Event event, EventPriority priority) {
-		// get all triggers for this event, return if none
-		List<Trigger> triggers = getTriggers(event.getClass());
-		if (triggers.isEmpty())
+		// get all triggers for this event at this priority, return if none
+		Trigger[] triggers = getTriggers(event.getClass(), priority);
+		if (triggers.length == 0)
 			return;
 
 		// Check if this event should be treated as cancelled
 		boolean isCancelled = isCancelled(event);
 
-		// This logs events even if there isn't a trigger that's going to run at that priority.
-		// However, there should only be a priority listener IF there's a trigger at that priority.
-		// So the time will be logged even if no triggers pass check(), which is still useful information.
+		// The time will be logged even if no triggers pass check(), which is still useful information.
 		logEventStart(event, priority);
 
 		for (Trigger trigger : triggers) {
 			SkriptEvent triggerEvent = trigger.getEvent();
 
-			// check if the trigger is at the right priority
-			if (triggerEvent.getEventPriority() != priority)
-				continue;
-
 			// check if the cancel state of the event is correct
 			if (!triggerEvent.getListeningBehavior().matches(isCancelled))
 				continue;
@@ -283,7 +325,10 @@ public final class SkriptEventHandler {
 		if (handlerList == null)
 			return;
 
-		triggers.put(event, trigger);
+		synchronized (triggers) {
+			triggers.put(event, trigger);
+		}
+		invalidateDispatchTable();
 
 		EventPriority priority = trigger.getEvent().getEventPriority();
 
@@ -298,6 +343,13 @@ public final class SkriptEventHandler {
 	 * @param trigger The Trigger to unregister events for.
 	 */
 	public static void unregisterBukkitEvents(Trigger trigger) {
+		synchronized (triggers) {
+			unregisterBukkitEvents_i(trigger);
+		}
+		invalidateDispatchTable();
+	}
+
+	private static void unregisterBukkitEvents_i(Trigger trigger) {
 		Iterator<Entry<Class<? extends Event>, Trigger>> entryIterator = triggers.entries().iterator();
 		entryLoop: while (entryIterator.hasNext()) {
 			Entry<Class<? extends Event>, Trigger> entry = entryIterator.next();
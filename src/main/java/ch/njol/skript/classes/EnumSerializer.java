@@ -37,6 +37,11 @@ public class EnumSerializer<T extends Enum<T>> extends Serializer<T> {
 		return false;
 	}
 	
+	@Override
+	public boolean canSerializeAsync() {
+		return true;
+	}
+	
 	@Override
 	public boolean canBeInstantiated() {
 		assert false;
@@ -90,6 +90,19 @@ public abstract class Serializer<T> extends YggdrasilSerializer<T> {
 	 */
 	public abstract boolean mustSyncDeserialization();
 	
+	/**
+	 * Returns whether values of this serializer's class may be serialised off Bukkit's main thread.
+	 * <p>
+	 * Variables holding such values are only copied using the class's {@link ClassInfo#cloner(Cloner) cloner} when they are set,
+	 * and are then serialised on a worker thread. Only return true if {@link #serialize(Object)} does not access any state
+	 * that may be changed on the main thread (apart from the given copy) and does not require the main thread itself.
+	 * 
+	 * @return Whether serialisation may be done asynchronously. False by default.
+	 */
+	public boolean canSerializeAsync() {
+		return false;
+	}
+	
 	@Override
 	public boolean canBeInstantiated(final Class<? extends T> c) {
 		assert info != null && info.getC().isAssignableFrom(c);
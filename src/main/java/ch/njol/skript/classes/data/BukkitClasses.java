@@ -473,6 +473,11 @@ public class BukkitClasses {
 						return false;
 					}
 
+					@Override
+					public boolean canSerializeAsync() {
+						return true; // vectors are copied when set
+					}
+
 					@Override
 					protected boolean canBeInstantiated() {
 						return false;
@@ -195,6 +195,11 @@ public class JavaClasses {
 					public boolean mustSyncDeserialization() {
 						return false;
 					}
+
+					@Override
+					public boolean canSerializeAsync() {
+						return true;
+					}
 				}));
 
 		Classes.registerClass(new ClassInfo<>(Short.class, "short")
@@ -291,6 +296,11 @@ public class JavaClasses {
 					public boolean mustSyncDeserialization() {
 						return false;
 					}
+
+					@Override
+					public boolean canSerializeAsync() {
+						return true;
+					}
 				}));
 
 		// joml type - for display entities
@@ -475,6 +485,11 @@ public class JavaClasses {
 			return false;
 		}
 
+		@Override
+		public boolean canSerializeAsync() {
+			return true;
+		}
+
 	}
 
 	private static class LongParser extends Parser<Long> {
@@ -527,6 +542,11 @@ public class JavaClasses {
 			return false;
 		}
 
+		@Override
+		public boolean canSerializeAsync() {
+			return true;
+		}
+
 	}
 
 	private static class IntegerParser extends Parser<Integer> {
@@ -579,6 +599,11 @@ public class JavaClasses {
 			return false;
 		}
 
+		@Override
+		public boolean canSerializeAsync() {
+			return true;
+		}
+
 	}
 
 	private static class DoubleParser extends Parser<Double> {
@@ -633,6 +658,11 @@ public class JavaClasses {
 			return false;
 		}
 
+		@Override
+		public boolean canSerializeAsync() {
+			return true;
+		}
+
 	}
 
 	private static class FloatParser extends Parser<Float> {
@@ -687,6 +717,11 @@ public class JavaClasses {
 			return false;
 		}
 
+		@Override
+		public boolean canSerializeAsync() {
+			return true;
+		}
+
 	}
 
 	private static class ShortParser extends Parser<Short> {
@@ -739,6 +774,11 @@ public class JavaClasses {
 			return false;
 		}
 
+		@Override
+		public boolean canSerializeAsync() {
+			return true;
+		}
+
 	}
 
 	private static class ByteParser extends Parser<Byte> {
@@ -791,6 +831,11 @@ public class JavaClasses {
 			return false;
 		}
 
+		@Override
+		public boolean canSerializeAsync() {
+			return true;
+		}
+
 	}
 
 }
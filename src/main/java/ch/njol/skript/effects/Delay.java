@@ -10,6 +10,7 @@ import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.Literal;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.skript.lang.Trigger;
+import ch.njol.skript.lang.TriggerFrame;
 import ch.njol.skript.lang.TriggerItem;
 import ch.njol.skript.timings.SkriptTimings;
 import ch.njol.skript.util.Timespan;
@@ -63,22 +64,15 @@ public class Delay extends Effect {
 		long start = Skript.debug() ? System.nanoTime() : 0;
 		TriggerItem next = getNext();
 		if (next != null && Skript.getInstance().isEnabled()) { // See https://github.com/SkriptLang/Skript/issues/3702
-			addDelayedEvent(event);
+			TriggerFrame frame = delayExecution(event); // takes the local variables along
 
 			Timespan duration = this.duration.getSingle(event);
 			if (duration == null)
 				return null;
-			
-			// Back up local variables
-			Object localVars = Variables.removeLocals(event);
-			
+
 			Bukkit.getScheduler().scheduleSyncDelayedTask(Skript.getInstance(), () -> {
 				Skript.debug(getIndentation() + "... continuing after " + (System.nanoTime() - start) / 1_000_000_000. + "s");
 
-				// Re-set local variables
-				if (localVars != null)
-					Variables.setLocalVariables(event, localVars);
-
 				Object timing = null; // Timings reference must be kept so that it can be stopped after TriggerItem execution
 				if (SkriptTimings.enabled()) { // getTrigger call is not free, do it only if we must
 					Trigger trigger = getTrigger();
@@ -86,8 +80,7 @@ public class Delay extends Effect {
 						timing = SkriptTimings.start(trigger.getDebugLabel());
 				}
 
-				TriggerItem.walk(next, event);
-				Variables.removeLocals(event); // Clean up local vars, we may be exiting now
+				TriggerItem.walk(next, frame); // keeps the local variables, loop states and delay of the execution
 
 				SkriptTimings.stop(timing); // Stop timing if it was even started
 			}, Math.max(duration.getAs(Timespan.TimePeriod.TICK), 1)); // Minimum delay is one tick, less than it is useless!
@@ -105,6 +98,9 @@ public class Delay extends Effect {
 		return "wait for " + duration.toString(event, debug) + (event == null ? "" : "...");
 	}
 
+	/**
+	 * Events that have been delayed while no {@link TriggerFrame} was entered for them.
+	 */
 	private static final Set<Event> DELAYED =
 		Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
 
@@ -112,17 +108,45 @@ public class Delay extends Effect {
 	 * The main method for checking if the execution of {@link TriggerItem}s has been delayed.
 	 * @param event The event to check for a delay.
 	 * @return Whether {@link TriggerItem} execution has been delayed.
+	 * @see TriggerFrame#isDelayed()
 	 */
 	public static boolean isDelayed(Event event) {
+		TriggerFrame frame = TriggerFrame.current(event);
+		if (frame != null)
+			return frame.isDelayed();
 		return DELAYED.contains(event);
 	}
 
+	/**
+	 * Marks the execution of {@link TriggerItem}s with the given event as delayed.
+	 * @param event The event to mark as delayed.
+	 * @return A {@link TriggerFrame#detach() detached} frame of the execution, holding its local variables,
+	 * which must be used to resume it with {@link TriggerItem#walk(TriggerItem, TriggerFrame)}.
+	 * It is not entered on this thread, so it may be handed to another thread.
+	 */
+	public static TriggerFrame delayExecution(Event event) {
+		TriggerFrame frame = TriggerFrame.current(event);
+		if (frame == null) {
+			frame = new TriggerFrame(event);
+			frame.setLocals(Variables.removeLocals(event));
+			frame.setDelayed();
+			return frame;
+		}
+		frame.setDelayed();
+		return frame.detach();
+	}
+
 	/**
 	 * The main method for marking the execution of {@link TriggerItem}s as delayed.
 	 * @param event The event to mark as delayed.
 	 */
 	public static void addDelayedEvent(Event event) {
-		DELAYED.add(event);
+		TriggerFrame frame = TriggerFrame.current(event);
+		if (frame != null) {
+			frame.setDelayed();
+		} else {
+			DELAYED.add(event);
+		}
 	}
 
 }
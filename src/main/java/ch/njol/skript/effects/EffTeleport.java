@@ -8,7 +8,6 @@ import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.skript.sections.EffSecSpawn.SpawnEvent;
 import ch.njol.skript.timings.SkriptTimings;
 import ch.njol.skript.util.Direction;
-import ch.njol.skript.variables.Variables;
 import ch.njol.util.Kleenean;
 import io.papermc.lib.PaperLib;
 import io.papermc.lib.environments.PaperEnvironment;
@@ -133,8 +132,7 @@ public class EffTeleport extends Effect {
 		}
 
 		final Location fixed = location;
-		Delay.addDelayedEvent(event);
-		Object localVars = Variables.removeLocals(event);
+		TriggerFrame frame = Delay.delayExecution(event); // takes the local variables along
 
 		// This will either fetch the chunk instantly if on Spigot or already loaded or fetch it async if on Paper.
 		PaperLib.getChunkAtAsync(location).thenAccept(chunk -> {
@@ -144,10 +142,6 @@ public class EffTeleport extends Effect {
 				teleport(entity, fixed, teleportFlags);
 			}
 
-			// Re-set local variables
-			if (localVars != null)
-				Variables.setLocalVariables(event, localVars);
-			
 			// Continue the rest of the trigger if there is one
 			Object timing = null;
 			if (next != null) {
@@ -158,9 +152,8 @@ public class EffTeleport extends Effect {
 					}
 				}
 
-				TriggerItem.walk(next, event);
+				TriggerItem.walk(next, frame);
 			}
-			Variables.removeLocals(event); // Clean up local vars, we may be exiting now
 			SkriptTimings.stop(timing);
 		});
 		return null;
@@ -5,9 +5,9 @@ import org.bukkit.event.Event;
 import org.jetbrains.annotations.Nullable;
 
 import ch.njol.skript.Skript;
+import ch.njol.skript.lang.TriggerFrame;
 import ch.njol.skript.lang.TriggerItem;
 import ch.njol.skript.util.Timespan;
-import ch.njol.skript.variables.Variables;
 
 /**
  * @author Peter Güttinger
@@ -23,22 +23,15 @@ public class IndeterminateDelay extends Delay {
 		TriggerItem next = getNext();
 
 		if (next != null && Skript.getInstance().isEnabled()) { // See https://github.com/SkriptLang/Skript/issues/3702
-			Delay.addDelayedEvent(event);
+			TriggerFrame frame = Delay.delayExecution(event); // takes the local variables along
 			Timespan duration = this.duration.getSingle(event);
 			if (duration == null)
 				return null;
-			
-			// Back up local variables
-			Object localVars = Variables.removeLocals(event);
-			
+
 			Bukkit.getScheduler().scheduleSyncDelayedTask(Skript.getInstance(), () -> {
 				Skript.debug(getIndentation() + "... continuing after " + (System.nanoTime() - start) / 1_000_000_000. + "s");
 
-				// Re-set local variables
-				if (localVars != null)
-					Variables.setLocalVariables(event, localVars);
-
-				TriggerItem.walk(next, event);
+				TriggerItem.walk(next, frame);
 			}, duration.getAs(Timespan.TimePeriod.TICK));
 		}
 
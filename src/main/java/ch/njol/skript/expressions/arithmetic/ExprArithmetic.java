@@ -11,6 +11,8 @@ import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.Literal;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.skript.lang.UnparsedLiteral;
+import ch.njol.skript.lang.util.ConstantFolding;
+import ch.njol.skript.lang.util.ContextlessEvent;
 import ch.njol.skript.lang.util.SimpleExpression;
 import ch.njol.skript.lang.util.SimpleLiteral;
 import ch.njol.skript.registrations.Classes;
@@ -100,6 +102,9 @@ public class ExprArithmetic<L, R, T> extends SimpleExpression<T> {
 	// A parsed chain, like a tree
 	private ArithmeticGettable<? extends T> arithmeticGettable;
 
+	// The result of the chain, computed once if all of its values are literals
+	private T @Nullable [] constant;
+
 	private boolean leftGrouped, rightGrouped;
 
 	@Override
@@ -291,12 +296,47 @@ public class ExprArithmetic<L, R, T> extends SimpleExpression<T> {
 		}
 
 		arithmeticGettable = ArithmeticChain.parse(chain);
-		return arithmeticGettable != null || error(firstClass, secondClass);
+		if (arithmeticGettable == null)
+			return error(firstClass, secondClass);
+
+		/*
+		 * Step 4: Constant Folding
+		 *
+		 * If every value of the chain is a literal, the result is the same every time and can be computed now.
+		 * Only numbers are folded, as other results, like vectors or dates, may be modified by whatever uses them.
+		 */
+
+		if (isConstantChain()) {
+			T[] result = getResult(ContextlessEvent.get());
+			if (result[0] instanceof Number) {
+				constant = result;
+				ConstantFolding.folded(getParser(), this);
+			}
+		}
+		return true;
+	}
+
+	private boolean isConstantChain() {
+		for (Object element : chain) {
+			if (element instanceof Operator)
+				continue;
+			if (element instanceof UnparsedLiteral)
+				return false;
+			if (!(element instanceof Literal) && !(element instanceof ExprArithmetic<?, ?, ?> arithmetic && arithmetic.constant != null))
+				return false;
+		}
+		return true;
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	protected T[] get(Event event) {
+		if (constant != null)
+			return constant.clone();
+		return getResult(event);
+	}
+
+	@SuppressWarnings("unchecked")
+	private T[] getResult(Event event) {
 		T result = arithmeticGettable.get(event);
 		T[] one = (T[]) Array.newInstance(result == null ? returnType : result.getClass(), 1);
 		one[0] = result;
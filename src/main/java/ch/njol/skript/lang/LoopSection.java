@@ -1,26 +1,81 @@
 package ch.njol.skript.lang;
 
 import org.bukkit.event.Event;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.Set;
 
 /**
  * Represents a loop section.
+ * <p>
+ * The state of each execution of a loop, like its iteration counter, is kept in the {@link TriggerFrame} of the execution.
  * 
  * @see ch.njol.skript.sections.SecWhile
  * @see ch.njol.skript.sections.SecLoop
  */
 public abstract class LoopSection extends Section implements SyntaxElement, Debuggable, SectionExitHandler {
 
-	protected final transient Map<Event, Long> currentLoopCounter = new WeakHashMap<>();
+	/**
+	 * A view of the iteration counters of this loop, kept for loops that still use it.
+	 * Getting, putting and removing the counter of an event use the {@link LoopState} of its execution.
+	 * Iterating the view only sees the executions running on the current thread.
+	 * @deprecated Use {@link #getLoopState(Event)} and {@link #getOrCreateLoopState(Event)} instead.
+	 */
+	@Deprecated(forRemoval = true)
+	protected final transient Map<Event, Long> currentLoopCounter = new LoopCounterView();
+
+	/**
+	 * The state of one execution of a loop.
+	 * Loops that need to keep more state should extend this class and override {@link #newLoopState()}.
+	 */
+	protected static class LoopState {
+
+		/**
+		 * The number of iterations that have been started
+		 */
+		protected long counter;
+
+	}
+
+	/**
+	 * @return A new state for an execution of this loop
+	 */
+	protected LoopState newLoopState() {
+		return new LoopState();
+	}
+
+	/**
+	 * @param event The event of the execution
+	 * @return The state of this loop in the execution of the given event, or null if this loop is not running
+	 */
+	protected @Nullable LoopState getLoopState(Event event) {
+		TriggerFrame frame = TriggerFrame.current(event);
+		return frame == null ? null : (LoopState) frame.getLoopState(this);
+	}
+
+	/**
+	 * @param event The event of the execution
+	 * @return The state of this loop in the execution of the given event, which is created if this loop is not running yet
+	 * @throws IllegalStateException If the loop is not run by {@link TriggerItem#walk(TriggerItem, Event)}
+	 */
+	protected LoopState getOrCreateLoopState(Event event) {
+		TriggerFrame frame = TriggerFrame.current(event);
+		if (frame == null)
+			throw new IllegalStateException("Loops must be run by TriggerItem.walk(TriggerItem, Event)");
+		return (LoopState) frame.getOrCreateLoopState(this, this::newLoopState);
+	}
 
 	/**
 	 * @param event The event where the loop is used to return its loop iterations
 	 * @return The loop iteration number
 	 */
 	public long getLoopCounter(Event event) {
-		return currentLoopCounter.getOrDefault(event, 1L);
+		LoopState state = getLoopState(event);
+		return state == null || state.counter == 0 ? 1L : state.counter;
 	}
 
 	/**
@@ -34,7 +89,56 @@ public abstract class LoopSection extends Section implements SyntaxElement, Debu
 	 */
 	@Override
 	public void exit(Event event) {
-		currentLoopCounter.remove(event);
+		TriggerFrame frame = TriggerFrame.current(event);
+		if (frame != null)
+			frame.removeLoopState(this);
+	}
+
+	private final class LoopCounterView extends AbstractMap<Event, Long> {
+
+		@Override
+		public @Nullable Long get(Object key) {
+			if (!(key instanceof Event event))
+				return null;
+			LoopState state = getLoopState(event);
+			return state == null ? null : state.counter;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public @Nullable Long put(Event event, Long counter) {
+			LoopState state = getOrCreateLoopState(event);
+			long previous = state.counter;
+			state.counter = counter;
+			return previous;
+		}
+
+		@Override
+		public @Nullable Long remove(Object key) {
+			Long previous = get(key);
+			if (previous != null)
+				exit((Event) key);
+			return previous;
+		}
+
+		/**
+		 * @return A snapshot of the counters of this loop in the executions running on the current thread
+		 */
+		@Override
+		public Set<Entry<Event, Long>> entrySet() {
+			Map<Event, Long> counters = new HashMap<>();
+			for (TriggerFrame frame = TriggerFrame.innermost(); frame != null; frame = frame.parent()) {
+				LoopState state = (LoopState) frame.getLoopState(LoopSection.this);
+				if (state != null)
+					counters.putIfAbsent(frame.getEvent(), state.counter);
+			}
+			return Collections.unmodifiableMap(counters).entrySet();
+		}
+
 	}
 
 }
@@ -12,7 +12,9 @@ import ch.njol.skript.expressions.ExprParse;
 import ch.njol.skript.lang.function.ExprFunctionCall;
 import ch.njol.skript.lang.function.FunctionReference;
 import ch.njol.skript.lang.function.Functions;
+import ch.njol.skript.lang.parser.ParseHints;
 import ch.njol.skript.lang.parser.ParserInstance;
+import ch.njol.skript.lang.util.ConstantFolding;
 import ch.njol.skript.lang.util.SimpleLiteral;
 import ch.njol.skript.localization.Language;
 import ch.njol.skript.localization.Message;
@@ -30,9 +32,11 @@ import ch.njol.util.Kleenean;
 import ch.njol.util.NonNullPair;
 import ch.njol.util.StringUtils;
 import ch.njol.util.coll.CollectionUtils;
+import com.google.common.collect.Iterators;
 import com.google.common.primitives.Booleans;
 import org.bukkit.event.Event;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.skriptlang.skript.lang.script.Script;
@@ -159,6 +163,33 @@ public class SkriptParser {
 		}
 	}
 
+	/**
+	 * Parses a string as one of the given syntax elements like {@link #parse(String, Iterator, String)},
+	 * but skips the elements that rejected the string if it was parsed as the same kind of element
+	 * in the same state before. See {@link ParseHints}.
+	 * <p>
+	 * Can print an error.
+	 *
+	 * @param kind Identifies the given syntax elements, e.g. "statement". Must be different for different sources.
+	 */
+	@ApiStatus.Internal
+	public static <T extends SyntaxElement> @Nullable T parseHinted(String kind, String expr, Iterator<? extends SyntaxElementInfo<T>> source, @Nullable String defaultError) {
+		expr = "" + expr.trim();
+		if (expr.isEmpty()) {
+			Skript.error(defaultError);
+			return null;
+		}
+		try (ParseLogHandler log = SkriptLogger.startParseLogHandler()) {
+			T element = new SkriptParser(expr).parse(source, ParseHints.key(ParserInstance.get(), kind, expr));
+			if (element != null) {
+				log.printLog();
+				return element;
+			}
+			log.printError(defaultError);
+			return null;
+		}
+	}
+
 	public static <T extends SyntaxElement> @Nullable T parseStatic(String expr, Iterator<? extends SyntaxElementInfo<? extends T>> source, @Nullable String defaultError) {
 		return parseStatic(expr, source, ParseContext.DEFAULT, defaultError);
 	}
@@ -183,69 +214,49 @@ public class SkriptParser {
 	}
 
 	private <T extends SyntaxElement> @Nullable T parse(Iterator<? extends SyntaxElementInfo<? extends T>> source) {
-		try (ParseLogHandler log = SkriptLogger.startParseLogHandler()) {
-			while (source.hasNext()) {
-				SyntaxElementInfo<? extends T> info = source.next();
-				patternsLoop: for (int patternIndex = 0; patternIndex < info.patterns.length; patternIndex++) {
-					log.clear();
-					try {
-						String pattern = info.patterns[patternIndex];
-						assert pattern != null;
-						ParseResult parseResult;
-						try {
-							parseResult = parse_i(pattern);
-						} catch (MalformedPatternException e) {
-							String message = "pattern compiling exception, element class: " + info.getElementClass().getName();
-							try {
-								JavaPlugin providingPlugin = JavaPlugin.getProvidingPlugin(info.getElementClass());
-								message += " (provided by " + providingPlugin.getName() + ")";
-							} catch (IllegalArgumentException | IllegalStateException ignored) {}
-							throw new RuntimeException(message, e);
+		return parse(source, null);
+	}
 
+	/**
+	 * @param hintKey The key of the expression's {@link ParseHints hint}, or null to not use hints
+	 */
+	private <T extends SyntaxElement> @Nullable T parse(Iterator<? extends SyntaxElementInfo<? extends T>> source, ParseHints.@Nullable Key hintKey) {
+		// lowercased once for all patterns, for their keyword checks
+		String lowerExpr = expr.toLowerCase(Locale.ENGLISH);
+		try (ParseLogHandler log = SkriptLogger.startParseLogHandler()) {
+			ParseHints.Hint hint = hintKey == null ? null : ParseHints.get(hintKey);
+			if (hint != null) {
+				// the elements before the hinted one rejected the expression in the same state before, so they are skipped
+				List<SyntaxElementInfo<? extends T>> skipped = new ArrayList<>(hint.position() + 1);
+				while (source.hasNext() && skipped.size() <= hint.position())
+					skipped.add(source.next());
+				if (skipped.size() == hint.position() + 1) {
+					SyntaxElementInfo<? extends T> info = skipped.get(hint.position());
+					SkriptPattern[] compiledPatterns = getCompiledPatterns(info);
+					if (info.getElementClass() == hint.elementClass() && hint.patternIndex() < compiledPatterns.length) {
+						log.clear();
+						T element = parse(info, compiledPatterns, hint.patternIndex(), lowerExpr);
+						if (element != null) {
+							log.printLog();
+							return element;
 						}
-						if (parseResult != null) {
-							assert parseResult.source != null; // parse results from parse_i have a source
-							List<TypePatternElement> types = null;
-							for (int i = 0; i < parseResult.exprs.length; i++) {
-								if (parseResult.exprs[i] == null) {
-									if (types == null)
-										types = parseResult.source.getElements(TypePatternElement.class);;
-									ExprInfo exprInfo = types.get(i).getExprInfo();
-									if (!exprInfo.isOptional) {
-										DefaultExpression<?> expr = getDefaultExpression(exprInfo, info.patterns[patternIndex]);
-										if (!expr.init())
-											continue patternsLoop;
-										parseResult.exprs[i] = expr;
-									}
-								}
-							}
-							T element = info.getElementClass().newInstance();
-
-							if (element instanceof EventRestrictedSyntax eventRestrictedSyntax) {
-								Class<? extends Event>[] supportedEvents = eventRestrictedSyntax.supportedEvents();
-								if (!getParser().isCurrentEvent(supportedEvents)) {
-									Iterator<String> iterator = Arrays.stream(supportedEvents)
-										.map(it -> "the " + it.getSimpleName()
-											.replaceAll("([A-Z])", " $1")
-											.toLowerCase()
-											.trim())
-										.iterator();
-
-									String events = StringUtils.join(iterator, ", ", " or ");
-
-									Skript.error("'" + parseResult.expr + "' can only be used in " + events);
-									continue;
-								}
-							}
+					}
+				}
+				// the state changed after all, so all elements are tried in order
+				source = Iterators.concat(skipped.iterator(), source);
+			}
 
-							boolean success = element.init(parseResult.exprs, patternIndex, getParser().getHasDelayBefore(), parseResult);
-							if (success) {
-								log.printLog();
-								return element;
-							}
-						}
-					} catch (InstantiationException | IllegalAccessException e) {
-						assert false;
+			for (int position = 0; source.hasNext(); position++) {
+				SyntaxElementInfo<? extends T> info = source.next();
+				SkriptPattern[] compiledPatterns = getCompiledPatterns(info);
+				for (int patternIndex = 0; patternIndex < compiledPatterns.length; patternIndex++) {
+					log.clear();
+					T element = parse(info, compiledPatterns, patternIndex, lowerExpr);
+					if (element != null) {
+						if (hintKey != null)
+							ParseHints.put(hintKey, position, info.getElementClass(), patternIndex);
+						log.printLog();
+						return element;
 					}
 				}
 			}
@@ -254,6 +265,67 @@ public class SkriptParser {
 		}
 	}
 
+	private static SkriptPattern[] getCompiledPatterns(SyntaxElementInfo<?> info) {
+		try {
+			return info.getCompiledPatterns();
+		} catch (MalformedPatternException e) {
+			String message = "pattern compiling exception, element class: " + info.getElementClass().getName();
+			try {
+				JavaPlugin providingPlugin = JavaPlugin.getProvidingPlugin(info.getElementClass());
+				message += " (provided by " + providingPlugin.getName() + ")";
+			} catch (IllegalArgumentException | IllegalStateException ignored) {}
+			throw new RuntimeException(message, e);
+		}
+	}
+
+	/**
+	 * Parses the expression as the given element using the pattern with the given index.
+	 * @return The initialised element, or null if the pattern does not match or the element could not be initialised
+	 */
+	private <T extends SyntaxElement> @Nullable T parse(SyntaxElementInfo<? extends T> info, SkriptPattern[] compiledPatterns, int patternIndex, String lowerExpr) {
+		ParseResult parseResult = parse_i(compiledPatterns[patternIndex], lowerExpr);
+		if (parseResult == null)
+			return null;
+		assert parseResult.source != null; // parse results from parse_i have a source
+		List<TypePatternElement> types = null;
+		for (int i = 0; i < parseResult.exprs.length; i++) {
+			if (parseResult.exprs[i] == null) {
+				if (types == null)
+					types = parseResult.source.getElements(TypePatternElement.class);;
+				ExprInfo exprInfo = types.get(i).getExprInfo();
+				if (!exprInfo.isOptional) {
+					DefaultExpression<?> expr = getDefaultExpression(exprInfo, info.patterns[patternIndex]);
+					if (!expr.init())
+						return null;
+					parseResult.exprs[i] = expr;
+				}
+			}
+		}
+		T element = info.instance();
+
+		if (element instanceof EventRestrictedSyntax eventRestrictedSyntax) {
+			Class<? extends Event>[] supportedEvents = eventRestrictedSyntax.supportedEvents();
+			if (!getParser().isCurrentEvent(supportedEvents)) {
+				Iterator<String> iterator = Arrays.stream(supportedEvents)
+					.map(it -> "the " + it.getSimpleName()
+						.replaceAll("([A-Z])", " $1")
+						.toLowerCase()
+						.trim())
+					.iterator();
+
+				String events = StringUtils.join(iterator, ", ", " or ");
+
+				Skript.error("'" + parseResult.expr + "' can only be used in " + events);
+				return null;
+			}
+		}
+
+		if (!element.init(parseResult.exprs, patternIndex, getParser().getHasDelayBefore(), parseResult))
+			return null;
+		ConstantFolding.initialized(getParser(), element, parseResult.exprs);
+		return element;
+	}
+
 	private static @NotNull DefaultExpression<?> getDefaultExpression(ExprInfo exprInfo, String pattern) {
 		DefaultExpression<?> expr = exprInfo.classes[0].getDefaultExpression();
 		if (expr == null)
@@ -1290,14 +1362,29 @@ public class SkriptParser {
 
 	private static final Map<String, SkriptPattern> patterns = new ConcurrentHashMap<>();
 
+	/**
+	 * Compiles the given pattern, or gets it from the patterns compiled before.
+	 * @throws MalformedPatternException If the pattern is malformed
+	 */
+	static SkriptPattern compilePattern(String pattern) {
+		return patterns.computeIfAbsent(pattern, PatternCompiler::compile);
+	}
+
 	private @Nullable ParseResult parse_i(String pattern) {
-		SkriptPattern skriptPattern = patterns.computeIfAbsent(pattern, PatternCompiler::compile);
+		SkriptPattern skriptPattern = compilePattern(pattern);
 		ch.njol.skript.patterns.MatchResult matchResult = skriptPattern.match(expr, flags, context);
 		if (matchResult == null)
 			return null;
 		return matchResult.toParseResult();
 	}
 
+	private @Nullable ParseResult parse_i(SkriptPattern pattern, String lowerExpr) {
+		ch.njol.skript.patterns.MatchResult matchResult = pattern.match(expr, lowerExpr, flags, context);
+		if (matchResult == null)
+			return null;
+		return matchResult.toParseResult();
+	}
+
 	/**
 	 * Validates a user-defined pattern (used in {@link ExprParse}).
 	 *
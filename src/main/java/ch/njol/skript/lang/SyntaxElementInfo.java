@@ -3,14 +3,22 @@ package ch.njol.skript.lang;
 import org.bukkit.event.Event;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
 import org.skriptlang.skript.bukkit.registration.BukkitSyntaxInfos;
 import org.skriptlang.skript.registration.SyntaxInfo;
 import org.skriptlang.skript.lang.structure.StructureInfo;
 
 import ch.njol.skript.SkriptAPIException;
+import ch.njol.skript.patterns.MalformedPatternException;
+import ch.njol.skript.patterns.SkriptPattern;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
+import java.util.function.Supplier;
 
 /**
  * @param <E> the syntax element this info is for
@@ -21,6 +29,16 @@ public class SyntaxElementInfo<E extends SyntaxElement> {
 	public final Class<E> elementClass;
 	public final String[] patterns;
 	public final String originClassPath;
+
+	/**
+	 * Creates new instances of the element, see {@link #instance()}.
+	 */
+	private volatile @Nullable Supplier<E> supplier;
+
+	/**
+	 * The compiled {@link #patterns}, see {@link #getCompiledPatterns()}.
+	 */
+	private volatile SkriptPattern @Nullable [] compiledPatterns;
   
 	public SyntaxElementInfo(String[] patterns, Class<E> elementClass, String originClassPath) throws IllegalArgumentException {
 		if (Modifier.isAbstract(elementClass.getModifiers()))
@@ -47,6 +65,64 @@ public class SyntaxElementInfo<E extends SyntaxElement> {
 		return elementClass;
 	}
 
+	/**
+	 * Creates a new instance of the element, using the supplier of the modern syntax info this info was created from,
+	 * or the nullary constructor of the element class.
+	 * @return A new instance of the element
+	 */
+	public E instance() {
+		Supplier<E> supplier = this.supplier;
+		if (supplier == null)
+			this.supplier = supplier = constructorSupplier(elementClass);
+		return supplier.get();
+	}
+
+	private static <E> Supplier<E> constructorSupplier(Class<E> elementClass) {
+		MethodHandle constructor;
+		try {
+			constructor = MethodHandles.publicLookup()
+				.findConstructor(elementClass, MethodType.methodType(void.class))
+				.asType(MethodType.methodType(Object.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			// e.g. a public constructor of a class that is not public itself
+			return () -> {
+				try {
+					Constructor<E> declaredConstructor = elementClass.getDeclaredConstructor();
+					declaredConstructor.setAccessible(true);
+					return declaredConstructor.newInstance();
+				} catch (ReflectiveOperationException ex) {
+					throw new SkriptAPIException("Cannot create an instance of " + elementClass.getName(), ex);
+				}
+			};
+		}
+		return () -> {
+			try {
+				//noinspection unchecked
+				return (E) (Object) constructor.invokeExact();
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new RuntimeException(e);
+			}
+		};
+	}
+
+	/**
+	 * Gets the compiled patterns of this element, compiling them when this is first called.
+	 * @return The compiled patterns, in the order of {@link #patterns}
+	 * @throws MalformedPatternException If a pattern is malformed
+	 */
+	SkriptPattern[] getCompiledPatterns() {
+		SkriptPattern[] compiledPatterns = this.compiledPatterns;
+		if (compiledPatterns == null) {
+			compiledPatterns = new SkriptPattern[patterns.length];
+			for (int i = 0; i < patterns.length; i++)
+				compiledPatterns[i] = SkriptParser.compilePattern(patterns[i]);
+			this.compiledPatterns = compiledPatterns;
+		}
+		return compiledPatterns;
+	}
+
 	/**
 	 * Get the patterns of this syntax element.
 	 * @return Array of Skript patterns for this element
@@ -65,8 +141,16 @@ public class SyntaxElementInfo<E extends SyntaxElement> {
 
 	@Contract("_ -> new")
 	@ApiStatus.Experimental
-	@SuppressWarnings("unchecked")
 	public static <I extends SyntaxElementInfo<E>, E extends SyntaxElement> I fromModern(SyntaxInfo<? extends E> info) {
+		I elementInfo = fromModern_i(info);
+		// private fields can not be accessed through a type variable
+		SyntaxElementInfo<E> base = elementInfo;
+		base.supplier = info::instance;
+		return elementInfo;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <I extends SyntaxElementInfo<E>, E extends SyntaxElement> I fromModern_i(SyntaxInfo<? extends E> info) {
 		if (info instanceof BukkitSyntaxInfos.Event<?> event) {
 			// We must first go back to the raw input
 			String rawName = event.name().startsWith("On ")
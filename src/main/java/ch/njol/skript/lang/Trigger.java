@@ -30,6 +30,16 @@ public class Trigger extends TriggerSection {
 	 * @return false if an exception occurred.
 	 */
 	public boolean execute(Event event) {
+		if (TriggerFrame.current(event) == null) {
+			// The local variables are cleared along with the frame
+			TriggerFrame frame = TriggerFrame.obtain(event);
+			try {
+				return TriggerItem.walk(this, frame);
+			} finally {
+				frame.release();
+			}
+		}
+
 		boolean success = TriggerItem.walk(this, event);
 
 		// Clear local variables
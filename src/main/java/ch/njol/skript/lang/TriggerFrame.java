@@ -0,0 +1,253 @@
+package ch.njol.skript.lang;
+
+import ch.njol.skript.variables.Variables;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The state of one execution of {@link TriggerItem}s with an event,
+ * i.e. its local variables, the states of its running loops and whether it has been delayed.
+ * <p>
+ * A frame is entered by {@link TriggerItem#walk(TriggerItem, Event)} and can only be seen by the thread running the items,
+ * so its state does not have to be looked up by event in maps shared by all executions.
+ * Items that continue an execution later, like {@link ch.njol.skript.effects.Delay delays},
+ * must resume it with {@link TriggerItem#walk(TriggerItem, TriggerFrame)} to keep its state,
+ * including its local variables, which stay in the frame while it is not entered.
+ * <p>
+ * While no frame is entered for an event, its local variables are kept by {@link Variables} as before,
+ * and they are taken over by the next frame entered for the event.
+ */
+public final class TriggerFrame {
+
+	/**
+	 * The frames of a thread.
+	 */
+	private static final class Frames {
+
+		/**
+		 * The innermost frame entered on the thread. Outer frames are linked by {@link #parent}.
+		 */
+		private @Nullable TriggerFrame current;
+
+		/**
+		 * A frame that has been {@link #release() released}, to be reused by the next synchronous execution.
+		 */
+		private @Nullable TriggerFrame spare;
+
+	}
+
+	private static final ThreadLocal<Frames> FRAMES = ThreadLocal.withInitial(Frames::new);
+
+	private Event event;
+
+	/**
+	 * The frame that was current when this frame was entered, or null if it is not entered or was entered first.
+	 */
+	private @Nullable TriggerFrame parent;
+	private boolean entered;
+
+	private @Nullable Object locals;
+	private @Nullable Map<LoopSection, Object> loopStates;
+	private boolean delayed;
+
+	public TriggerFrame(Event event) {
+		this.event = event;
+	}
+
+	/**
+	 * @param event The event to get the frame of
+	 * @return The frame entered for the given event on the current thread, or null if there is none
+	 */
+	public static @Nullable TriggerFrame current(Event event) {
+		TriggerFrame frame = FRAMES.get().current;
+		while (frame != null && frame.event != event)
+			frame = frame.parent;
+		return frame;
+	}
+
+	/**
+	 * @return The innermost frame entered on the current thread, whose {@link #parent()} is the next outer one
+	 */
+	static @Nullable TriggerFrame innermost() {
+		return FRAMES.get().current;
+	}
+
+	/**
+	 * @return The frame that was current when this frame was entered, or null if it is not entered or was entered first
+	 */
+	@Nullable TriggerFrame parent() {
+		return parent;
+	}
+
+	/**
+	 * Gets a frame for a new execution that is run synchronously, reusing one {@link #release() released} on this thread if possible.
+	 *
+	 * @param event The event of the execution
+	 * @return A frame that is not entered
+	 */
+	static TriggerFrame obtain(Event event) {
+		Frames frames = FRAMES.get();
+		TriggerFrame frame = frames.spare;
+		if (frame == null)
+			return new TriggerFrame(event);
+		frames.spare = null;
+		frame.event = event;
+		return frame;
+	}
+
+	/**
+	 * Clears this frame and keeps it to be {@link #obtain(Event) reused} by the next synchronous execution on this thread.
+	 * The frame must have been exited, and must not be used afterwards.
+	 */
+	void release() {
+		assert !entered : event;
+		locals = null;
+		if (loopStates != null)
+			loopStates.clear();
+		delayed = false;
+		FRAMES.get().spare = this;
+	}
+
+	public Event getEvent() {
+		return event;
+	}
+
+	/**
+	 * @return Whether this frame is currently entered
+	 */
+	boolean isEntered() {
+		return entered;
+	}
+
+	/**
+	 * Runs the given action in this frame, entering it first if it is not entered yet.
+	 * This can be used to run code that is not a {@link TriggerItem} as part of an execution, e.g. on another thread.
+	 *
+	 * @param action The action to run
+	 */
+	public void run(Runnable action) {
+		if (entered) {
+			action.run();
+			return;
+		}
+		enter();
+		try {
+			action.run();
+		} finally {
+			exit();
+		}
+	}
+
+	/**
+	 * Makes this frame the current frame of its event on this thread,
+	 * taking over the local variables that have been stored for its event while no frame was entered, if there are any.
+	 */
+	void enter() {
+		assert !entered : event;
+		Object stored = Variables.removeLocals(event); // no frame is entered for the event yet, so this takes the stored variables
+		if (stored != null)
+			locals = stored;
+		Frames frames = FRAMES.get();
+		parent = frames.current;
+		frames.current = this;
+		entered = true;
+	}
+
+	/**
+	 * Exits this frame. Its state, including its local variables, is kept,
+	 * so that the frame can be entered again when the execution resumes.
+	 */
+	void exit() {
+		Frames frames = FRAMES.get();
+		assert entered && frames.current == this : event;
+		frames.current = parent;
+		parent = null;
+		entered = false;
+	}
+
+	/**
+	 * Creates a frame to resume this execution with later, e.g. after a delay or on another thread.
+	 * <p>
+	 * The new frame is not entered and takes over the local variables, loop states and delay of this frame,
+	 * so that it never shares mutable fields with this frame, which may still be entered on this thread.
+	 * The execution must not continue in this frame afterwards.
+	 *
+	 * @return The frame to resume the execution with
+	 */
+	public TriggerFrame detach() {
+		TriggerFrame frame = new TriggerFrame(event);
+		frame.locals = locals;
+		locals = null;
+		if (loopStates != null)
+			frame.loopStates = new IdentityHashMap<>(loopStates);
+		frame.delayed = delayed;
+		return frame;
+	}
+
+	/**
+	 * @return The local variables of this frame, as used by {@link Variables}
+	 */
+	public @Nullable Object getLocals() {
+		return locals;
+	}
+
+	/**
+	 * @param locals The new local variables of this frame, as used by {@link Variables}
+	 */
+	public void setLocals(@Nullable Object locals) {
+		this.locals = locals;
+	}
+
+	/**
+	 * @param loop The loop to get the state of
+	 * @return The state of the given loop in this execution, or null if the loop is not running
+	 */
+	public @Nullable Object getLoopState(LoopSection loop) {
+		Map<LoopSection, Object> loopStates = this.loopStates;
+		return loopStates == null ? null : loopStates.get(loop);
+	}
+
+	/**
+	 * @param loop The loop to get the state of
+	 * @param creator Creates the state if the loop is not running yet
+	 * @return The state of the given loop in this execution
+	 */
+	public Object getOrCreateLoopState(LoopSection loop, Supplier<?> creator) {
+		Map<LoopSection, Object> loopStates = this.loopStates;
+		if (loopStates == null)
+			this.loopStates = loopStates = new IdentityHashMap<>(4);
+		Object state = loopStates.get(loop);
+		if (state == null)
+			loopStates.put(loop, state = creator.get());
+		return state;
+	}
+
+	/**
+	 * Removes the state of the given loop, e.g. once it has been exited.
+	 */
+	public void removeLoopState(LoopSection loop) {
+		Map<LoopSection, Object> loopStates = this.loopStates;
+		if (loopStates != null)
+			loopStates.remove(loop);
+	}
+
+	/**
+	 * @return Whether this execution has been delayed
+	 * @see ch.njol.skript.effects.Delay#isDelayed(Event)
+	 */
+	public boolean isDelayed() {
+		return delayed;
+	}
+
+	/**
+	 * Marks this execution as delayed.
+	 */
+	public void setDelayed() {
+		delayed = true;
+	}
+
+}
@@ -2,6 +2,7 @@ package ch.njol.skript.lang;
 
 import ch.njol.skript.Skript;
 import ch.njol.skript.util.SkriptColor;
+import ch.njol.skript.variables.Variables;
 import ch.njol.util.StringUtils;
 import org.bukkit.event.Event;
 import org.jetbrains.annotations.Nullable;
@@ -56,11 +57,50 @@ public abstract class TriggerItem implements Debuggable {
 	protected abstract boolean run(Event event);
 
 	/**
+	 * Runs the items in the {@link TriggerFrame} entered for the given event on this thread,
+	 * or in a new frame if there is none.
+	 * The local variables of a new frame are stored for the event afterwards,
+	 * as the caller may still use them, e.g. to copy them back from the event of a section.
+	 *
 	 * @param start The item to start at
 	 * @param event The event to run the items with
 	 * @return false if an exception occurred
 	 */
 	public static boolean walk(TriggerItem start, Event event) {
+		TriggerFrame frame = TriggerFrame.current(event);
+		if (frame != null)
+			return walk_i(start, event);
+		frame = TriggerFrame.obtain(event);
+		try {
+			return walk(start, frame);
+		} finally {
+			Object locals = frame.getLocals();
+			frame.release();
+			if (locals != null)
+				Variables.setLocalVariables(event, locals);
+		}
+	}
+
+	/**
+	 * Runs the items in the given frame, e.g. to resume an execution that has been delayed.
+	 *
+	 * @param start The item to start at
+	 * @param frame The frame of the execution, holding the event to run the items with
+	 * @return false if an exception occurred
+	 */
+	public static boolean walk(TriggerItem start, TriggerFrame frame) {
+		Event event = frame.getEvent();
+		if (frame.isEntered())
+			return walk_i(start, event);
+		frame.enter();
+		try {
+			return walk_i(start, event);
+		} finally {
+			frame.exit();
+		}
+	}
+
+	private static boolean walk_i(TriggerItem start, Event event) {
 		TriggerItem triggerItem = start;
 		try {
 			while (triggerItem != null)
@@ -40,6 +40,19 @@ import java.util.stream.Collectors;
  */
 public class VariableString implements Expression<String> {
 
+	/**
+	 * The maximum capacity of a builder kept in {@link #BUILDER}, so that one very long string does not keep its memory.
+	 */
+	private static final int MAX_BUILDER_CAPACITY = 1024;
+
+	/**
+	 * A builder per thread to build strings in. It is taken out while in use, as evaluating the expressions of a string
+	 *  may build other strings, e.g. the name of a variable in a string.
+	 * @see #takeBuilder()
+	 * @see #releaseBuilder(StringBuilder)
+	 */
+	private static final ThreadLocal<StringBuilder> BUILDER = new ThreadLocal<>();
+
 	private final @Nullable Script script;
 	protected final String original;
 
@@ -59,6 +72,17 @@ public class VariableString implements Expression<String> {
 	 */
 	private final MessageComponent[] components;
 
+	/**
+	 * The parsed message components of a simple string, parsed when first needed.
+	 * These must be copied before being returned.
+	 */
+	private volatile @Nullable List<MessageComponent> simpleComponents;
+
+	/**
+	 * The chat JSON of a simple string, created when first needed.
+	 */
+	private volatile @Nullable String simpleJson;
+
 	/**
 	 * Creates a new VariableString which does not contain variables.
 	 *
@@ -367,7 +391,7 @@ public class VariableString implements Expression<String> {
 		}
 		Object[] strings = this.stringsUnformatted;
 		assert strings != null;
-		StringBuilder builder = new StringBuilder();
+		StringBuilder builder = takeBuilder();
 		for (Object string : strings) {
 			if (string instanceof Expression<?>) {
 				builder.append(Classes.toString(((Expression<?>) string).getArray(event), true, mode));
@@ -375,7 +399,7 @@ public class VariableString implements Expression<String> {
 				builder.append(string);
 			}
 		}
-		return builder.toString();
+		return releaseBuilder(builder);
 	}
 
 	/**
@@ -385,10 +409,8 @@ public class VariableString implements Expression<String> {
 	 * @return Message components.
 	 */
 	public List<MessageComponent> getMessageComponents(Event event) {
-		if (isSimple) { // Trusted, constant string in a script
-			assert simpleUnformatted != null;
-			return ChatMessages.parse(simpleUnformatted);
-		}
+		if (isSimple) // Trusted, constant string in a script
+			return getSimpleComponents();
 
 		// Parse formatting
 		Object[] strings = this.stringsUnformatted;
@@ -450,10 +472,8 @@ public class VariableString implements Expression<String> {
 	 * @return Message components.
 	 */
 	public List<MessageComponent> getMessageComponentsUnsafe(Event event) {
-		if (isSimple) { // Trusted, constant string in a script
-			assert simpleUnformatted != null;
-			return ChatMessages.parse(simpleUnformatted);
-		}
+		if (isSimple) // Trusted, constant string in a script
+			return getSimpleComponents();
 
 		return ChatMessages.parse(toUnformattedString(event));
 	}
@@ -465,9 +485,53 @@ public class VariableString implements Expression<String> {
 	 * @return The input string with all expressions replaced.
 	 */
 	public String toChatString(Event event) {
+		if (isSimple) {
+			String json = simpleJson;
+			if (json == null)
+				simpleJson = json = ChatMessages.toJson(getSimpleComponents());
+			return json;
+		}
 		return ChatMessages.toJson(getMessageComponents(event));
 	}
 
+	/**
+	 * @return A copy of the message components of this simple string, which are only parsed once.
+	 */
+	private List<MessageComponent> getSimpleComponents() {
+		assert isSimple && simpleUnformatted != null;
+		List<MessageComponent> parsed = simpleComponents;
+		if (parsed == null)
+			simpleComponents = parsed = ChatMessages.parse(simpleUnformatted);
+		List<MessageComponent> copy = new ArrayList<>(parsed.size());
+		for (MessageComponent component : parsed)
+			copy.add(component.copy());
+		return copy;
+	}
+
+	/**
+	 * @return The builder of this thread if it is not in use, or a new builder.
+	 */
+	private static StringBuilder takeBuilder() {
+		StringBuilder builder = BUILDER.get();
+		if (builder == null)
+			return new StringBuilder();
+		BUILDER.set(null);
+		return builder;
+	}
+
+	/**
+	 * Returns a builder obtained from {@link #takeBuilder()} to be reused by this thread.
+	 * @return The contents of the builder
+	 */
+	private static String releaseBuilder(StringBuilder builder) {
+		String string = builder.toString();
+		if (builder.capacity() <= MAX_BUILDER_CAPACITY) {
+			builder.setLength(0);
+			BUILDER.set(builder);
+		}
+		return string;
+	}
+
 	private static @Nullable ChatColor getLastColor(CharSequence sequence) {
 		for (int i = sequence.length() - 2; i >= 0; i--) {
 			if (sequence.charAt(i) == ChatColor.COLOR_CHAR) {
@@ -501,20 +565,21 @@ public class VariableString implements Expression<String> {
 
 		Object[] string = this.strings;
 		assert string != null;
-		StringBuilder builder = new StringBuilder();
-		List<Class<?>> types = new ArrayList<>();
+		StringBuilder builder = takeBuilder();
+		// the types are only needed to remember the default variables of a script
+		@Nullable List<Class<?>> types = script != null && mode == StringMode.VARIABLE_NAME ? new ArrayList<>() : null;
 		for (Object object : string) {
 			if (object instanceof Expression<?>) {
 				Object[] objects = ((Expression<?>) object).getArray(event);
-				if (objects != null && objects.length > 0)
+				if (types != null && objects != null && objects.length > 0)
 					types.add(objects[0].getClass());
 				builder.append(Classes.toString(objects, true, mode));
 			} else {
 				builder.append(object);
 			}
 		}
-		String complete = builder.toString();
-		if (script != null && mode == StringMode.VARIABLE_NAME && !types.isEmpty()) {
+		String complete = releaseBuilder(builder);
+		if (script != null && types != null && !types.isEmpty()) {
 			DefaultVariables data = script.getData(DefaultVariables.class);
 			if (data != null)
 				data.add(complete, types.toArray(new Class<?>[0]));
@@ -2,6 +2,7 @@ package ch.njol.skript.lang.function;
 
 import org.bukkit.event.Event;
 import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.Nullable;
 
 public final class FunctionEvent<T> extends Event {
 	
@@ -9,6 +10,12 @@ public final class FunctionEvent<T> extends Event {
 	private final static HandlerList handlers = new HandlerList();
 	
 	private final Function<? extends T> function;
+
+	/**
+	 * The values returned by this call of a {@link ScriptFunction}, kept here so that calls do not share them.
+	 */
+	private Object @Nullable [] returnValues;
+	private boolean returnValueSet;
 	
 	public FunctionEvent(Function<? extends T> function) {
 		this.function = function;
@@ -17,6 +24,23 @@ public final class FunctionEvent<T> extends Event {
 	public Function<? extends T> getFunction() {
 		return function;
 	}
+
+	/**
+	 * @return Whether the function has returned a value in this call
+	 */
+	boolean isReturnValueSet() {
+		return returnValueSet;
+	}
+
+	Object @Nullable [] getReturnValues() {
+		return returnValues;
+	}
+
+	void setReturnValues(Object @Nullable [] returnValues) {
+		assert !returnValueSet;
+		returnValueSet = true;
+		this.returnValues = returnValues;
+	}
 	
 	@Override
 	public HandlerList getHandlers() {
@@ -280,20 +280,14 @@ public class FunctionReference<T> implements Contract, Executable<Event, T[]> {
 			List<Object> l = new ArrayList<>();
 			for (Expression<?> parameter : parameters)
 				l.addAll(Arrays.asList(parameter.getArray(event)));
-			params[0] = l.toArray();
-
-			// Don't allow mutating across function boundary; same hack is applied to variables
-			for (int i = 0; i < params[0].length; i++) {
-				params[0][i] = Classes.clone(params[0][i]);
-			}
+			params[0] = cloneArguments(l.toArray());
 		} else { // Use parameters in normal way
+			// script functions do not modify or keep the arrays of arguments, so they are only copied for java functions
+			boolean copy = !(function instanceof ScriptFunction);
 			for (int i = 0; i < parameters.length; i++) {
 				Object[] array = parameters[i].getArray(event);
-				params[i] = Arrays.copyOf(array, array.length);
-				// Don't allow mutating across function boundary; same hack is applied to variables
-				for (int j = 0; j < params[i].length; j++) {
-					params[i][j] = Classes.clone(params[i][j]);
-				}
+				Object[] cloned = cloneArguments(array);
+				params[i] = cloned == array && copy ? Arrays.copyOf(array, array.length) : cloned;
 			}
 		}
 
@@ -301,6 +295,25 @@ public class FunctionReference<T> implements Contract, Executable<Event, T[]> {
 		return function.execute(params);
 	}
 
+	/**
+	 * Clones the given values to not allow mutating them across the function boundary; the same is done for variables.
+	 * Most values are immutable and thus not cloned, so the array is only copied once a value actually is.
+	 *
+	 * @return The given array if no value had to be cloned, or a copy with the cloned values
+	 */
+	private static Object[] cloneArguments(Object[] values) {
+		Object[] cloned = values;
+		for (int i = 0; i < values.length; i++) {
+			Object value = Classes.clone(values[i]);
+			if (value != values[i]) {
+				if (cloned == values)
+					cloned = Arrays.copyOf(values, values.length);
+				cloned[i] = value;
+			}
+		}
+		return cloned;
+	}
+
 	public boolean isSingle() {
 		return contract.isSingle(parameters);
 	}
@@ -5,6 +5,7 @@ import ch.njol.skript.SkriptAPIException;
 import ch.njol.skript.SkriptAddon;
 import ch.njol.skript.classes.ClassInfo;
 import ch.njol.skript.config.SectionNode;
+import ch.njol.skript.lang.parser.ParseHints;
 import ch.njol.skript.registrations.Classes;
 import ch.njol.skript.util.Utils;
 import ch.njol.util.NonNullPair;
@@ -69,6 +70,7 @@ public abstract class Functions {
 		javaNamespace.addSignature(function.getSignature());
 		javaNamespace.addFunction(function);
 		globalFunctions.put(function.getName(), javaNamespace);
+		ParseHints.signatureRegistered(function.getSignature().script, function.getSignature());
 
 		return function;
 	}
@@ -171,6 +173,7 @@ public abstract class Functions {
 		namespace.addSignature(signature);
 		if (!signature.local)
 			globalFunctions.put(signature.name, namespace);
+		ParseHints.signatureRegistered(signature.script, signature);
 
 		Skript.debug("Registered function signature: " + signature.name);
 
@@ -346,6 +349,7 @@ public abstract class Functions {
 		// Queue references to signatures we have for revalidation
 		// Can't validate here, because other scripts might be loaded soon
 		for (Signature<?> sign : namespace.getSignatures()) {
+			ParseHints.signatureUnregistered(sign.script, sign);
 			for (FunctionReference<?> ref : sign.calls) {
 				if (!script.equals(ref.script)) {
 					toValidate.add(ref);
@@ -360,6 +364,7 @@ public abstract class Functions {
 		while (namespaceIterator.hasNext()) {
 			Namespace namespace = namespaceIterator.next();
 			if (namespace.removeSignature(signature)) {
+				ParseHints.signatureUnregistered(signature.script, signature);
 				if (!signature.local)
 					globalFunctions.remove(signature.getName());
 
@@ -390,6 +395,12 @@ public abstract class Functions {
 	public static void clearFunctions() {
 		// Keep Java functions, remove everything else
 		globalFunctions.values().removeIf(namespace -> namespace != javaNamespace);
+		for (Namespace namespace : namespaces.values()) {
+			if (namespace == javaNamespace)
+				continue;
+			for (Signature<?> signature : namespace.getSignatures())
+				ParseHints.signatureUnregistered(signature.script, signature);
+		}
 		namespaces.clear();
 
 		assert toValidate.isEmpty() : toValidate;
@@ -17,6 +17,7 @@ import ch.njol.util.StringUtils;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.regex.Matcher;
@@ -49,6 +50,12 @@ public final class Parameter<T> {
 	 * Whether this parameter takes one or many values.
 	 */
 	final boolean single;
+
+	/**
+	 * The names of the local variables the values of this parameter are bound to if it takes many values,
+	 * i.e. {@code name::1}, {@code name::2} and so on. Grown as needed.
+	 */
+	private volatile String[] elementNames = new String[0];
 	
 	@SuppressWarnings("null")
 	public Parameter(String name, ClassInfo<T> type, boolean single, @Nullable Expression<? extends T> def) {
@@ -163,6 +170,24 @@ public final class Parameter<T> {
 		return name;
 	}
 	
+	/**
+	 * Gets the names of the local variables the values of this parameter are bound to if it takes many values,
+	 * i.e. {@code name::1}, {@code name::2} and so on.
+	 *
+	 * @param amount The amount of values
+	 * @return The names, of which there are at least {@code amount}
+	 */
+	String[] getElementNames(int amount) {
+		String[] elementNames = this.elementNames;
+		if (elementNames.length >= amount)
+			return elementNames;
+		String[] grown = Arrays.copyOf(elementNames, Math.max(amount, elementNames.length * 2));
+		for (int i = elementNames.length; i < grown.length; i++)
+			grown[i] = name + Variable.SEPARATOR + (i + 1);
+		this.elementNames = grown;
+		return grown;
+	}
+	
 	/**
 	 * Get the Expression that will be used to provide the default value of this parameter when the function is called.
 	 * @return Expression that will provide default value of this parameter
@@ -16,6 +16,10 @@ public class ScriptFunction<T> extends Function<T> implements ReturnHandler<T> {
 
 	private final Trigger trigger;
 
+	/**
+	 * The values returned using {@link #setReturnValue(Object[])}, which is not given the call's event.
+	 * Values returned by {@link #returnValues(Event, Expression)} are kept by the call's {@link FunctionEvent} instead.
+	 */
 	private boolean returnValueSet;
 	private T @Nullable [] returnValues;
 
@@ -50,15 +54,16 @@ public class ScriptFunction<T> extends Function<T> implements ReturnHandler<T> {
 			if (parameter.single && val.length > 0) {
 				Variables.setVariable(parameter.name, val[0], event, true);
 			} else {
-				for (int j = 0; j < val.length; j++) {
-					Variables.setVariable(parameter.name + "::" + (j + 1), val[j], event, true);
-				}
+				Variables.setLocalList(parameter.name, parameter.getElementNames(val.length), val, event);
 			}
 		}
 		
 		trigger.execute(event);
 		ClassInfo<T> returnType = getReturnType();
-		return returnType != null ? returnValues : null;
+		if (returnType == null)
+			return null;
+		//noinspection unchecked
+		return event.isReturnValueSet() ? (T[]) event.getReturnValues() : returnValues;
 	}
 
 	/**
@@ -81,9 +86,14 @@ public class ScriptFunction<T> extends Function<T> implements ReturnHandler<T> {
 
 	@Override
 	public final void returnValues(Event event, Expression<? extends T> value) {
+		T[] values = value.getArray(event);
+		if (event instanceof FunctionEvent<?> functionEvent && functionEvent.getFunction() == this) {
+			functionEvent.setReturnValues(values);
+			return;
+		}
 		assert !returnValueSet;
 		returnValueSet = true;
-		this.returnValues = value.getArray(event);
+		this.returnValues = values;
 	}
 
 	@Override
@@ -79,7 +79,8 @@ public class Signature<T> {
 		this.originClassPath = originClassPath;
 		this.contract = contract;
 
-		calls = Collections.newSetFromMap(new WeakHashMap<>());
+		// synchronized, as calls may be parsed on multiple threads
+		calls = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
 	}
 
 	public Signature(String script,
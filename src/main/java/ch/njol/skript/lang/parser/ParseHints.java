@@ -0,0 +1,211 @@
+package ch.njol.skript.lang.parser;
+
+import ch.njol.skript.config.Config;
+import ch.njol.skript.config.EntryNode;
+import ch.njol.skript.config.Node;
+import ch.njol.skript.config.SectionNode;
+import ch.njol.skript.lang.SyntaxElement;
+import ch.njol.skript.lang.TriggerSection;
+import ch.njol.skript.lang.function.Signature;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+import org.skriptlang.skript.lang.script.Script;
+import org.skriptlang.skript.lang.script.ScriptData;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers which syntax element and pattern a line was parsed as, so that the elements before it,
+ * which are known to reject the line, can be skipped the next time it is parsed,
+ * e.g. when a script is reloaded without changes.
+ * <p>
+ * A line is parsed the same way as long as the script's content, the registered syntax
+ * and the signatures of the functions it may call do not change, which is what a {@link Key} consists of.
+ * Hints are thus kept across loads of a script and only discarded when syntax is (un)registered.
+ * If the hinted element fails to parse the line regardless, all elements are tried as usual.
+ */
+@ApiStatus.Internal
+public final class ParseHints {
+
+	/**
+	 * The maximum number of hints kept, to not grow indefinitely while many scripts are changed and reloaded.
+	 * All hints are discarded once this is reached.
+	 */
+	private static final int MAX_HINTS = 1 << 16;
+
+	private static final Map<Key, Hint> HINTS = new ConcurrentHashMap<>();
+
+	private static final LongAdder HITS = new LongAdder();
+
+	/**
+	 * Changes whenever syntax is (un)registered.
+	 */
+	private static final AtomicLong REGISTRY_FINGERPRINT = new AtomicLong();
+
+	/**
+	 * The sum of the hashes of all registered function signatures,
+	 * so that unregistering and registering the same signatures again, e.g. on reload, results in the same sum.
+	 */
+	private static final AtomicLong SIGNATURES_FINGERPRINT = new AtomicLong();
+
+	private ParseHints() {}
+
+	/**
+	 * The line and what determines what it can be parsed as.
+	 * @param kind What the line is parsed as, as hints are only valid for the same kind of elements
+	 * @param line The normalized line
+	 * @param lineNumber The line's number in the script, as the same line may be parsed differently in other places
+	 * @param context A hash of the parser's state that is not fully determined by the position of the line,
+	 *                e.g. when the body of a section is loaded for different events
+	 * @param contentHash A hash of the content of the script, see {@link #contentHash(Config)}
+	 * @param registryFingerprint The fingerprint of the registered syntax
+	 * @param signaturesFingerprint The fingerprint of the registered function signatures
+	 */
+	public record Key(
+		String kind, String line, int lineNumber, int context, long contentHash,
+		long registryFingerprint, long signaturesFingerprint
+	) {}
+
+	/**
+	 * @param position The number of elements before the element the line was parsed as, which all rejected the line
+	 * @param elementClass The class of the element the line was parsed as
+	 * @param patternIndex The index of the pattern of the element that matched the line
+	 */
+	public record Hint(int position, Class<? extends SyntaxElement> elementClass, int patternIndex) {}
+
+	private record ContentHash(long hash) implements ScriptData {}
+
+	/**
+	 * Creates the key of a line in the current state of the given parser.
+	 * @param kind What the line is parsed as, as hints are only valid for the same kind of elements
+	 * @param expr The line
+	 * @return The key, or null if the parser is not parsing a line of a script
+	 */
+	public static @Nullable Key key(ParserInstance parser, String kind, String expr) {
+		if (!parser.isActive())
+			return null;
+		Node node = parser.getNode();
+		if (node == null || node.getLine() < 0)
+			return null;
+
+		Script script = parser.getCurrentScript();
+		long contentHash = script.getData(ContentHash.class, () -> new ContentHash(contentHash(script.getConfig()))).hash();
+
+		int context = Arrays.hashCode(parser.getCurrentEvents());
+		for (TriggerSection section : parser.getCurrentSections())
+			context = 31 * context + section.getClass().hashCode();
+		context = 31 * context + parser.getHasDelayBefore().hashCode();
+
+		return new Key(
+			kind, expr.toLowerCase(Locale.ENGLISH), node.getLine(), context, contentHash,
+			REGISTRY_FINGERPRINT.get(), SIGNATURES_FINGERPRINT.get()
+		);
+	}
+
+	/**
+	 * @return The hint for the given line, or null if it has not been parsed successfully before
+	 */
+	public static @Nullable Hint get(Key key) {
+		Hint hint = HINTS.get(key);
+		if (hint != null)
+			HITS.increment();
+		return hint;
+	}
+
+	/**
+	 * @return How many times a hint has been found for a line that is being parsed
+	 */
+	public static long getHitCount() {
+		return HITS.sum();
+	}
+
+	/**
+	 * Remembers that the given line was parsed as the given element, after all elements before it rejected it.
+	 */
+	public static void put(Key key, int position, Class<? extends SyntaxElement> elementClass, int patternIndex) {
+		if (HINTS.size() >= MAX_HINTS)
+			HINTS.clear();
+		HINTS.put(key, new Hint(position, elementClass, patternIndex));
+	}
+
+	/**
+	 * Discards all hints, as syntax has been registered or unregistered.
+	 */
+	public static void registryChanged() {
+		REGISTRY_FINGERPRINT.incrementAndGet();
+		HINTS.clear();
+	}
+
+	/**
+	 * Updates the fingerprint of the registered function signatures after a signature has been registered.
+	 * Hints are kept, as they are only used again once the same signatures are registered.
+	 * @param script The script the function is declared in
+	 * @param signature The signature
+	 */
+	public static void signatureRegistered(String script, Signature<?> signature) {
+		SIGNATURES_FINGERPRINT.addAndGet(signatureHash(script, signature));
+	}
+
+	/**
+	 * Updates the fingerprint of the registered function signatures after a signature has been unregistered.
+	 * @param script The script the function is declared in
+	 * @param signature The signature
+	 */
+	public static void signatureUnregistered(String script, Signature<?> signature) {
+		SIGNATURES_FINGERPRINT.addAndGet(-signatureHash(script, signature));
+	}
+
+	private static long signatureHash(String script, Signature<?> signature) {
+		return hash(script + ':' + signature.toString(true, false));
+	}
+
+	/**
+	 * Hashes the lines of a config, including their positions.
+	 */
+	static long contentHash(Config config) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e); // every Java platform supports SHA-256
+		}
+		update(digest, config.getMainNode());
+		return ByteBuffer.wrap(digest.digest()).getLong();
+	}
+
+	private static void update(MessageDigest digest, SectionNode section) {
+		for (Node node : section) {
+			digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(node.getLine()).array());
+			update(digest, node.getKey());
+			if (node instanceof EntryNode entry)
+				update(digest, entry.getValue());
+			if (node instanceof SectionNode child) {
+				digest.update((byte) '{');
+				update(digest, child);
+				digest.update((byte) '}');
+			}
+		}
+	}
+
+	private static void update(MessageDigest digest, @Nullable String string) {
+		if (string != null)
+			digest.update(string.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	private static long hash(String string) {
+		// spreads the hash over a long, as the fingerprint is a sum of them
+		long hash = string.hashCode() * 0x9E3779B97F4A7C15L;
+		return hash ^ (hash >>> 32);
+	}
+
+}
@@ -0,0 +1,145 @@
+package ch.njol.skript.lang.util;
+
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.ExpressionList;
+import ch.njol.skript.lang.SyntaxElement;
+import ch.njol.skript.lang.TriggerItem;
+import ch.njol.skript.lang.parser.ParserInstance;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+import org.skriptlang.skript.lang.script.Script;
+import org.skriptlang.skript.lang.script.ScriptData;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps track of how many expressions of a script were computed once while loading it,
+ * as all of their inputs were literals, instead of being evaluated every time they are used.
+ * <br>
+ * The parser may initialize an expression several times before it finds the statement that uses it.
+ * Folded expressions are therefore only counted once a statement containing them has been kept.
+ */
+@ApiStatus.Internal
+public final class ConstantFolding {
+
+	private ConstantFolding() {}
+
+	static {
+		ParserInstance.registerData(PendingFolds.class, PendingFolds::new);
+	}
+
+	private static final class FoldedCount implements ScriptData {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+	}
+
+	private static final class PendingFolds extends ParserInstance.Data {
+
+		/**
+		 * Expressions that have been folded, but have not been used by any element yet.
+		 */
+		private final Set<Expression<?>> folded = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		/**
+		 * The number of folded expressions used by each element that has been initialized successfully.
+		 */
+		private final Map<SyntaxElement, Integer> counts = new IdentityHashMap<>();
+
+		public PendingFolds(ParserInstance parserInstance) {
+			super(parserInstance);
+		}
+
+	}
+
+	/**
+	 * Records that an expression has been folded into a constant.
+	 * It is only counted if a statement that uses it is kept, see {@link #kept(ParserInstance, TriggerItem)}.
+	 * @param parser The parser that parsed the expression
+	 * @param expression The folded expression
+	 */
+	public static void folded(ParserInstance parser, Expression<?> expression) {
+		if (!parser.isActive())
+			return;
+		parser.getData(PendingFolds.class).folded.add(expression);
+	}
+
+	/**
+	 * Records the folded expressions used by an element that has been initialized successfully.
+	 * A folded expression counts as one, whatever folded expressions it is made of.
+	 * @param parser The parser that parsed the element
+	 * @param element The element
+	 * @param expressions The expressions the element has been initialized with
+	 */
+	public static void initialized(ParserInstance parser, SyntaxElement element, Expression<?>[] expressions) {
+		if (!parser.isActive())
+			return;
+		PendingFolds pending = parser.getData(PendingFolds.class);
+		if (pending.folded.isEmpty())
+			return;
+		int count = 0;
+		for (Expression<?> expression : expressions)
+			count += take(pending, expression);
+		if (element instanceof Expression<?> expression && pending.folded.contains(expression))
+			count = 1;
+		if (count > 0)
+			pending.counts.put(element, count);
+	}
+
+	private static int take(PendingFolds pending, @Nullable Expression<?> expression) {
+		if (expression == null)
+			return 0;
+		if (pending.folded.contains(expression)) {
+			pending.counts.remove(expression);
+			return 1;
+		}
+		Integer count = pending.counts.remove(expression);
+		if (count != null)
+			return count;
+		if (expression instanceof ExpressionList<?> list) {
+			int sum = 0;
+			for (Expression<?> child : list.getExpressions())
+				sum += take(pending, child);
+			return sum;
+		}
+		Expression<?> source = expression.getSource();
+		return source != expression ? take(pending, source) : 0;
+	}
+
+	/**
+	 * Counts the folded expressions used by a statement that has been loaded into a trigger.
+	 * Folded expressions of elements that were discarded are dropped once no section is being loaded.
+	 * @param parser The parser that parsed the statement
+	 * @param statement The statement
+	 */
+	public static void kept(ParserInstance parser, TriggerItem statement) {
+		if (!parser.isActive())
+			return;
+		PendingFolds pending = parser.getData(PendingFolds.class);
+		Integer count = pending.counts.remove(statement);
+		if (count != null)
+			parser.getCurrentScript().getData(FoldedCount.class, FoldedCount::new).count.addAndGet(count);
+		if (parser.getCurrentSections().isEmpty()) {
+			pending.folded.clear();
+			pending.counts.clear();
+		}
+	}
+
+	/**
+	 * Returns how many expressions of the given script have been folded since this was last called, and resets the count.
+	 * @param script The script
+	 * @return The number of folded expressions
+	 */
+	public static int takeFoldedCount(Script script) {
+		FoldedCount count = script.getData(FoldedCount.class);
+		if (count == null)
+			return 0;
+		script.removeData(FoldedCount.class);
+		return count.count.get();
+	}
+
+}
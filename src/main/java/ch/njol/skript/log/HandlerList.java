@@ -1,7 +1,8 @@
 package ch.njol.skript.log;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
-import java.util.LinkedList;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -10,7 +11,11 @@ import org.jetbrains.annotations.Nullable;
  */
 public class HandlerList implements Iterable<LogHandler> {
 	
-	private final LinkedList<LogHandler> list = new LinkedList<>();
+	/**
+	 * The active handlers, most recently started first.
+	 * Handlers are started and stopped for every parse attempt, thus an array is used to not allocate a node for each.
+	 */
+	private final Deque<LogHandler> list = new ArrayDeque<>();
 	
 	public void add(LogHandler h) {
 		list.addFirst(h);
@@ -20,9 +20,17 @@ public class LogEntry {
 	@Nullable
 	public final Node node;
 
-	private final String from;
 	private final boolean tracked;
 
+	/**
+	 * Whether the caller has been looked up, which is only done for tracked entries and when debugging.
+	 */
+	private final boolean hasCaller;
+	@Nullable
+	private final StackWalker.StackFrame caller;
+	@Nullable
+	private String from;
+
 	private static final String CONFIG_NODE = "skript command.reload";
 	private static final ArgsMessage WARNING_LINE_INFO = new ArgsMessage(CONFIG_NODE + ".warning line info");
 	private static final ArgsMessage ERROR_LINE_INFO = new ArgsMessage(CONFIG_NODE + ".error line info");
@@ -61,24 +69,43 @@ public class LogEntry {
 		this.message = message;
 		this.node = node;
 		this.tracked = tracked;
-		from = tracked || Skript.debug() ? findCaller() : "";
+		hasCaller = tracked || Skript.debug();
+		// only the frame is kept, it is converted to a string if this entry is ever printed
+		caller = hasCaller ? findCallerFrame() : null;
 	}
 
 	private static final String skriptLogPackageName = "" + SkriptLogger.class.getPackage().getName();
 
+	private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
 	static String findCaller() {
-		StackTraceElement[] es = new Exception().getStackTrace();
-		for (int i = 0; i < es.length; i++) {
-			if (!es[i].getClassName().startsWith(skriptLogPackageName))
-				continue;
-			i++;
-			while (i < es.length - 1 && (es[i].getClassName().startsWith(skriptLogPackageName) || es[i].getClassName().equals(Skript.class.getName())))
-				i++;
-			if (i >= es.length)
-				i = es.length - 1;
-			return " (from " + es[i] + ")";
-		}
-		return " (from an unknown source)";
+		return describeCaller(findCallerFrame());
+	}
+
+	/**
+	 * Walks only as many frames as needed to find the first frame outside of the logging classes and {@link Skript}
+	 * that follows a frame of the logging classes.
+	 */
+	@Nullable
+	private static StackWalker.StackFrame findCallerFrame() {
+		return STACK_WALKER.walk(frames -> frames
+			.dropWhile(frame -> !frame.getClassName().startsWith(skriptLogPackageName))
+			.dropWhile(frame -> frame.getClassName().startsWith(skriptLogPackageName) || frame.getClassName().equals(Skript.class.getName()))
+			.findFirst()
+			.orElse(null));
+	}
+
+	private static String describeCaller(@Nullable StackWalker.StackFrame frame) {
+		return frame == null ? " (from an unknown source)" : " (from " + frame.toStackTraceElement() + ")";
+	}
+
+	private String getFrom() {
+		if (!hasCaller)
+			return "";
+		String from = this.from;
+		if (from == null)
+			this.from = from = describeCaller(caller);
+		return from;
 	}
 
 	public Level getLevel() {
@@ -98,13 +125,13 @@ public class LogEntry {
 	void discarded(String info) {
 		used = true;
 		if (tracked)
-			SkriptLogger.LOGGER.warning(" # LogEntry '" + message + "'" + from + " discarded" + findCaller() + "; " + (new Exception()).getStackTrace()[1] + "; " + info);
+			SkriptLogger.LOGGER.warning(" # LogEntry '" + message + "'" + getFrom() + " discarded" + findCaller() + "; " + (new Exception()).getStackTrace()[1] + "; " + info);
 	}
 
 	void logged() {
 		used = true;
 		if (tracked)
-			SkriptLogger.LOGGER.warning(" # LogEntry '" + message + "'" + from + " logged" + findCaller());
+			SkriptLogger.LOGGER.warning(" # LogEntry '" + message + "'" + getFrom() + " logged" + findCaller());
 	}
 
 	@Override
@@ -113,7 +140,7 @@ public class LogEntry {
 			return message;
 
 		Config c = node.getConfig();
-		return message + from + " (" + c.getFileName() + ", line " + node.getLine() + ": " + node.save().trim() + "')";
+		return message + getFrom() + " (" + c.getFileName() + ", line " + node.getLine() + ": " + node.save().trim() + "')";
 	}
 
 	public String toFormattedString() {
@@ -140,7 +167,7 @@ public class LogEntry {
 			return String.format(detailsMsg.replaceAll("^\\s+", ""), message); // Remove line beginning spaces
 
 		Config c = node.getConfig();
-		String from = this.from;
+		String from = getFrom();
 
 		if (!from.isEmpty())
 			from = ChatColor.GRAY + "   " + from + "\n";
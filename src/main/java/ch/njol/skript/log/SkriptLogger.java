@@ -100,11 +100,12 @@ public abstract class SkriptLogger {
 	
 	@Nullable
 	static StackTraceElement getCaller() {
-		for (StackTraceElement e : new Exception().getStackTrace()) {
-			if (!e.getClassName().startsWith(SkriptLogger.class.getPackage().getName()))
-				return e;
-		}
-		return null;
+		String logPackage = SkriptLogger.class.getPackage().getName();
+		return StackWalker.getInstance().walk(frames -> frames
+			.filter(frame -> !frame.getClassName().startsWith(logPackage))
+			.findFirst()
+			.map(StackWalker.StackFrame::toStackTraceElement)
+			.orElse(null));
 	}
 	
 	public static void setVerbosity(Verbosity v) {
@@ -3,6 +3,7 @@ package ch.njol.skript.patterns;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableSet;
 import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -26,6 +27,13 @@ abstract class Keyword {
 	 */
 	abstract boolean isPresent(String expr);
 
+	/**
+	 * Determines the characters an expression must start with for this keyword to be {@link #isPresent(String) present}.
+	 * @return The characters one of which the expression must start with,
+	 * 	or null if this keyword does not restrict the start of the expression.
+	 */
+	abstract @Nullable String getStartCharacters();
+
 	/**
 	 * Builds a list of keywords starting from the provided pattern element.
 	 * @param first The pattern to build keywords from.
@@ -99,6 +107,11 @@ abstract class Keyword {
 			return expr.contains(keyword);
 		}
 
+		@Override
+		@Nullable String getStartCharacters() {
+			return starting ? keyword.substring(0, 1) : null;
+		}
+
 		@Override
 		public int hashCode() {
 			return Objects.hash(keyword, starting, ending);
@@ -143,6 +156,24 @@ abstract class Keyword {
 			return choices.stream().anyMatch(keywords -> keywords.stream().allMatch(keyword -> keyword.isPresent(expr)));
 		}
 
+		@Override
+		@Nullable String getStartCharacters() {
+			// the expression must start with the start of one of the choices, if every choice restricts it
+			StringBuilder startCharacters = new StringBuilder();
+			choicesLoop:
+			for (Set<Keyword> keywords : choices) {
+				for (Keyword keyword : keywords) {
+					String characters = keyword.getStartCharacters();
+					if (characters != null) {
+						startCharacters.append(characters);
+						continue choicesLoop;
+					}
+				}
+				return null;
+			}
+			return startCharacters.toString();
+		}
+
 		@Override
 		public int hashCode() {
 			return Arrays.hashCode(choices.toArray());
@@ -17,18 +17,54 @@ public class SkriptPattern {
 
 	private final Keyword[] keywords;
 	@Nullable
+	private final String startCharacters;
+	@Nullable
 	private List<TypePatternElement> types;
 
 	public SkriptPattern(PatternElement first, int expressionAmount) {
 		this.first = first;
 		this.expressionAmount = expressionAmount;
 		keywords = Keyword.buildKeywords(first);
+
+		String startCharacters = null;
+		for (Keyword keyword : keywords) {
+			startCharacters = keyword.getStartCharacters();
+			if (startCharacters != null)
+				break;
+		}
+		this.startCharacters = startCharacters;
+	}
+
+	/**
+	 * Gets the characters the lowercase version of an expression must start with for this pattern to match it,
+	 * as determined by its keywords. This allows skipping the pattern without even trying to match it.
+	 *
+	 * @return The characters one of which a matching expression starts with (ignoring case),
+	 * 	or null if the pattern does not restrict the start of an expression.
+	 */
+	@Nullable
+	public String getStartCharacters() {
+		return startCharacters;
 	}
 
 	@Nullable
 	public MatchResult match(String expr, int flags, ParseContext parseContext) {
-		// Matching shortcut
-		String lowerExpr = expr.toLowerCase(Locale.ENGLISH);
+		return match(expr, expr.toLowerCase(Locale.ENGLISH), flags, parseContext);
+	}
+
+	/**
+	 * Matches the given expression against this pattern.
+	 *
+	 * @param expr The expression to match
+	 * @param lowerExpr The expression in lowercase, see {@link String#toLowerCase(Locale)} with {@link Locale#ENGLISH}.
+	 *                  Useful to not lowercase an expression again for every pattern it is matched against.
+	 * @return The result of the match, or null if the expression does not match.
+	 */
+	@Nullable
+	public MatchResult match(String expr, String lowerExpr, int flags, ParseContext parseContext) {
+		// Matching shortcuts
+		if (startCharacters != null && (lowerExpr.isEmpty() || startCharacters.indexOf(lowerExpr.charAt(0)) == -1))
+			return null;
 		for (Keyword keyword : keywords) {
 			if (!keyword.isPresent(lowerExpr))
 				return null;
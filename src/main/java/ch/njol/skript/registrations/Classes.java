@@ -11,12 +11,16 @@ import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import ch.njol.skript.command.Commands;
@@ -66,9 +70,25 @@ public abstract class Classes {
 	private static ClassInfo<?>[] classInfos = null;
 	private final static List<ClassInfo<?>> tempClassInfos = new ArrayList<>();
 	private final static HashMap<Class<?>, ClassInfo<?>> exactClassInfos = new HashMap<>();
-	private final static HashMap<Class<?>, ClassInfo<?>> superClassInfos = new HashMap<>();
+	/**
+	 * The class info of each class or its closest registered superclass, see {@link #getSuperClassInfo(Class)}.
+	 * Only used once registrations have stopped, as the class infos may not change afterwards.
+	 * Unlike a map, this may be read and filled by several threads at once, e.g. when scripts are loaded in parallel.
+	 */
+	private final static ClassValue<ClassInfo<?>> superClassInfos = new ClassValue<>() {
+		@Override
+		protected ClassInfo<?> computeValue(Class<?> type) {
+			return findSuperClassInfo(type);
+		}
+	};
 	private final static HashMap<String, ClassInfo<?>> classInfosByCodeName = new HashMap<>();
 
+	/**
+	 * The class infos whose parser converts instances of a class to strings, see {@link #getToStringClassInfo(Class)}.
+	 * Classes without one are mapped to an empty optional.
+	 */
+	private final static Map<Class<?>, Optional<ClassInfo<?>>> toStringClassInfos = new ConcurrentHashMap<>();
+
 	/**
 	 * @param info info about the class to register
 	 */
@@ -291,15 +311,15 @@ public abstract class Classes {
 	public static <T> ClassInfo<? super T> getSuperClassInfo(final Class<T> c) {
 		assert c != null;
 		checkAllowClassInfoInteraction();
-		final ClassInfo<?> i = superClassInfos.get(c);
-		if (i != null)
-			return (ClassInfo<? super T>) i;
+		if (Skript.isAcceptRegistrations())
+			return (ClassInfo<? super T>) findSuperClassInfo(c);
+		return (ClassInfo<? super T>) superClassInfos.get(c);
+	}
+
+	private static ClassInfo<?> findSuperClassInfo(Class<?> c) {
 		for (final ClassInfo<?> ci : getClassInfos()) {
-			if (ci.getC().isAssignableFrom(c)) {
-				if (!Skript.isAcceptRegistrations())
-					superClassInfos.put(c, ci);
-				return (ClassInfo<? super T>) ci;
-			}
+			if (ci.getC().isAssignableFrom(c))
+				return ci;
 		}
 		assert false;
 		return null;
@@ -444,6 +464,86 @@ public abstract class Classes {
 		return ci == null ? null : ci.getCodeName();
 	}
 
+	/**
+	 * The parsers that are tried to parse strings to a class in a parse context, see {@link #getParserChain(Class, ParseContext)}.
+	 */
+	private final static Map<ParseContext, Map<Class<?>, ParserChain>> parserChains = new EnumMap<>(ParseContext.class);
+
+	static {
+		for (final ParseContext context : ParseContext.values())
+			parserChains.put(context, new ConcurrentHashMap<>());
+	}
+
+	/**
+	 * The parsers that can parse a string to a class, in the order they are tried by {@link #parse(String, Class, ParseContext)}.
+	 *
+	 * @param parsers The parsers of the class infos whose class is a subclass of the desired class
+	 * @param converted The parsers of the classes that can be converted to the desired class
+	 */
+	private record ParserChain(Parser<?>[] parsers, ConvertedParsers[] converted) {}
+
+	/**
+	 * @param converter The converter to the desired class
+	 * @param parsers The parsers of the class infos whose class is a subclass of the converter's source class
+	 */
+	private record ConvertedParsers(Converter<?, ?> converter, Parser<?>[] parsers) {}
+
+	/**
+	 * Gets the parsers used to parse strings to the given class in the given context.
+	 * As class infos and converters cannot change once registration has finished, the result is cached from then on,
+	 * so that the class infos and converters don't have to be searched again every time a string is parsed.
+	 *
+	 * @param c The desired class
+	 * @param context The parse context
+	 * @return The parsers for the class, which may be empty
+	 */
+	private static ParserChain getParserChain(final Class<?> c, final ParseContext context) {
+		final Map<Class<?>, ParserChain> chains = parserChains.get(context);
+		final ParserChain cached = chains.get(c);
+		if (cached != null)
+			return cached;
+		final List<ConvertedParsers> converted = new ArrayList<>();
+		for (final ConverterInfo<?, ?> conv : Converters.getConverterInfos()) {
+			if ((context == ParseContext.COMMAND || context == ParseContext.PARSE) && (conv.getFlags() & Commands.CONVERTER_NO_COMMAND_ARGUMENTS) != 0)
+				continue;
+			if (!c.isAssignableFrom(conv.getTo()))
+				continue;
+			final Parser<?>[] parsers = getParsers(conv.getFrom(), context);
+			if (parsers.length > 0)
+				converted.add(new ConvertedParsers(conv.getConverter(), parsers));
+		}
+		final ParserChain chain = new ParserChain(getParsers(c, context), converted.toArray(new ConvertedParsers[0]));
+		if (!Skript.isAcceptRegistrations())
+			chains.put(c, chain);
+		return chain;
+	}
+
+	private static Parser<?>[] getParsers(final Class<?> c, final ParseContext context) {
+		final List<Parser<?>> parsers = new ArrayList<>();
+		for (final ClassInfo<?> info : getClassInfos()) {
+			final Parser<?> parser = info.getParser();
+			if (parser != null && parser.canParse(context) && c.isAssignableFrom(info.getC()))
+				parsers.add(parser);
+		}
+		return parsers.toArray(new Parser[0]);
+	}
+
+	/**
+	 * Tries the given parsers in order, clearing the log before each attempt.
+	 *
+	 * @return The first object parsed, or null if no parser could parse the string
+	 */
+	@Nullable
+	private static Object parse(final String s, final Parser<?>[] parsers, final ParseContext context, final ParseLogHandler log) {
+		for (final Parser<?> parser : parsers) {
+			log.clear();
+			final Object o = parser.parse(s, context);
+			if (o != null)
+				return o;
+		}
+		return null;
+	}
+
 	/**
 	 * Parses without trying to convert anything.
 	 * <p>
@@ -453,21 +553,18 @@ public abstract class Classes {
 	 * @param c
 	 * @return The parsed object
 	 */
+	@SuppressWarnings("unchecked")
 	@Nullable
 	public static <T> T parseSimple(final String s, final Class<T> c, final ParseContext context) {
+		final ParserChain chain = getParserChain(c, context);
+		if (chain.parsers().length == 0) // nothing would be logged
+			return null;
 		final ParseLogHandler log = SkriptLogger.startParseLogHandler();
 		try {
-			for (final ClassInfo<?> info : getClassInfos()) {
-				final Parser<?> parser = info.getParser();
-				if (parser == null || !parser.canParse(context) || !c.isAssignableFrom(info.getC()))
-					continue;
-				log.clear();
-				@SuppressWarnings("unchecked")
-				final T t = (T) parser.parse(s, context);
-				if (t != null) {
-					log.printLog();
-					return t;
-				}
+			final T t = (T) parse(s, chain.parsers(), context, log);
+			if (t != null) {
+				log.printLog();
+				return t;
 			}
 			log.printError();
 		} finally {
@@ -490,25 +587,24 @@ public abstract class Classes {
 	@SuppressWarnings({"rawtypes", "unchecked"})
 	@Nullable
 	public static <T> T parse(final String s, final Class<T> c, final ParseContext context) {
+		final ParserChain chain = getParserChain(c, context);
+		if (chain.parsers().length == 0 && chain.converted().length == 0) // nothing would be logged
+			return null;
+		// a single log handler is used for all attempts, errors of failed attempts are only kept until the next attempt
 		final ParseLogHandler log = SkriptLogger.startParseLogHandler();
 		try {
-			T t = parseSimple(s, c, context);
+			T t = (T) parse(s, chain.parsers(), context, log);
 			if (t != null) {
 				log.printLog();
 				return t;
 			}
-			for (final ConverterInfo<?, ?> conv : Converters.getConverterInfos()) {
-				if ((context == ParseContext.COMMAND || context == ParseContext.PARSE) && (conv.getFlags() & Commands.CONVERTER_NO_COMMAND_ARGUMENTS) != 0)
-					continue;
-				if (c.isAssignableFrom(conv.getTo())) {
-					log.clear();
-					Object object = parseSimple(s, conv.getFrom(), context);
-					if (object != null) {
-						t = (T) ((Converter) conv.getConverter()).convert(object);
-						if (t != null) {
-							log.printLog();
-							return t;
-						}
+			for (final ConvertedParsers converted : chain.converted()) {
+				final Object object = parse(s, converted.parsers(), context, log);
+				if (object != null) {
+					t = (T) ((Converter) converted.converter()).convert(object);
+					if (t != null) {
+						log.printLog();
+						return t;
 					}
 				}
 			}
@@ -634,19 +730,43 @@ public abstract class Classes {
 			}
 			return "[" + b.toString() + "]";
 		}
-		for (final ClassInfo<?> ci : getClassInfos()) {
+		final ClassInfo<?> ci = getToStringClassInfo(o.getClass());
+		if (ci != null) {
 			final Parser<?> parser = ci.getParser();
-			if (parser != null && ci.getC().isInstance(o)) {
-				@SuppressWarnings("unchecked")
-				final String s = mode == StringMode.MESSAGE ? ((Parser<T>) parser).toString(o, flags)
-						: mode == StringMode.DEBUG ? "[" + ci.getCodeName() + ":" + ((Parser<T>) parser).toString(o, mode) + "]"
-								: ((Parser<T>) parser).toString(o, mode);
-				return s;
-			}
+			assert parser != null;
+			@SuppressWarnings("unchecked")
+			final String s = mode == StringMode.MESSAGE ? ((Parser<T>) parser).toString(o, flags)
+					: mode == StringMode.DEBUG ? "[" + ci.getCodeName() + ":" + ((Parser<T>) parser).toString(o, mode) + "]"
+							: ((Parser<T>) parser).toString(o, mode);
+			return s;
 		}
 		return mode == StringMode.VARIABLE_NAME ? "object:" + o : "" + o;
 	}
 
+	/**
+	 * Gets the first class info with a parser whose class is a superclass of the given class,
+	 * which is used to convert instances of the given class to strings.
+	 * The result is cached per class, so that the class infos only have to be searched once.
+	 *
+	 * @param c The class of the object to convert to a string
+	 * @return The class info, or null if no class info with a parser matches the class
+	 */
+	private static @Nullable ClassInfo<?> getToStringClassInfo(final Class<?> c) {
+		final Optional<ClassInfo<?>> cached = toStringClassInfos.get(c);
+		if (cached != null)
+			return cached.orElse(null);
+		ClassInfo<?> found = null;
+		for (final ClassInfo<?> ci : getClassInfos()) {
+			if (ci.getParser() != null && ci.getC().isAssignableFrom(c)) {
+				found = ci;
+				break;
+			}
+		}
+		if (!Skript.isAcceptRegistrations())
+			toStringClassInfos.put(c, Optional.ofNullable(found));
+		return found;
+	}
+
 	public static String toString(final Object[] os, final int flags, final boolean and) {
 		return toString(os, and, null, StringMode.MESSAGE, flags);
 	}
@@ -711,15 +831,42 @@ public abstract class Classes {
 	}
 
 	/**
-	 * Must be called on the appropriate thread for the given value (i.e. the main thread currently)
+	 * Takes a snapshot of the given value that may be passed to {@link #serialize(Object)} from any thread,
+	 * i.e. converts it to the class it is serialised as and copies it using its class's {@link ClassInfo#clone(Object) cloner}.
+	 * <p>
+	 * Must be called from Bukkit's main thread.
+	 *
+	 * @return The snapshot, or null if the value's serializer is not {@link Serializer#canSerializeAsync() thread-safe}
+	 * 			and the value must thus be serialised on the main thread.
+	 */
+	@Nullable
+	public static Object snapshotForSerialization(Object object) {
+		assert Bukkit.isPrimaryThread();
+
+		ClassInfo<?> classInfo = getSuperClassInfo(object.getClass());
+		if (classInfo.getSerializeAs() != null) {
+			classInfo = getExactClassInfo(classInfo.getSerializeAs());
+			if (classInfo == null)
+				return null;
+			object = Converters.convert(object, classInfo.getC());
+			if (object == null)
+				return null;
+		}
+
+		Serializer<?> serializer = classInfo.getSerializer();
+		if (serializer == null || !serializer.canSerializeAsync())
+			return null;
+		return clone(object);
+	}
+
+	/**
+	 * Must be called on the appropriate thread for the given value, i.e. Bukkit's main thread unless the value is a
+	 * {@link #snapshotForSerialization(Object) snapshot} of a value whose serializer can serialise asynchronously.
 	 */
 	public static SerializedVariable.@Nullable Value serialize(@Nullable Object object) {
 		if (object == null)
 			return null;
 
-		// temporary
-		assert Bukkit.isPrimaryThread();
-		
 		ClassInfo<?> classInfo = getSuperClassInfo(object.getClass());
 		if (classInfo.getSerializeAs() != null) {
 			classInfo = getExactClassInfo(classInfo.getSerializeAs());
@@ -738,7 +885,7 @@ public abstract class Classes {
 		if (serializer == null) // value cannot be saved
 			return null;
 		
-		assert !serializer.mustSyncDeserialization() || Bukkit.isPrimaryThread();
+		assert serializer.canSerializeAsync() || Bukkit.isPrimaryThread();
 		
 		try {
 			ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
@@ -755,8 +902,9 @@ public abstract class Classes {
 			byte[] byteArrayCopy = new byte[byteArray.length - start.length];
 			System.arraycopy(byteArray, start.length, byteArrayCopy, 0, byteArrayCopy.length);
 
-			Object deserialized;
-			assert equals(object,
+			// the check below may only deserialise on the main thread if the serializer requires it
+			Object deserialized = null;
+			assert serializer.mustSyncDeserialization() && !Bukkit.isPrimaryThread() || equals(object,
 				deserialized = deserialize(classInfo, new ByteArrayInputStream(byteArrayCopy)))
 				: object + " (" + object.getClass() + ") != " + deserialized + " ("
 				+ (deserialized == null ? null : deserialized.getClass()) + "): " + Arrays.toString(byteArray);
@@ -2,6 +2,10 @@ package ch.njol.skript.registrations;
 
 import ch.njol.skript.Skript;
 import ch.njol.skript.expressions.base.EventValueExpression;
+import ch.njol.skript.log.BlockingLogHandler;
+import ch.njol.skript.log.LogEntry;
+import ch.njol.skript.log.ParseLogHandler;
+import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.util.Getter;
 import ch.njol.util.Kleenean;
 import com.google.common.collect.ImmutableList;
@@ -9,6 +13,7 @@ import org.bukkit.event.Event;
 import org.jetbrains.annotations.Nullable;
 import org.skriptlang.skript.lang.converter.Converter;
 import org.skriptlang.skript.lang.converter.Converters;
+import org.skriptlang.skript.util.ClassPairCache;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -56,6 +61,52 @@ public class EventValues {
 		throw new IllegalArgumentException("time must be -1, 0, or 1");
 	}
 
+	/**
+	 * The converters resolved by {@link #getEventValueConverter(Class, Class, int)} per event class and value class,
+	 * for the times {@link #TIME_PAST}, {@link #TIME_NOW} and {@link #TIME_FUTURE} in this order.
+	 * They are only used once registrations have stopped, and are replaced if an event value is registered later on, e.g. by tests.
+	 */
+	private static volatile List<ClassPairCache<ResolvedConverter>> resolvedConverters = createResolvedConverters();
+
+	/**
+	 * @param converter The converter resolved for an event class and value class, or null if there is none
+	 * @param error The error printed while resolving the converter, e.g. as the event value is excluded for the event,
+	 *              which is printed again whenever the converter is looked up
+	 */
+	private record ResolvedConverter(@Nullable Converter<?, ?> converter, @Nullable String error) {}
+
+	private static List<ClassPairCache<ResolvedConverter>> createResolvedConverters() {
+		List<ClassPairCache<ResolvedConverter>> caches = new ArrayList<>(3);
+		for (int time = TIME_PAST; time <= TIME_FUTURE; time++) {
+			int finalTime = time;
+			caches.add(new ClassPairCache<>((event, type) -> resolveConverter(event, type, finalTime)));
+		}
+		return caches;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static ResolvedConverter resolveConverter(Class<?> event, Class<?> type, int time) {
+		try (ParseLogHandler log = SkriptLogger.startParseLogHandler()) {
+			Converter<?, ?> converter = getEventValueConverter((Class) event, type, time, true);
+			LogEntry error = log.getError();
+			log.printLog();
+			return new ResolvedConverter(converter, error == null ? null : error.getMessage());
+		}
+	}
+
+	/**
+	 * Resolves the converters of all registered event values for their events in advance,
+	 * so that loading scripts only has to look them up.
+	 */
+	public static void onRegistrationsStop() {
+		try (BlockingLogHandler ignored = new BlockingLogHandler().start()) {
+			for (int time = TIME_PAST; time <= TIME_FUTURE; time++) {
+				for (EventValueInfo<?, ?> info : getEventValuesList(time))
+					getEventValueConverter(info.event, info.c, time);
+			}
+		}
+	}
+
 	/**
 	 * Registers an event value, specified by the provided {@link Converter}, with excluded events.
 	 * Uses the default time, {@link #TIME_NOW}.
@@ -119,10 +170,17 @@ public class EventValues {
 			// If the events match, we prefer the highest subclass type.
 			if (!info.event.equals(event) ? info.event.isAssignableFrom(event) : info.c.isAssignableFrom(type)) {
 				eventValues.add(i, element);
+				onRegistered();
 				return;
 			}
 		}
 		eventValues.add(element);
+		onRegistered();
+	}
+
+	private static void onRegistered() {
+		if (!Skript.isAcceptRegistrations()) // the resolved converters may be outdated now
+			resolvedConverters = createResolvedConverters();
 	}
 
 	/**
@@ -257,10 +315,19 @@ public class EventValues {
 	 * @see #registerEventValue(Class, Class, Converter, int)
 	 * @see EventValueExpression#EventValueExpression(Class)
 	 */
+	@SuppressWarnings("unchecked")
 	public static <T, E extends Event> @Nullable Converter<? super E, ? extends T> getEventValueConverter(
 		Class<E> event, Class<T> type, int time
 	) {
-		return getEventValueConverter(event, type, time, true);
+		if (Skript.isAcceptRegistrations())
+			return getEventValueConverter(event, type, time, true);
+		if (time < TIME_PAST || time > TIME_FUTURE)
+			throw new IllegalArgumentException("time must be -1, 0, or 1");
+		ResolvedConverter resolved = resolvedConverters.get(time - TIME_PAST).get(event, type);
+		assert resolved != null;
+		if (resolved.error() != null)
+			Skript.error(resolved.error());
+		return (Converter<? super E, ? extends T>) resolved.converter();
 	}
 
 	@Nullable
@@ -75,13 +75,23 @@ public class SecLoop extends LoopSection {
 
 	protected @UnknownNullability Expression<?> expression;
 
-	private final transient Map<Event, Object> current = new WeakHashMap<>();
-	private final transient Map<Event, Iterator<?>> iteratorMap = new WeakHashMap<>();
-	private final transient Map<Event, Object> previous = new WeakHashMap<>();
+	/**
+	 * The state of one execution of a loop over values.
+	 */
+	private static class IterationState extends LoopState {
+
+		private @Nullable Iterator<?> iterator;
+		private @Nullable Object current;
+		private @Nullable Object previous;
+		/**
+		 * A value taken from the iterator to peek at it, which is the next value to loop
+		 */
+		private @Nullable Object nextValue;
+
+	}
 
 	protected @Nullable TriggerItem actualNext;
 	private boolean guaranteedToLoop;
-	private Object nextValue = null;
 	private boolean loopPeeking;
 	protected boolean iterableSingle;
 
@@ -124,9 +134,15 @@ public class SecLoop extends LoopSection {
 		return true;
 	}
 
+	@Override
+	protected LoopState newLoopState() {
+		return new IterationState();
+	}
+
 	@Override
 	protected @Nullable TriggerItem walk(Event event) {
-		Iterator<?> iter = iteratorMap.get(event);
+		IterationState state = (IterationState) getOrCreateLoopState(event);
+		Iterator<?> iter = state.iterator;
 		if (iter == null) {
 			if (iterableSingle) {
 				Object value = expression.getSingle(event);
@@ -142,22 +158,23 @@ public class SecLoop extends LoopSection {
 				iter = expression instanceof Variable<?> variable ? variable.variablesIterator(event) :
 					expression.iterator(event);
 				if (iter != null && iter.hasNext()) {
-					iteratorMap.put(event, iter);
+					state.iterator = iter;
 				} else {
 					iter = null;
 				}
 			}
 		}
 
-		if (iter == null || (!iter.hasNext() && nextValue == null)) {
+		if (iter == null || (!iter.hasNext() && state.nextValue == null)) {
 			exit(event);
 			debug(event, false);
 			return actualNext;
 		} else {
-			previous.put(event, current.get(event));
+			state.previous = state.current;
+			Object nextValue = state.nextValue;
 			if (nextValue != null) {
+				state.nextValue = null;
 				this.store(event, nextValue);
-				nextValue = null;
 			} else if (iter.hasNext()) {
 				this.store(event, iter.next());
 			}
@@ -166,8 +183,9 @@ public class SecLoop extends LoopSection {
 	}
 
 	protected void store(Event event, Object next) {
-		this.current.put(event, next);
-		this.currentLoopCounter.put(event, (currentLoopCounter.getOrDefault(event, 0L)) + 1);
+		IterationState state = (IterationState) getOrCreateLoopState(event);
+		state.current = next;
+		state.counter++;
 	}
 
 	@Override
@@ -181,23 +199,30 @@ public class SecLoop extends LoopSection {
 	}
 
 	public @Nullable Object getCurrent(Event event) {
-		return current.get(event);
+		IterationState state = (IterationState) getLoopState(event);
+		return state == null ? null : state.current;
 	}
 
 	public @Nullable Object getNext(Event event) {
 		if (!loopPeeking)
 			return null;
-		Iterator<?> iter = iteratorMap.get(event);
+		IterationState state = (IterationState) getLoopState(event);
+		if (state == null)
+			return null;
+		if (state.nextValue != null) // already peeked
+			return state.nextValue;
+		Iterator<?> iter = state.iterator;
 		if (iter == null || !iter.hasNext())
 			return null;
 		if (iter instanceof PeekingIterator<?> peekingIterator)
 			return peekingIterator.peek();
-		nextValue = iter.next();
-		return nextValue;
+		state.nextValue = iter.next();
+		return state.nextValue;
 	}
 
 	public @Nullable Object getPrevious(Event event) {
-		return previous.get(event);
+		IterationState state = (IterationState) getLoopState(event);
+		return state == null ? null : state.previous;
 	}
 
 	public Expression<?> getLoopedExpression() {
@@ -216,14 +241,6 @@ public class SecLoop extends LoopSection {
 		return actualNext;
 	}
 
-	@Override
-	public void exit(Event event) {
-		current.remove(event);
-		iteratorMap.remove(event);
-		previous.remove(event);
-		super.exit(event);
-	}
-
 	private static boolean guaranteedToLoop(Expression<?> expression) {
 		// If the expression is a literal, it's guaranteed to loop if it has at least one value
 		if (expression instanceof Literal<?> literal)
@@ -46,7 +46,6 @@ public class SecWhile extends LoopSection {
 	private TriggerItem actualNext;
 
 	private boolean doWhile;
-	private boolean ranDoWhile = false;
 
 	@Override
 	public boolean init(Expression<?>[] exprs,
@@ -70,9 +69,10 @@ public class SecWhile extends LoopSection {
 	@Nullable
 	@Override
 	protected TriggerItem walk(Event event) {
-		if ((doWhile && !ranDoWhile) || condition.check(event)) {
-			ranDoWhile = true;
-			currentLoopCounter.put(event, (currentLoopCounter.getOrDefault(event, 0L)) + 1);
+		LoopState state = getOrCreateLoopState(event);
+		// the body of a do-while loop is run once before the condition is checked
+		if ((doWhile && state.counter == 0) || condition.check(event)) {
+			state.counter++;
 			return walk(event, true);
 		} else {
 			exit(event);
@@ -102,10 +102,4 @@ public class SecWhile extends LoopSection {
 		return (doWhile ? "do " : "") + "while " + condition.toString(event, debug);
 	}
 
-	@Override
-	public void exit(Event event) {
-		ranDoWhile = false;
-		super.exit(event);
-	}
-
 }
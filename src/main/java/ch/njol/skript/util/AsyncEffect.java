@@ -8,9 +8,9 @@ import ch.njol.skript.Skript;
 import ch.njol.skript.effects.Delay;
 import ch.njol.skript.lang.Effect;
 import ch.njol.skript.lang.Trigger;
+import ch.njol.skript.lang.TriggerFrame;
 import ch.njol.skript.lang.TriggerItem;
 import ch.njol.skript.timings.SkriptTimings;
-import ch.njol.skript.variables.Variables;
 
 /**
  * Effects that extend this class are ran asynchronously. Next trigger item will be ran
@@ -28,18 +28,13 @@ public abstract class AsyncEffect extends Effect {
 	protected TriggerItem walk(Event e) {
 		debug(e, true);
 		
-		Delay.addDelayedEvent(e); // Mark this event as delayed
-		Object localVars = Variables.removeLocals(e); // Back up local variables
+		TriggerFrame frame = Delay.delayExecution(e); // Mark this event as delayed, taking the local variables along
 
 		if (!Skript.getInstance().isEnabled()) // See https://github.com/SkriptLang/Skript/issues/3702
 			return null;
 
 		Bukkit.getScheduler().runTaskAsynchronously(Skript.getInstance(), () -> {
-			// Re-set local variables
-			if (localVars != null)
-				Variables.setLocalVariables(e, localVars);
-			
-			execute(e); // Execute this effect
+			frame.run(() -> execute(e)); // Execute this effect
 			
 			if (getNext() != null) {
 				Bukkit.getScheduler().runTask(Skript.getInstance(), () -> { // Walk to next item synchronously
@@ -51,14 +46,10 @@ public abstract class AsyncEffect extends Effect {
 						}
 					}
 					
-					TriggerItem.walk(getNext(), e);
-					
-					Variables.removeLocals(e); // Clean up local vars, we may be exiting now
+					TriggerItem.walk(getNext(), frame);
 					
 					SkriptTimings.stop(timing); // Stop timing if it was even started
 				});
-			} else {
-				Variables.removeLocals(e);
 			}
 		});
 		return null;
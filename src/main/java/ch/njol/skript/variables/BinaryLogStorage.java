@@ -0,0 +1,591 @@
+package ch.njol.skript.variables;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.config.SectionNode;
+import ch.njol.skript.lang.Variable;
+import ch.njol.skript.log.SkriptLogger;
+import ch.njol.skript.registrations.Classes;
+import ch.njol.skript.util.ExceptionUtils;
+import ch.njol.skript.util.FileUtils;
+import ch.njol.skript.util.Task;
+import ch.njol.skript.util.Timespan;
+import ch.njol.skript.variables.SerializedVariable.Value;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A variable storage that appends every change to a binary log file,
+ * and periodically compacts the log into a snapshot file containing only the latest value of each variable.
+ * <p>
+ * Unlike {@link FlatFileStorage}, saving never has to go through all variables in memory:
+ * a compaction only reads the snapshot and the log, so it neither locks nor serializes any variables.
+ * <p>
+ * The configured file is the snapshot. The log is stored next to it, with {@code .log} appended to its name.
+ * Both files consist of a header followed by changes, each of which is written as
+ * the length of the variable's name followed by its UTF-8 bytes,
+ * the length of the value's type followed by its UTF-8 bytes, or {@code -1} if the variable was deleted,
+ * and the length of the serialized value followed by its bytes, unless the variable was deleted.
+ * <p>
+ * {@link LazyBinaryStorage} uses the same files, and extends this storage to share how changes are logged and compacted.
+ */
+public class BinaryLogStorage extends VariablesStorage {
+
+	/**
+	 * The first bytes of the files of this storage, 'SKVL'.
+	 */
+	static final int MAGIC = 0x534B564C;
+
+	/**
+	 * The version of the format of the files of this storage.
+	 */
+	static final int FORMAT_VERSION = 1;
+
+	/**
+	 * The delay for the compaction task.
+	 */
+	static final long COMPACTION_TASK_DELAY = 5 * 60 * 20;
+
+	/**
+	 * The period for the compaction task, how long (in ticks) between each compaction.
+	 */
+	static final long COMPACTION_TASK_PERIOD = 5 * 60 * 20;
+
+	/**
+	 * The amount of {@link #changes} needed for a new {@link #compact(boolean) compaction}.
+	 */
+	static final int REQUIRED_CHANGES_FOR_COMPACTION = 1000;
+
+	/**
+	 * The length of the header of the files of this storage.
+	 */
+	static final int HEADER_LENGTH = 8;
+
+	/**
+	 * The amount of variable changes written to the log since the last compaction.
+	 *
+	 * @see #REQUIRED_CHANGES_FOR_COMPACTION
+	 */
+	protected final AtomicInteger changes = new AtomicInteger(0);
+
+	/**
+	 * The stream changes are appended to, or {@code null} if this storage is disconnected.
+	 * <p>
+	 * Guarded by {@link #connectionLock}.
+	 */
+	@Nullable
+	protected DataOutputStream changesStream;
+
+	/**
+	 * Guards the compaction of the files. Must be acquired before {@link #connectionLock} if both are used.
+	 */
+	protected final Object compactionLock = new Object();
+
+	/**
+	 * The compaction task.
+	 *
+	 * @see #compact(boolean)
+	 */
+	@Nullable
+	private Task compactionTask;
+
+	/**
+	 * The log the changes since the last compaction are appended to.
+	 */
+	@Nullable
+	protected File logFile;
+
+	/**
+	 * The log that is being compacted into the snapshot.
+	 * If a compaction was interrupted, it still exists and will be compacted next time.
+	 */
+	@Nullable
+	protected File compactedLogFile;
+
+	/**
+	 * Create a new binary log storage of the given name.
+	 *
+	 * @param type the database type i.e. binary.
+	 */
+	BinaryLogStorage(String type) {
+		super(type);
+	}
+
+	/**
+	 * Loads the variables in the snapshot and the logs.
+	 * <p>
+	 * Doesn't lock the connection, as required by
+	 * {@link Variables#variableLoaded(String, Object, VariablesStorage)}.
+	 */
+	@Override
+	protected boolean load_i(SectionNode sectionNode) {
+		SkriptLogger.setNode(null);
+
+		if (file == null) {
+			assert false : this;
+			return false;
+		}
+		initLogFiles();
+		assert logFile != null && compactedLogFile != null;
+
+		// The changes of the files are applied in the order they were written in,
+		//  so that only the latest value of each variable is deserialized
+		TreeMap<String, Value> variables = new TreeMap<>();
+		IOException ioException = null;
+		boolean complete = true;
+		for (File source : new File[] {file, compactedLogFile, logFile}) {
+			try {
+				complete &= readChanges(source, variables);
+			} catch (IOException e) {
+				Skript.error("An I/O error occurred while loading the variables from " + source.getName() + ": " + ExceptionUtils.toString(e));
+				ioException = e;
+			}
+		}
+
+		if (ioException != null) {
+			Skript.error("This means that some to all variables could not be loaded!");
+			// Back up the files, as they are about to be replaced by what could be read
+			for (File source : new File[] {file, compactedLogFile, logFile}) {
+				if (!source.exists())
+					continue;
+				try {
+					File backupFile = FileUtils.backup(source);
+					Skript.info("Created a backup of " + source.getName() + " as " + backupFile.getName());
+				} catch (IOException e) {
+					Skript.error("Could not backup " + source.getName() + ": " + e.getMessage());
+				}
+			}
+		}
+
+		if (ioException != null || !complete) {
+			// Changes must not be appended after an unreadable part of a log, start over from what could be read
+			try {
+				writeSnapshot(file, variables);
+				Files.deleteIfExists(compactedLogFile.toPath());
+				Files.deleteIfExists(logFile.toPath());
+			} catch (IOException e) {
+				Skript.error("Could not rewrite the database '" + getUserConfigurationName() + "': " + ExceptionUtils.toString(e));
+				return false;
+			}
+		}
+
+		// Loading may move variables to other storages, which deletes them from this one
+		if (!connect())
+			return false;
+
+		int unsuccessfulVariableCount = 0;
+		StringBuilder invalid = new StringBuilder();
+		for (Entry<String, Value> entry : variables.entrySet()) {
+			Value value = entry.getValue();
+			Object deserializedValue = Classes.deserialize(value.type, value.data);
+			if (deserializedValue == null) {
+				if (invalid.length() != 0)
+					invalid.append(", ");
+				invalid.append(entry.getKey());
+				unsuccessfulVariableCount++;
+				continue;
+			}
+			Variables.variableLoaded(entry.getKey(), deserializedValue, this);
+		}
+
+		if (unsuccessfulVariableCount > 0) {
+			Skript.error(unsuccessfulVariableCount + " variable" + (unsuccessfulVariableCount == 1 ? "" : "s") +
+					" could not be loaded!");
+			Skript.error("Affected variables: " + invalid);
+		}
+
+		startCompactionTask();
+
+		return ioException == null;
+	}
+
+	/**
+	 * Sets the {@link #logFile} and {@link #compactedLogFile}, which are stored next to the {@link #file snapshot}.
+	 */
+	protected final void initLogFiles() {
+		assert file != null;
+		logFile = new File(file.getParentFile(), file.getName() + ".log");
+		compactedLogFile = new File(file.getParentFile(), file.getName() + ".log.old");
+	}
+
+	/**
+	 * Starts the task that compacts the log once enough changes have been written to it.
+	 */
+	protected final void startCompactionTask() {
+		compactionTask = new Task(Skript.getInstance(), COMPACTION_TASK_DELAY, COMPACTION_TASK_PERIOD, true) {
+			@Override
+			public void run() {
+				if (changes.get() >= REQUIRED_CHANGES_FOR_COMPACTION)
+					compact(true);
+			}
+		};
+	}
+
+	@Override
+	protected void allLoaded() {
+		// no transaction support
+	}
+
+	@Override
+	protected boolean requiresFile() {
+		return true;
+	}
+
+	@Override
+	protected File getFile(String fileName) {
+		return new File(fileName);
+	}
+
+	@Override
+	protected final boolean connect() {
+		synchronized (connectionLock) {
+			assert logFile != null; // set when loading
+
+			if (changesStream != null)
+				return true;
+
+			DataOutputStream stream = null;
+			try {
+				long length = logFile.length();
+				stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(logFile, true)));
+				if (length == 0) {
+					writeHeader(stream);
+					stream.flush();
+					length = HEADER_LENGTH;
+				}
+				logOpened(length);
+				changesStream = stream;
+				return true;
+			} catch (IOException e) {
+				if (stream != null) {
+					try {
+						stream.close();
+					} catch (IOException ignored) {}
+				}
+				//noinspection ThrowableNotThrown
+				Skript.exception(e);
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Called while holding {@link #connectionLock} when the log has been opened to append changes to it.
+	 *
+	 * @param length the length of the log, i.e. the position the next change will be written at.
+	 */
+	protected void logOpened(long length) throws IOException {}
+
+	@Override
+	protected final void disconnect() {
+		synchronized (connectionLock) {
+			DataOutputStream stream = changesStream;
+			if (stream == null)
+				return;
+			changesStream = null;
+			try {
+				stream.close();
+			} catch (IOException e) {
+				Skript.error("Could not close the log of the database '" + getUserConfigurationName() + "': " + ExceptionUtils.toString(e));
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		super.close(); // waits for all changes to be written
+		if (compactionTask != null)
+			compactionTask.cancel();
+		if (backupTask != null)
+			backupTask.cancel();
+		closeLog();
+	}
+
+	/**
+	 * Closes the log once all changes have been written, when this storage is closed.
+	 * Compacts the log into the snapshot by default.
+	 */
+	protected void closeLog() {
+		compact(false); // also closes the log
+	}
+
+	@Override
+	protected boolean save(String name, @Nullable String type, @Nullable byte[] value) {
+		synchronized (connectionLock) {
+			DataOutputStream stream = changesStream;
+			if (stream == null)
+				return false;
+			try {
+				writeChange(stream, name, type, value);
+				stream.flush();
+			} catch (IOException e) {
+				//noinspection ThrowableNotThrown
+				Skript.exception(e, "Error saving variable named " + name);
+				return false;
+			}
+			changes.incrementAndGet();
+		}
+		return true;
+	}
+
+	/**
+	 * Appends all changes to the log, only flushing it once at the end.
+	 */
+	@Override
+	protected boolean save(Collection<SerializedVariable> variables) {
+		synchronized (connectionLock) {
+			DataOutputStream stream = changesStream;
+			if (stream == null)
+				return false;
+			try {
+				for (SerializedVariable variable : variables) {
+					Value value = variable.value;
+					if (value == null) {
+						writeChange(stream, variable.name, null, null);
+					} else {
+						writeChange(stream, variable.name, value.type, value.data);
+					}
+				}
+				stream.flush();
+			} catch (IOException e) {
+				//noinspection ThrowableNotThrown
+				Skript.exception(e, "Error saving variables to the database '" + getUserConfigurationName() + "'");
+				return false;
+			}
+			changes.addAndGet(variables.size());
+		}
+		return true;
+	}
+
+	/**
+	 * Creates a backup of the snapshot after compacting the log into it.
+	 */
+	@Override
+	public void startBackupTask(Timespan backupInterval, boolean removeBackups, int toKeep) {
+		// File is null or backup interval is invalid
+		if (file == null || backupInterval.getAs(Timespan.TimePeriod.TICK) == 0)
+			return;
+		backupTask = new Task(Skript.getInstance(), backupInterval.getAs(Timespan.TimePeriod.TICK), backupInterval.getAs(Timespan.TimePeriod.TICK), true) {
+			@Override
+			public void run() {
+				compact(true);
+				synchronized (compactionLock) {
+					try {
+						FileUtils.backup(file);
+						if (removeBackups) {
+							try {
+								FileUtils.backupPurge(file, toKeep);
+							} catch (IOException | IllegalArgumentException e) {
+								Skript.error("Automatic variables backup purge failed: " + e.getLocalizedMessage());
+							}
+						}
+					} catch (IOException e) {
+						Skript.error("Automatic variables backup failed: " + e.getLocalizedMessage());
+					}
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compacts the log into the snapshot.
+	 * <p>
+	 * The log is only locked while it is replaced by a new one,
+	 * the old log is then merged into the snapshot while variables are still being saved to the new log.
+	 * If the merge fails, the old log is kept and merged by the next compaction, so no variables are lost.
+	 *
+	 * @param reconnect whether to continue logging changes, {@code false} if this is the last compaction in this session.
+	 */
+	final void compact(boolean reconnect) {
+		synchronized (compactionLock) {
+			synchronized (connectionLock) {
+				disconnect();
+				try {
+					if (rotateLog())
+						changes.set(0);
+				} catch (IOException e) {
+					Skript.error("Unable to compact the database '" + getUserConfigurationName() +
+							"' (no variables are lost): " + ExceptionUtils.toString(e));
+					return;
+				} finally {
+					if (reconnect)
+						connect();
+				}
+			}
+
+			try {
+				mergeCompactedLog();
+			} catch (IOException e) {
+				Skript.error("Unable to compact the database '" + getUserConfigurationName() +
+						"' (no variables are lost): " + ExceptionUtils.toString(e));
+			}
+		}
+	}
+
+	/**
+	 * Renames the log to the {@link #compactedLogFile}, so that changes are appended to a new log while it is compacted.
+	 * Called while this storage is disconnected, holding {@link #compactionLock} and {@link #connectionLock}.
+	 * <p>
+	 * A log left over by a failed compaction is compacted first, the current log is then compacted next time.
+	 *
+	 * @return whether the log was renamed.
+	 */
+	protected boolean rotateLog() throws IOException {
+		assert logFile != null && compactedLogFile != null;
+		if (compactedLogFile.exists())
+			return false;
+		Files.move(logFile.toPath(), compactedLogFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		return true;
+	}
+
+	/**
+	 * Merges the {@link #compactedLogFile} into the snapshot and deletes it, while changes are appended to the new log.
+	 * Called while holding {@link #compactionLock}.
+	 * If this fails, the compacted log must be kept, so that it can be merged by the next compaction.
+	 */
+	protected void mergeCompactedLog() throws IOException {
+		assert file != null && compactedLogFile != null;
+		mergeIntoSnapshot(file, compactedLogFile);
+	}
+
+	/**
+	 * Merges the changes of a log that is being compacted into the snapshot, and deletes the log.
+	 * If this fails, both files are kept as they were, so the merge can be done again.
+	 *
+	 * @param snapshot the snapshot.
+	 * @param compactedLog the log being compacted.
+	 */
+	static void mergeIntoSnapshot(File snapshot, File compactedLog) throws IOException {
+		TreeMap<String, Value> variables = new TreeMap<>();
+		readChanges(snapshot, variables);
+		readChanges(compactedLog, variables);
+		writeSnapshot(snapshot, variables);
+		Files.delete(compactedLog.toPath());
+	}
+
+	/**
+	 * Replaces the snapshot with the given variables.
+	 * The snapshot is written to a temporary file first, so that the old snapshot is kept if writing fails.
+	 *
+	 * @param file the snapshot.
+	 * @param variables the serialized variables by name.
+	 */
+	static void writeSnapshot(File file, Map<String, Value> variables) throws IOException {
+		File tempFile = new File(file.getParentFile(), file.getName() + ".temp");
+		try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+			writeHeader(stream);
+			for (Entry<String, Value> entry : variables.entrySet())
+				writeChange(stream, entry.getKey(), entry.getValue().type, entry.getValue().data);
+		}
+		FileUtils.move(tempFile, file, true);
+	}
+
+	/**
+	 * Writes the header of a file of this storage.
+	 */
+	static void writeHeader(DataOutputStream stream) throws IOException {
+		stream.writeInt(MAGIC);
+		stream.writeInt(FORMAT_VERSION);
+	}
+
+	/**
+	 * Writes a change of a variable.
+	 *
+	 * @param name the name of the variable.
+	 * @param type the type of the value, or {@code null} if the variable was deleted.
+	 * @param value the serialized value, or {@code null} if the variable was deleted.
+	 * @return the amount of bytes written, the serialized value being the last of them.
+	 */
+	static int writeChange(DataOutputStream stream, String name, @Nullable String type, @Nullable byte[] value) throws IOException {
+		byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+		stream.writeInt(nameBytes.length);
+		stream.write(nameBytes);
+		if (type == null || value == null) {
+			stream.writeInt(-1);
+			return 4 + nameBytes.length + 4;
+		}
+		byte[] typeBytes = type.getBytes(StandardCharsets.UTF_8);
+		stream.writeInt(typeBytes.length);
+		stream.write(typeBytes);
+		stream.writeInt(value.length);
+		stream.write(value);
+		return 4 + nameBytes.length + 4 + typeBytes.length + 4 + value.length;
+	}
+
+	/**
+	 * Applies the changes in the given file to the given map of serialized variables, in the order they were written in.
+	 * Nothing happens if the file does not exist or is empty.
+	 * <p>
+	 * Deleting a list variable, i.e. a name ending in {@code ::*}, deletes all of its elements.
+	 * <p>
+	 * If the server stopped while a change was being written, the last change is incomplete. It is ignored with a warning.
+	 *
+	 * @param source the file to read.
+	 * @param variables the serialized variables by name.
+	 * @return whether the last change was complete.
+	 * @throws IOException if the file could not be read or is not a valid file of this storage.
+	 */
+	static boolean readChanges(File source, TreeMap<String, Value> variables) throws IOException {
+		long length = source.length();
+		if (length == 0)
+			return true;
+
+		try (DataInputStream stream = new DataInputStream(new BufferedInputStream(Files.newInputStream(source.toPath()), 1 << 16))) {
+			if (stream.readInt() != MAGIC)
+				throw new IOException(source.getName() + " is not a variables file");
+			int version = stream.readInt();
+			if (version != FORMAT_VERSION)
+				throw new IOException(source.getName() + " was written in an unsupported format (" + version + ")");
+
+			while (true) {
+				int first = stream.read();
+				if (first == -1)
+					return true; // end of the file
+				try {
+					int nameLength = (first << 24) | (stream.readUnsignedByte() << 16) | (stream.readUnsignedByte() << 8) | stream.readUnsignedByte();
+					String name = new String(readBytes(stream, nameLength, length), StandardCharsets.UTF_8);
+					int typeLength = stream.readInt();
+					if (typeLength == -1) {
+						if (name.endsWith(Variable.SEPARATOR + "*")) {
+							String prefix = name.substring(0, name.length() - 1);
+							variables.subMap(prefix, true, prefix + Character.MAX_VALUE, false).clear();
+						} else {
+							variables.remove(name);
+						}
+						continue;
+					}
+					String type = new String(readBytes(stream, typeLength, length), StandardCharsets.UTF_8);
+					byte[] data = readBytes(stream, stream.readInt(), length);
+					variables.put(name, new Value(type, data));
+				} catch (EOFException e) {
+					Skript.warning("The last change in " + source.getName() + " was not written completely and has been ignored");
+					return false;
+				}
+			}
+		}
+	}
+
+	private static byte[] readBytes(DataInputStream stream, int count, long fileLength) throws IOException {
+		if (count < 0 || count > fileLength)
+			throw new IOException("Invalid length " + count + ", the file is corrupted");
+		byte[] bytes = new byte[count];
+		stream.readFully(bytes);
+		return bytes;
+	}
+
+}
@@ -14,6 +14,7 @@ import ch.njol.util.NotifyingReference;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -24,6 +25,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Map.Entry;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -62,8 +64,7 @@ public class FlatFileStorage extends VariablesStorage {
 	 * to the {@link #file}.
 	 * <p>
 	 * A Lock on this object must be acquired after connectionLock
-	 * if that lock is used
-	 * (and thus also after {@link Variables#getReadLock()}).
+	 * if that lock is used.
 	 */
 	private final NotifyingReference<PrintWriter> changesWriter = new NotifyingReference<>();
 
@@ -308,11 +309,13 @@ public class FlatFileStorage extends VariablesStorage {
 					return true;
 
 				// Open the file stream, and create the PrintWriter with it
-				try (FileOutputStream fos = new FileOutputStream(file, true)) {
-					changesWriter.set(new PrintWriter(new OutputStreamWriter(fos, FILE_CHARSET)));
+				// The stream must stay open, it is closed together with the PrintWriter in disconnect()
+				try {
+					FileOutputStream fos = new FileOutputStream(file, true);
+					changesWriter.set(new PrintWriter(new BufferedWriter(new OutputStreamWriter(fos, FILE_CHARSET))));
 					loaded = true;
 					return true;
-				} catch (IOException e) { // close() might throw ANY IOException
+				} catch (IOException e) {
 					//noinspection ThrowableNotThrown
 					Skript.exception(e);
 					return false;
@@ -339,17 +342,7 @@ public class FlatFileStorage extends VariablesStorage {
 					return true;
 				}
 
-				// Get the PrintWriter, waiting for it to be available if needed
-				PrintWriter printWriter;
-				while ((printWriter = changesWriter.get()) == null) {
-					try {
-						changesWriter.wait();
-					} catch (InterruptedException e) {
-						// Re-interrupt thread
-						Thread.currentThread().interrupt();
-					}
-				}
-
+				PrintWriter printWriter = getChangesWriter();
 				writeCSV(printWriter, name, type, value == null ? "" : encode(value));
 				printWriter.flush();
 
@@ -359,6 +352,55 @@ public class FlatFileStorage extends VariablesStorage {
 		return true;
 	}
 
+	/**
+	 * Appends all changes to the file, only flushing it once at the end.
+	 */
+	@Override
+	protected boolean save(Collection<SerializedVariable> variables) {
+		synchronized (connectionLock) {
+			synchronized (changesWriter) {
+				PrintWriter printWriter = getChangesWriter();
+				int written = 0;
+				for (SerializedVariable variable : variables) {
+					SerializedVariable.Value value = variable.value;
+					if (!loaded && value == null)
+						continue; // see save(String, String, byte[])
+
+					if (value == null) {
+						writeCSV(printWriter, variable.name, null, "");
+					} else {
+						writeCSV(printWriter, variable.name, value.type, encode(value.data));
+					}
+					written++;
+				}
+				printWriter.flush();
+
+				changes.addAndGet(written);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the {@link #changesWriter}, waiting for it to be available if needed.
+	 * <p>
+	 * Must be called while holding the lock on {@link #changesWriter}.
+	 *
+	 * @return the writer.
+	 */
+	private PrintWriter getChangesWriter() {
+		PrintWriter printWriter;
+		while ((printWriter = changesWriter.get()) == null) {
+			try {
+				changesWriter.wait();
+			} catch (InterruptedException e) {
+				// Re-interrupt thread
+				Thread.currentThread().interrupt();
+			}
+		}
+		return printWriter;
+	}
+
 	/**
 	 * Completely rewrites the CSV file.
 	 * <p>
@@ -377,74 +419,76 @@ public class FlatFileStorage extends VariablesStorage {
 				backupTask.cancel();
 		}
 
-		try {
-			// Acquire read lock
-			Variables.getReadLock().lock();
-
-			synchronized (connectionLock) {
-				try {
-					if (file == null) {
-						// This storage requires a file, so file should be nonnull
-						assert false : this;
-						return;
-					}
-
-					disconnect();
+		synchronized (connectionLock) {
+			try {
+				if (file == null) {
+					// This storage requires a file, so file should be nonnull
+					assert false : this;
+					return;
+				}
 
-					if (loadError) {
-						// There was an error while loading the CSV file, create a backup of it
-						try {
-							File backup = FileUtils.backup(file);
-							Skript.info("Created a backup of the old " + file.getName() + " as " + backup.getName());
-							loadError = false;
-						} catch (IOException e) {
-							Skript.error("Could not backup the old " + file.getName() + ": " + ExceptionUtils.toString(e));
-							Skript.error("No variables are saved!");
-							return;
-						}
-					}
+				disconnect();
 
-					// Write the variables to a temporary file, giving less problems if saving fails
-					//  (if saving fails during writing to the actual file,
-					//  the data in the actual file may be partially lost)
-					File tempFile = new File(file.getParentFile(), file.getName() + ".temp");
-
-					try (PrintWriter pw = new PrintWriter(tempFile, "UTF-8")) {
-						pw.println("# === Skript's variable storage ===");
-						pw.println("# Please do not modify this file manually!");
-						pw.println("#");
-						pw.println("# version: " + Skript.getVersion());
-						pw.println();
-						save(pw, "", Variables.getVariables());
-						pw.println();
-						pw.flush();
-						pw.close();
-						FileUtils.move(tempFile, file, true);
+				if (loadError) {
+					// There was an error while loading the CSV file, create a backup of it
+					try {
+						File backup = FileUtils.backup(file);
+						Skript.info("Created a backup of the old " + file.getName() + " as " + backup.getName());
+						loadError = false;
 					} catch (IOException e) {
-						Skript.error("Unable to make a final save of the database '" + getUserConfigurationName() +
-								"' (no variables are lost): " + ExceptionUtils.toString(e));
-						// FIXME happens at random - check locks/threads
-					}
-				} finally {
-					// Reconnect if needed
-					if (!finalSave) {
-						connect();
+						Skript.error("Could not backup the old " + file.getName() + ": " + ExceptionUtils.toString(e));
+						Skript.error("No variables are saved!");
+						return;
 					}
 				}
-			}
-		} finally {
-			Variables.getReadLock().unlock();
-			boolean gotWriteLock = Variables.variablesLock.writeLock().tryLock();
-			if (gotWriteLock) { // Only process queue now if it doesn't require us to wait
-				try {
-					Variables.processChangeQueue();
-				} finally {
-					Variables.variablesLock.writeLock().unlock();
+
+				// Write the variables to a temporary file, giving less problems if saving fails
+				//  (if saving fails during writing to the actual file,
+				//  the data in the actual file may be partially lost)
+				File tempFile = new File(file.getParentFile(), file.getName() + ".temp");
+
+				try (PrintWriter pw = new PrintWriter(tempFile, "UTF-8")) {
+					pw.println("# === Skript's variable storage ===");
+					pw.println("# Please do not modify this file manually!");
+					pw.println("#");
+					pw.println("# version: " + Skript.getVersion());
+					pw.println();
+					// Each variable tree is copied separately, so only a small part of the variables is locked at once
+					Variables.variables.forEachTreeEntry((name, node) -> saveNode(pw, name, node));
+					pw.println();
+					pw.flush();
+					pw.close();
+					FileUtils.move(tempFile, file, true);
+				} catch (IOException e) {
+					Skript.error("Unable to make a final save of the database '" + getUserConfigurationName() +
+							"' (no variables are lost): " + ExceptionUtils.toString(e));
+					// FIXME happens at random - check locks/threads
+				}
+			} finally {
+				// Reconnect if needed
+				if (!finalSave) {
+					connect();
 				}
 			}
 		}
 	}
 
+	/**
+	 * Saves the given node of the variables tree.
+	 *
+	 * @param pw the print writer to write the CSV lines too.
+	 * @param name the name of the node.
+	 * @param node the node, either a variable value or a branch of the tree.
+	 */
+	@SuppressWarnings("unchecked")
+	private void saveNode(PrintWriter pw, String name, Object node) {
+		if (node instanceof TreeMap) {
+			save(pw, name + Variable.SEPARATOR, (TreeMap<String, Object>) node);
+		} else {
+			saveVariable(pw, name, node);
+		}
+	}
+
 	/**
 	 * Saves the variables.
 	 * <p>
@@ -470,28 +514,38 @@ public class FlatFileStorage extends VariablesStorage {
 			} else {
 				// Remove variable separator if needed
 				String name = childKey == null ? parent.substring(0, parent.length() - Variable.SEPARATOR.length()) : parent + childKey;
+				saveVariable(pw, name, childNode);
+			}
+		}
+	}
 
-				try {
-					// Loop over storages to make sure this variable is ours to store
-					for (VariablesStorage storage : Variables.STORAGES) {
-						if (storage.accept(name)) {
-							if (storage == this) {
-								// Serialize the value
-								SerializedVariable.Value serializedValue = Classes.serialize(childNode);
-
-								// Write the CSV line
-								if (serializedValue != null)
-									writeCSV(pw, name, serializedValue.type, encode(serializedValue.data));
-							}
-
-							break;
-						}
+	/**
+	 * Saves a single variable, if this storage is the one storing it.
+	 *
+	 * @param pw the print writer to write the CSV lines too.
+	 * @param name the name of the variable.
+	 * @param value the value of the variable.
+	 */
+	private void saveVariable(PrintWriter pw, String name, Object value) {
+		try {
+			// Loop over storages to make sure this variable is ours to store
+			for (VariablesStorage storage : Variables.STORAGES) {
+				if (storage.accept(name)) {
+					if (storage == this) {
+						// Serialize the value
+						SerializedVariable.Value serializedValue = Classes.serialize(value);
+
+						// Write the CSV line
+						if (serializedValue != null)
+							writeCSV(pw, name, serializedValue.type, encode(serializedValue.data));
 					}
-				} catch (Exception ex) {
-					//noinspection ThrowableNotThrown
-					Skript.exception(ex, "Error saving variable named " + name);
+
+					break;
 				}
 			}
+		} catch (Exception ex) {
+			//noinspection ThrowableNotThrown
+			Skript.exception(ex, "Error saving variable named " + name);
 		}
 	}
 
@@ -0,0 +1,960 @@
+package ch.njol.skript.variables;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.classes.ClassInfo;
+import ch.njol.skript.classes.Serializer;
+import ch.njol.skript.config.SectionNode;
+import ch.njol.skript.lang.Variable;
+import ch.njol.skript.log.SkriptLogger;
+import ch.njol.skript.registrations.Classes;
+import ch.njol.skript.util.ExceptionUtils;
+import ch.njol.skript.util.FileUtils;
+import ch.njol.skript.util.Task;
+import ch.njol.skript.variables.SerializedVariable.Value;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A variable storage in the format of {@link BinaryLogStorage} that does not load its variables when Skript starts.
+ * <p>
+ * Only an ordered index of the names of the variables and where their values are stored is kept in memory.
+ * The value of a variable is loaded from the files when it is first used, and a list variable loads all of its elements,
+ * which are found by their common prefix in the index.
+ * Once more than the configured amount of loaded values are in memory, the values loaded first are unloaded again,
+ * unless they have been changed since they were loaded.
+ * Changed variables are kept in memory until their changes have been saved, after which they are unloaded like loaded ones.
+ * <p>
+ * The index is guarded by striped locks, chosen like the ones of {@link VariablesMap},
+ * so that variables of different lists can be loaded and changed at the same time.
+ * <p>
+ * Variables may be used on any thread, so only values whose {@link Serializer} allows using it off Bukkit's main thread
+ * are loaded lazily. All other values are loaded when Skript starts and are never unloaded.
+ */
+public class LazyBinaryStorage extends BinaryLogStorage {
+
+	/**
+	 * The default maximum amount of loaded variables that are kept in memory.
+	 *
+	 * @see #cacheSize
+	 */
+	private static final int DEFAULT_CACHE_SIZE = 100_000;
+
+	/**
+	 * The period of the task unloading variables, in ticks.
+	 */
+	private static final long UNLOAD_TASK_PERIOD = 20;
+
+	/**
+	 * A file containing changes to variables, i.e. the snapshot or a log.
+	 */
+	private static final class Segment {
+
+		/**
+		 * The file of this segment. Changes when a log is renamed to be compacted.
+		 */
+		private File file;
+
+		/**
+		 * The channel values are read from.
+		 */
+		private final FileChannel channel;
+
+		private Segment(File file) throws IOException {
+			this.file = file;
+			this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		}
+
+		private void close() {
+			try {
+				channel.close();
+			} catch (IOException ignored) {}
+		}
+
+	}
+
+	/**
+	 * The amount of locks guarding the {@link #index}.
+	 * Must be a power of two.
+	 */
+	private static final int LOCK_STRIPES = 64;
+
+	/**
+	 * What is known about a variable of this storage.
+	 * <p>
+	 * Guarded by the lock of the variable's stripe, see {@link #getLock(String)}.
+	 */
+	private static final class IndexEntry {
+
+		/**
+		 * The segment the latest saved value of the variable is in, or {@code null} if it has been deleted.
+		 */
+		@Nullable
+		private Segment segment;
+
+		/**
+		 * The position of the serialized value in the {@link #segment}.
+		 */
+		private long offset;
+
+		/**
+		 * The length of the serialized value.
+		 */
+		private int length;
+
+		/**
+		 * The type of the serialized value.
+		 */
+		@Nullable
+		private String type;
+
+		/**
+		 * Whether the variable could not be loaded lazily, and has thus been loaded when Skript started.
+		 * The value in memory is then always the latest one, and is never replaced by nor unloaded in favour of the saved one.
+		 */
+		private boolean pinned;
+
+		/**
+		 * The amount of changes to the variable that have not been saved yet.
+		 * The value in memory is the latest one until they have been saved, like the value of a {@link #pinned} variable.
+		 */
+		private int unsavedChanges;
+
+		/**
+		 * Whether the value of the variable has been loaded from the file, and may be unloaded again.
+		 */
+		private boolean resident;
+
+	}
+
+	/**
+	 * The variables of this storage, sorted by name so that the elements of a list variable are next to each other.
+	 * Variables that are neither saved nor in memory are removed.
+	 */
+	private final ConcurrentSkipListMap<String, IndexEntry> index = new ConcurrentSkipListMap<>();
+
+	/**
+	 * The striped locks guarding the {@link #index}, see {@link #getLock(String)}.
+	 */
+	private final Lock[] locks = new Lock[LOCK_STRIPES];
+
+	/**
+	 * The list variables (ending in {@code ::*}) that have been deleted, with the amount of deletions that have not been saved yet.
+	 * Their elements are not loaded until the deletions have been saved.
+	 * <p>
+	 * Changed while holding the lock of the list's stripe.
+	 */
+	private final Map<String, Integer> unsavedLists = new ConcurrentHashMap<>();
+
+	/**
+	 * The names of the variables in the order they were loaded in, to unload the oldest ones first.
+	 * Contains names that have been unloaded or changed since, which are skipped.
+	 */
+	private final Queue<String> loadedNames = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The amount of variables that are {@link IndexEntry#resident}.
+	 */
+	private final AtomicInteger residentCount = new AtomicInteger();
+
+	/**
+	 * The maximum amount of loaded variables kept in memory.
+	 */
+	int cacheSize = DEFAULT_CACHE_SIZE;
+
+	/**
+	 * The list variables (ending in {@code ::*}) whose elements have all been loaded.
+	 */
+	private final Set<String> loadedLists = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * The segments of the snapshot, the log being compacted, if any, and the log changes are appended to.
+	 * <p>
+	 * Changed while holding {@link #connectionLock} and all locks of the {@link #index}, see {@link #lockAll()}.
+	 */
+	@Nullable
+	private Segment snapshot, compactedLog, log;
+
+	/**
+	 * The position in the {@link #log} the next change will be written at.
+	 * <p>
+	 * Guarded by {@link #connectionLock}, which must be acquired before the locks of the {@link #index}.
+	 */
+	private long logPosition;
+
+	@Nullable
+	private Task unloadTask;
+
+	/**
+	 * Create a new lazily loading binary storage of the given name.
+	 *
+	 * @param type the database type i.e. lazy binary.
+	 */
+	LazyBinaryStorage(String type) {
+		super(type);
+		for (int i = 0; i < LOCK_STRIPES; i++)
+			locks[i] = new ReentrantLock();
+	}
+
+	/**
+	 * Gets the lock guarding the entry of the given variable in the {@link #index}.
+	 * A list variable and all of its elements have the same lock.
+	 */
+	private Lock getLock(String name) {
+		return locks[VariablesMap.stripe(name, LOCK_STRIPES)];
+	}
+
+	/**
+	 * Acquires all locks of the {@link #index}, e.g. to change all of its entries.
+	 */
+	private void lockAll() {
+		for (Lock lock : locks)
+			lock.lock();
+	}
+
+	private void unlockAll() {
+		for (int i = locks.length - 1; i >= 0; i--)
+			locks[i].unlock();
+	}
+
+	/**
+	 * Reads the names of the variables in the snapshot and the logs.
+	 */
+	@Override
+	protected boolean load_i(SectionNode sectionNode) {
+		SkriptLogger.setNode(null);
+
+		// The cache size is optional, like the batch size
+		String cacheSize = sectionNode.get("cache size", "" + DEFAULT_CACHE_SIZE);
+		try {
+			this.cacheSize = Integer.parseInt(cacheSize);
+		} catch (NumberFormatException ignored) {
+			this.cacheSize = -1;
+		}
+		if (this.cacheSize < 0) {
+			Skript.error("The entry for 'cache size' in the database '" + getUserConfigurationName() + "' must be a positive integer");
+			return false;
+		}
+
+		if (!openFiles())
+			return false;
+
+		startCompactionTask();
+		// Unloaded on the main thread, where variables are used, so that no list is unloaded while it is being iterated
+		unloadTask = new Task(Skript.getInstance(), UNLOAD_TASK_PERIOD, UNLOAD_TASK_PERIOD, false) {
+			@Override
+			public void run() {
+				unloadOldest();
+			}
+		};
+
+		return true;
+	}
+
+	/**
+	 * Reads the index of the snapshot and the logs, loads the variables that cannot be loaded lazily and connects to the log.
+	 *
+	 * @return whether the files could be opened.
+	 */
+	boolean openFiles() {
+		if (file == null) {
+			assert false : this;
+			return false;
+		}
+		initLogFiles();
+		assert logFile != null && compactedLogFile != null;
+
+		boolean successful = true;
+		synchronized (connectionLock) {
+			lockAll();
+			try {
+				snapshot = readIndex(file);
+				if (compactedLogFile.exists())
+					compactedLog = readIndex(compactedLogFile);
+				if (logFile.exists())
+					log = readIndex(logFile);
+			} catch (IOException e) {
+				Skript.error("An I/O error occurred while loading the variables: " + ExceptionUtils.toString(e));
+				successful = false;
+			} finally {
+				unlockAll();
+			}
+		}
+		if (!successful)
+			return false;
+
+		int loaded = loadEagerly();
+		if (Skript.logVeryHigh())
+			Skript.info("Found " + index.size() + " variables in the database '" + getUserConfigurationName() + "', "
+					+ loaded + " of them have been loaded, the others will be loaded when they are used");
+
+		return connect();
+	}
+
+	/**
+	 * Adds the changes in the given file to the {@link #index}.
+	 * <p>
+	 * If the last change is incomplete, as the server stopped while it was being written, or a change is invalid,
+	 * the file is cut off before it, so that new changes can be appended.
+	 *
+	 * @param source the file to read.
+	 * @return the segment of the file.
+	 */
+	private Segment readIndex(File source) throws IOException {
+		Segment segment = new Segment(source);
+		long length = source.length();
+		if (length == 0)
+			return segment;
+
+		long position = 0;
+		try (DataInputStream stream = new DataInputStream(new BufferedInputStream(Files.newInputStream(source.toPath()), 1 << 16))) {
+			if (stream.readInt() != MAGIC)
+				throw new IOException(source.getName() + " is not a variables file");
+			int version = stream.readInt();
+			if (version != FORMAT_VERSION)
+				throw new IOException(source.getName() + " was written in an unsupported format (" + version + ")");
+			position = HEADER_LENGTH;
+
+			while (position < length) {
+				int nameLength = stream.readInt();
+				checkLength(nameLength, length);
+				byte[] nameBytes = new byte[nameLength];
+				stream.readFully(nameBytes);
+				String name = new String(nameBytes, StandardCharsets.UTF_8);
+				int typeLength = stream.readInt();
+				if (typeLength == -1) {
+					position += 4 + nameLength + 4;
+					deleted(name);
+					continue;
+				}
+				checkLength(typeLength, length);
+				byte[] typeBytes = new byte[typeLength];
+				stream.readFully(typeBytes);
+				int dataLength = stream.readInt();
+				checkLength(dataLength, length);
+				stream.skipNBytes(dataLength);
+
+				long offset = position + 4 + nameLength + 4 + typeLength + 4;
+				saved(name, new String(typeBytes, StandardCharsets.UTF_8), segment, offset, dataLength);
+				position = offset + dataLength;
+			}
+		} catch (EOFException e) {
+			Skript.warning("The last change in " + source.getName() + " was not written completely and has been ignored");
+			truncate(source, position);
+		} catch (IOException e) {
+			if (position == 0) { // not a file of this storage at all, don't touch it
+				segment.close();
+				throw e;
+			}
+			Skript.error("The database '" + getUserConfigurationName() + "' is corrupted from the " + position + "th byte of " + source.getName()
+					+ " on, all changes after it are lost: " + ExceptionUtils.toString(e));
+			try {
+				File backupFile = FileUtils.backup(source);
+				Skript.info("Created a backup of " + source.getName() + " as " + backupFile.getName());
+			} catch (IOException ex) {
+				Skript.error("Could not backup " + source.getName() + ": " + ex.getMessage());
+			}
+			truncate(source, position);
+		}
+		return segment;
+	}
+
+	private static void checkLength(int length, long fileLength) throws IOException {
+		if (length < 0 || length > fileLength)
+			throw new IOException("Invalid length " + length);
+	}
+
+	private static void truncate(File file, long length) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			channel.truncate(length);
+		}
+	}
+
+	/**
+	 * Records that the given variable has been saved at the given position.
+	 * Must be called while holding the lock of the variable, in the order the changes were written in.
+	 */
+	private void saved(String name, String type, Segment segment, long offset, int length) {
+		IndexEntry entry = index.computeIfAbsent(name, key -> new IndexEntry());
+		entry.segment = segment;
+		entry.offset = offset;
+		entry.length = length;
+		entry.type = type;
+	}
+
+	/**
+	 * Records that the given variable, or all elements of the given list variable, have been deleted.
+	 * Must be called while holding the lock of the variable, in the order the changes were written in.
+	 */
+	private void deleted(String name) {
+		if (name.endsWith(Variable.SEPARATOR + "*")) {
+			// Deleting a list deletes all of its elements
+			String prefix = name.substring(0, name.length() - 1);
+			Map<String, IndexEntry> elements = index.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+			elements.values().removeIf(entry -> {
+				entry.segment = null;
+				return !isInMemory(entry);
+			});
+			return;
+		}
+		IndexEntry entry = index.get(name);
+		if (entry == null)
+			return;
+		entry.segment = null;
+		if (!isInMemory(entry))
+			index.remove(name);
+	}
+
+	/**
+	 * @return whether the value of the given entry is in memory, and its entry is thus needed even if it has been deleted.
+	 */
+	private static boolean isInMemory(IndexEntry entry) {
+		return entry.pinned || entry.resident || entry.unsavedChanges > 0;
+	}
+
+	/**
+	 * Loads the variables whose values {@link #canLoadLazily(String) cannot be loaded lazily}.
+	 * They are pinned, so that they are neither unloaded nor loaded again.
+	 * Must be called on Bukkit's main thread, while Skript is starting.
+	 *
+	 * @return the amount of variables loaded.
+	 */
+	private int loadEagerly() {
+		Map<String, Boolean> lazyTypes = new HashMap<>();
+		List<String> names = new ArrayList<>();
+		List<Value> values = new ArrayList<>();
+		lockAll();
+		try {
+			for (Entry<String, IndexEntry> element : index.entrySet()) {
+				IndexEntry entry = element.getValue();
+				if (entry.segment == null)
+					continue;
+				assert entry.type != null;
+				if (lazyTypes.computeIfAbsent(entry.type, this::canLoadLazily))
+					continue;
+				entry.pinned = true;
+				byte[] data = read(element.getKey(), entry);
+				if (data == null)
+					continue;
+				names.add(element.getKey());
+				values.add(new Value(entry.type, data));
+			}
+		} finally {
+			unlockAll();
+		}
+
+		for (int i = 0; i < names.size(); i++) {
+			Object value = deserialize(names.get(i), values.get(i).type, values.get(i).data);
+			Variables.variableLoaded(names.get(i), value, this);
+		}
+		return names.size();
+	}
+
+	/**
+	 * Returns whether values of the given type may be loaded when they are first used, which may happen on any thread,
+	 * i.e. whether the serializer of the type allows deserializing them off Bukkit's main thread.
+	 *
+	 * @param type the code name of the type.
+	 */
+	boolean canLoadLazily(String type) {
+		ClassInfo<?> classInfo = Classes.getClassInfoNoError(type);
+		Serializer<?> serializer = classInfo == null ? null : classInfo.getSerializer();
+		return serializer != null && serializer.canSerializeAsync() && !serializer.mustSyncDeserialization();
+	}
+
+	/**
+	 * Loads the given variable into memory if it is saved in this storage and hasn't been loaded yet.
+	 * If it is a list variable, all of its elements are loaded.
+	 * <p>
+	 * May be called on any thread, as only values that can be deserialized off Bukkit's main thread are loaded lazily.
+	 *
+	 * @param name the name of the variable.
+	 */
+	void loadVariable(String name) {
+		if (name.endsWith("*")) {
+			loadList(name);
+			return;
+		}
+
+		String type;
+		byte[] data;
+		IndexEntry entry;
+		Lock lock = getLock(name);
+		lock.lock();
+		try {
+			entry = index.get(name);
+			if (entry == null || !isLoadable(name, entry))
+				return;
+			type = entry.type;
+			data = read(name, entry);
+		} finally {
+			lock.unlock();
+		}
+		if (data == null)
+			return;
+
+		Object value = deserialize(name, type, data);
+		if (value == null)
+			return;
+		lock.lock();
+		try {
+			if (index.get(name) == entry && isLoadable(name, entry))
+				setLoaded(name, entry, value);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Loads all elements of the given list variable, see {@link #loadVariable(String)}.
+	 *
+	 * @param name the name of the list variable, ending in {@code *}.
+	 */
+	private void loadList(String name) {
+		if (loadedLists.contains(name))
+			return;
+		String prefix = name.substring(0, name.length() - 1);
+
+		List<String> names = new ArrayList<>();
+		List<IndexEntry> entries = new ArrayList<>();
+		List<Value> values = new ArrayList<>();
+		Lock lock = getLock(name);
+		lock.lock();
+		try {
+			for (Entry<String, IndexEntry> element : index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+				IndexEntry entry = element.getValue();
+				if (!isLoadable(element.getKey(), entry))
+					continue;
+				assert entry.type != null;
+				byte[] data = read(element.getKey(), entry);
+				if (data == null)
+					continue;
+				names.add(element.getKey());
+				entries.add(entry);
+				values.add(new Value(entry.type, data));
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		Object[] deserialized = new Object[values.size()];
+		for (int i = 0; i < deserialized.length; i++)
+			deserialized[i] = deserialize(names.get(i), values.get(i).type, values.get(i).data);
+
+		lock.lock();
+		try {
+			for (int i = 0; i < deserialized.length; i++) {
+				IndexEntry entry = entries.get(i);
+				if (deserialized[i] != null && index.get(names.get(i)) == entry && isLoadable(names.get(i), entry))
+					setLoaded(names.get(i), entry, deserialized[i]);
+			}
+			loadedLists.add(name);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns whether the value of the given variable is saved and not in memory.
+	 * Must be called while holding the lock of the variable.
+	 */
+	private boolean isLoadable(String name, IndexEntry entry) {
+		return entry.segment != null && !isInMemory(entry) && !isInUnsavedList(name);
+	}
+
+	/**
+	 * @return whether a list containing the given variable has been deleted, and the deletion has not been saved yet.
+	 */
+	private boolean isInUnsavedList(String name) {
+		if (unsavedLists.isEmpty())
+			return false;
+		int end = name.indexOf(Variable.SEPARATOR);
+		while (end != -1) {
+			if (unsavedLists.containsKey(name.substring(0, end + Variable.SEPARATOR.length()) + "*"))
+				return true;
+			end = name.indexOf(Variable.SEPARATOR, end + Variable.SEPARATOR.length());
+		}
+		return false;
+	}
+
+	/**
+	 * Puts a value into memory that may be unloaded again. Must be called while holding the lock of the variable.
+	 *
+	 * @param value the value to put into memory, or {@code null} if it already is.
+	 */
+	private void setLoaded(String name, IndexEntry entry, @Nullable Object value) {
+		if (value != null)
+			setValue(name, value);
+		entry.resident = true;
+		residentCount.incrementAndGet();
+		loadedNames.add(name);
+	}
+
+	/**
+	 * Reads the serialized value of the given entry. Must be called while holding the lock of the variable.
+	 *
+	 * @return the serialized value, or {@code null} if it could not be read.
+	 */
+	private byte @Nullable [] read(String name, IndexEntry entry) {
+		assert entry.segment != null;
+		ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+		try {
+			long position = entry.offset;
+			while (buffer.hasRemaining()) {
+				int read = entry.segment.channel.read(buffer, position);
+				if (read == -1)
+					throw new EOFException();
+				position += read;
+			}
+		} catch (IOException e) {
+			Skript.error("Could not load the variable {" + name + "} from the database '" + getUserConfigurationName() + "': " + ExceptionUtils.toString(e));
+			return null;
+		}
+		return buffer.array();
+	}
+
+	@Nullable Object deserialize(String name, @Nullable String type, byte[] data) {
+		assert type != null;
+		Object value = Classes.deserialize(type, data);
+		if (value == null)
+			Skript.error("Could not load the variable {" + name + "} from the database '" + getUserConfigurationName() + "'");
+		return value;
+	}
+
+	/**
+	 * Sets the value of the given variable in memory.
+	 *
+	 * @param value the value, or {@code null} to unload the variable.
+	 */
+	void setValue(String name, @Nullable Object value) {
+		Variables.variables.setVariable(name, value);
+	}
+
+	/**
+	 * Records that the given variable is about to be changed in memory, so that its saved value is not loaded again
+	 * until the change has been saved, as it is not the latest value until then.
+	 * If it is a list variable, which can only be deleted, this applies to all of its elements.
+	 * <p>
+	 * Each change must be saved through the write thread, see {@link #changesSaved(List)}.
+	 *
+	 * @param name the name of the variable.
+	 */
+	void changeVariable(String name) {
+		Lock lock = getLock(name);
+		lock.lock();
+		try {
+			if (name.endsWith("*")) {
+				unsavedLists.merge(name, 1, Integer::sum);
+				loadedLists.add(name);
+				return;
+			}
+			IndexEntry entry = index.computeIfAbsent(name, key -> new IndexEntry());
+			if (entry.resident) {
+				entry.resident = false;
+				residentCount.decrementAndGet();
+			}
+			entry.unsavedChanges++;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Records that the changes to the variables have been saved, so that the variables whose values in memory are
+	 * the saved ones may be unloaded again.
+	 */
+	@Override
+	void changesSaved(List<SerializedVariable> changes) {
+		for (SerializedVariable change : changes) {
+			Lock lock = getLock(change.name);
+			lock.lock();
+			try {
+				changeSaved(change.name);
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	private void changeSaved(String name) {
+		if (name.endsWith("*")) {
+			unsavedLists.computeIfPresent(name, (list, count) -> count == 1 ? null : count - 1);
+			return;
+		}
+		IndexEntry entry = index.get(name);
+		if (entry == null || entry.unsavedChanges == 0)
+			return; // not changed through changeVariable(String)
+		if (--entry.unsavedChanges > 0 || entry.pinned)
+			return;
+		if (entry.segment == null) {
+			// deleted, and thus no longer in memory either
+			if (!entry.resident)
+				index.remove(name);
+			return;
+		}
+		setLoaded(name, entry, null);
+	}
+
+	/**
+	 * Unloads the variables loaded first until at most {@link #cacheSize} loaded variables are in memory.
+	 */
+	void unloadOldest() {
+		while (residentCount.get() > cacheSize) {
+			String name = loadedNames.poll();
+			if (name == null)
+				break;
+			Lock lock = getLock(name);
+			lock.lock();
+			try {
+				IndexEntry entry = index.get(name);
+				if (entry == null || !entry.resident)
+					continue; // unloaded or changed since
+				entry.resident = false;
+				residentCount.decrementAndGet();
+				setValue(name, null);
+
+				// The lists containing the variable are no longer complete
+				int end = name.indexOf(Variable.SEPARATOR);
+				while (end != -1) {
+					loadedLists.remove(name.substring(0, end + Variable.SEPARATOR.length()) + "*");
+					end = name.indexOf(Variable.SEPARATOR, end + Variable.SEPARATOR.length());
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Creates the segment of a new log, so that the values appended to it can be read.
+	 */
+	@Override
+	protected void logOpened(long length) throws IOException {
+		assert logFile != null;
+		logPosition = length;
+		if (log == null) {
+			Segment segment = new Segment(logFile);
+			lockAll();
+			try {
+				log = segment;
+			} finally {
+				unlockAll();
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		if (unloadTask != null)
+			unloadTask.cancel();
+		super.close();
+		synchronized (connectionLock) {
+			lockAll();
+			try {
+				for (Segment segment : new Segment[] {snapshot, compactedLog, log}) {
+					if (segment != null)
+						segment.close();
+				}
+			} finally {
+				unlockAll();
+			}
+		}
+	}
+
+	/**
+	 * Only compacts the log if enough changes have been written to it, as the index of a log is read quickly.
+	 */
+	@Override
+	protected void closeLog() {
+		if (changes.get() >= REQUIRED_CHANGES_FOR_COMPACTION) {
+			compact(false);
+		} else {
+			disconnect();
+		}
+	}
+
+	@Override
+	protected boolean save(String name, @Nullable String type, @Nullable byte[] value) {
+		return save(List.of(new SerializedVariable(name, type == null || value == null ? null : new Value(type, value))));
+	}
+
+	/**
+	 * Appends all changes to the log, only flushing it once at the end.
+	 */
+	@Override
+	protected boolean save(Collection<SerializedVariable> variables) {
+		synchronized (connectionLock) {
+			DataOutputStream stream = changesStream;
+			Segment log = this.log;
+			if (stream == null || log == null)
+				return false;
+
+			long[] offsets = new long[variables.size()];
+			try {
+				int i = 0;
+				for (SerializedVariable variable : variables) {
+					Value value = variable.value;
+					int written = writeChange(stream, variable.name, value == null ? null : value.type, value == null ? null : value.data);
+					logPosition += written;
+					offsets[i++] = value == null ? -1 : logPosition - value.data.length;
+				}
+				stream.flush();
+			} catch (IOException e) {
+				//noinspection ThrowableNotThrown
+				Skript.exception(e, "Error saving variables to the database '" + getUserConfigurationName() + "'");
+				return false;
+			}
+
+			// The values can only be read once they have been flushed
+			int i = 0;
+			for (SerializedVariable variable : variables) {
+				Value value = variable.value;
+				Lock lock = getLock(variable.name);
+				lock.lock();
+				try {
+					if (value == null) {
+						deleted(variable.name);
+					} else {
+						saved(variable.name, value.type, log, offsets[i], value.data.length);
+					}
+				} finally {
+					lock.unlock();
+				}
+				i++;
+			}
+			changes.addAndGet(variables.size());
+		}
+		return true;
+	}
+
+	/**
+	 * A value that is copied into a new snapshot.
+	 */
+	private record CopiedValue(String name, IndexEntry entry, Segment segment, long offset, int length, String type) {}
+
+	/**
+	 * Moves the segment of the log along with its file, whose channel stays open as it does not depend on the name.
+	 */
+	@Override
+	protected boolean rotateLog() throws IOException {
+		assert compactedLogFile != null;
+		Segment log = this.log;
+		if (compactedLog != null || log == null)
+			return false;
+		// Left over if it could not be deleted after its compaction, its changes are in the snapshot
+		Files.deleteIfExists(compactedLogFile.toPath());
+		Files.move(log.file.toPath(), compactedLogFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		lockAll();
+		try {
+			log.file = compactedLogFile;
+			compactedLog = log;
+			this.log = null;
+		} finally {
+			unlockAll();
+		}
+		return true;
+	}
+
+	/**
+	 * Copies the latest values in the snapshot and the compacted log into a new snapshot, using the {@link #index}.
+	 * Values that are saved meanwhile are appended to the new log, and are thus not copied.
+	 */
+	@Override
+	protected void mergeCompactedLog() throws IOException {
+		assert file != null;
+		Segment oldSnapshot, oldLog;
+		List<CopiedValue> copied = new ArrayList<>();
+		lockAll();
+		try {
+			oldSnapshot = snapshot;
+			oldLog = compactedLog;
+			if (oldLog == null)
+				return;
+			for (Entry<String, IndexEntry> element : index.entrySet()) {
+				IndexEntry entry = element.getValue();
+				if (entry.segment != null && (entry.segment == oldSnapshot || entry.segment == oldLog)) {
+					assert entry.type != null;
+					copied.add(new CopiedValue(element.getKey(), entry, entry.segment, entry.offset, entry.length, entry.type));
+				}
+			}
+		} finally {
+			unlockAll();
+		}
+
+		// Values are only ever appended, so the old segments don't change while they are copied
+		File tempFile = new File(file.getParentFile(), file.getName() + ".temp");
+		long[] offsets = new long[copied.size()];
+		try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+			writeHeader(stream);
+			long position = HEADER_LENGTH;
+			for (int i = 0; i < offsets.length; i++) {
+				CopiedValue value = copied.get(i);
+				ByteBuffer buffer = ByteBuffer.allocate(value.length());
+				long readPosition = value.offset();
+				while (buffer.hasRemaining()) {
+					int read = value.segment().channel.read(buffer, readPosition);
+					if (read == -1)
+						throw new EOFException("The value of {" + value.name() + "} is missing in " + value.segment().file.getName());
+					readPosition += read;
+				}
+				position += writeChange(stream, value.name(), value.type(), buffer.array());
+				offsets[i] = position - value.length();
+			}
+		}
+		FileUtils.move(tempFile, file, true);
+		Segment newSnapshot = new Segment(file);
+
+		lockAll();
+		try {
+			for (int i = 0; i < offsets.length; i++) {
+				CopiedValue value = copied.get(i);
+				IndexEntry entry = value.entry();
+				// Values that were saved again in the meantime are in the new log
+				if (entry.segment == value.segment() && entry.offset == value.offset()) {
+					entry.segment = newSnapshot;
+					entry.offset = offsets[i];
+				}
+			}
+			snapshot = newSnapshot;
+			compactedLog = null;
+			if (oldSnapshot != null)
+				oldSnapshot.close();
+			oldLog.close();
+		} finally {
+			unlockAll();
+		}
+		try {
+			Files.delete(oldLog.file.toPath());
+		} catch (IOException e) {
+			Skript.error("Could not delete " + oldLog.file.getName() + ": " + ExceptionUtils.toString(e));
+		}
+	}
+
+}
@@ -4,6 +4,7 @@ import java.io.File;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 
@@ -19,6 +20,7 @@ import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.registrations.Classes;
 import ch.njol.skript.util.Task;
 import ch.njol.skript.util.Timespan;
+import ch.njol.skript.variables.SerializedVariable.Value;
 import ch.njol.util.SynchronizedReference;
 import lib.PatPeter.SQLibrary.Database;
 import lib.PatPeter.SQLibrary.DatabaseException;
@@ -374,14 +376,21 @@ public abstract class SQLStorage extends VariablesStorage {
 	@Nullable
 	PreparedStatement monitorCleanUpQuery;
 
+	/**
+	 * Prints an error if the given variable is too large to be saved properly.
+	 */
+	private static void checkSize(final String name, final @Nullable byte[] value) {
+		// REMIND get the actual maximum size from the database
+		if (name.length() > MAX_VARIABLE_NAME_LENGTH)
+			Skript.error("The name of the variable {" + name + "} is too long to be saved in a database (length: " + name.length() + ", maximum allowed: " + MAX_VARIABLE_NAME_LENGTH + ")! It will be truncated and won't bet available under the same name again when loaded.");
+		if (value != null && value.length > MAX_VALUE_SIZE)
+			Skript.error("The variable {" + name + "} cannot be saved in the database as its value's size (" + value.length + ") exceeds the maximum allowed size of " + MAX_VALUE_SIZE + "! An attempt to save the variable will be made nonetheless.");
+	}
+
 	@Override
 	protected boolean save(final String name, final @Nullable String type, final @Nullable byte[] value) {
 		synchronized (db) {
-			// REMIND get the actual maximum size from the database
-			if (name.length() > MAX_VARIABLE_NAME_LENGTH)
-				Skript.error("The name of the variable {" + name + "} is too long to be saved in a database (length: " + name.length() + ", maximum allowed: " + MAX_VARIABLE_NAME_LENGTH + ")! It will be truncated and won't bet available under the same name again when loaded.");
-			if (value != null && value.length > MAX_VALUE_SIZE)
-				Skript.error("The variable {" + name + "} cannot be saved in the database as its value's size (" + value.length + ") exceeds the maximum allowed size of " + MAX_VALUE_SIZE + "! An attempt to save the variable will be made nonetheless.");
+			checkSize(name, value);
 			try {
 				if (type == null) {
 					assert value == null;
@@ -407,6 +416,49 @@ public abstract class SQLStorage extends VariablesStorage {
 		return true;
 	}
 
+	/**
+	 * Saves all changes with a single batch of deletions and a single batch of writes,
+	 * which are committed together with all other changes by the transaction committing thread.
+	 */
+	@Override
+	protected boolean save(final Collection<SerializedVariable> variables) {
+		synchronized (db) {
+			final PreparedStatement deleteQuery = this.deleteQuery;
+			final PreparedStatement writeQuery = this.writeQuery;
+			assert deleteQuery != null && writeQuery != null;
+			boolean hasDeletions = false;
+			boolean hasWrites = false;
+			try {
+				// The batch contains at most one change per variable, so the order of deletions and writes doesn't matter
+				for (final SerializedVariable variable : variables) {
+					final Value value = variable.value;
+					checkSize(variable.name, value == null ? null : value.data);
+					if (value == null) {
+						deleteQuery.setString(1, variable.name);
+						deleteQuery.addBatch();
+						hasDeletions = true;
+					} else {
+						int i = 1;
+						writeQuery.setString(i++, variable.name);
+						writeQuery.setString(i++, value.type);
+						writeQuery.setBytes(i++, value.data); // SQLite desn't support setBlob
+						writeQuery.setString(i++, guid);
+						writeQuery.addBatch();
+						hasWrites = true;
+					}
+				}
+				if (hasDeletions)
+					deleteQuery.executeBatch();
+				if (hasWrites)
+					writeQuery.executeBatch();
+			} catch (final SQLException e) {
+				sqlException(e);
+				return false;
+			}
+		}
+		return true;
+	}
+
 	@Override
 	public void close() {
 		synchronized (db) {
@@ -3,6 +3,7 @@ package ch.njol.skript.variables;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 
 import org.jetbrains.annotations.Nullable;
@@ -13,31 +14,32 @@ import org.jetbrains.annotations.Nullable;
  * <ul>
  * <li>EffChange adds then when local variables are set
  * <li>Variable checks them when parser tries to create it
- * <li>ScriptLoader clears hints after each section has been parsed
+ * <li>ScriptLoader clears hints before each structure is loaded
  * <li>ScriptLoader enters and exists scopes as needed
  * </ul>
+ * Type hints are kept per thread, as scripts may be parsed on multiple threads.
  */
 public class TypeHints {
 	
-	private static final Deque<Map<String, Class<?>>> typeHints = new ArrayDeque<>();
-	
-	static {
-		clear(); // Initialize type hints
-	}
+	private static final ThreadLocal<Deque<Map<String, Class<?>>>> typeHints = ThreadLocal.withInitial(() -> {
+		Deque<Map<String, Class<?>>> typeHints = new ArrayDeque<>();
+		typeHints.push(new HashMap<>()); // Initialize type hints
+		return typeHints;
+	});
 	
 	public static void add(String variable, Class<?> hint) {
 		if (hint.equals(Object.class)) // Ignore useless type hint
 			return;
 		
 		// Take top of stack, without removing it
-		Map<String, Class<?>> hints = typeHints.getFirst();
+		Map<String, Class<?>> hints = typeHints.get().getFirst();
 		hints.put(variable, hint);
 	}
 	
 	@Nullable
 	public static Class<?> get(String variable) {
 		// Go through stack of hints for different scopes
-		for (Map<String, Class<?>> hints : typeHints) {
+		for (Map<String, Class<?>> hints : typeHints.get()) {
 			Class<?> hint = hints.get(variable);
 			if (hint != null) // Found in this scope
 				return hint;
@@ -46,15 +48,28 @@ public class TypeHints {
 		return null; // No type hint available
 	}
 	
+	/**
+	 * @return A copy of the type hints visible in the current scope
+	 */
+	public static Map<String, Class<?>> snapshot() {
+		Map<String, Class<?>> snapshot = new HashMap<>();
+		// outermost scope first, so that hints of inner scopes replace them
+		Iterator<Map<String, Class<?>>> scopes = typeHints.get().descendingIterator();
+		while (scopes.hasNext())
+			snapshot.putAll(scopes.next());
+		return snapshot;
+	}
+	
 	public static void enterScope() {
-		typeHints.push(new HashMap<>());
+		typeHints.get().push(new HashMap<>());
 	}
 	
 	public static void exitScope() {
-		typeHints.pop();
+		typeHints.get().pop();
 	}
 	
 	public static void clear() {
+		Deque<Map<String, Class<?>>> typeHints = TypeHints.typeHints.get();
 		typeHints.clear();
 		typeHints.push(new HashMap<>());
 	}
@@ -8,6 +8,7 @@ import ch.njol.skript.classes.ConfigurationSerializer;
 import ch.njol.skript.config.Config;
 import ch.njol.skript.config.Node;
 import ch.njol.skript.config.SectionNode;
+import ch.njol.skript.lang.TriggerFrame;
 import ch.njol.skript.lang.Variable;
 import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.registrations.Classes;
@@ -33,6 +34,7 @@ import org.skriptlang.skript.lang.converter.Converters;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -42,15 +44,14 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.TreeMap;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.regex.Pattern;
 
 /**
@@ -87,6 +88,8 @@ public class Variables {
 	// Register some things with Yggdrasil
 	static {
 		registerStorage(FlatFileStorage.class, "csv", "file", "flatfile");
+		registerStorage(BinaryLogStorage.class, "binary", "binary log");
+		registerStorage(LazyBinaryStorage.class, "lazy binary");
 		registerStorage(SQLiteStorage.class, "sqlite");
 		registerStorage(MySQLStorage.class, "mysql");
 		yggdrasil.registerSingleClass(Kleenean.class, "Kleenean");
@@ -134,6 +137,56 @@ public class Variables {
 		return Collections.unmodifiableList(STORAGES);
 	}
 
+	/**
+	 * Whether any of the {@link #STORAGES} is a {@link LazyBinaryStorage}.
+	 */
+	private static volatile boolean hasLazyStorages = false;
+
+	/**
+	 * The maximum amount of variable names in {@link #storageRoutes},
+	 * which is cleared once it is reached, so that the names of deleted variables don't pile up.
+	 */
+	private static final int MAX_STORAGE_ROUTES = 1 << 16;
+
+	/**
+	 * The storage each variable name has been found to belong to, see {@link #getStorage(String)}.
+	 * Names that no storage accepts are mapped to an empty optional.
+	 * Cleared when a storage is added.
+	 */
+	private static final Map<String, Optional<VariablesStorage>> storageRoutes = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the storage the given variable is saved in, i.e. the first of the {@link #STORAGES} accepting it.
+	 * As checking whether a storage accepts a variable matches its name against a pattern, the result is cached.
+	 *
+	 * @return the storage, or {@code null} if no storage accepts the variable.
+	 */
+	static @Nullable VariablesStorage getStorage(String name) {
+		if (STORAGES.isEmpty())
+			return null;
+		VariablesStorage first = STORAGES.get(0);
+		if (first.getNamePattern() == null) // accepts every variable, nothing to cache
+			return first;
+
+		Optional<VariablesStorage> route = storageRoutes.get(name);
+		if (route == null) {
+			route = STORAGES.stream()
+				.filter(storage -> storage.accept(name))
+				.findFirst();
+			if (storageRoutes.size() >= MAX_STORAGE_ROUTES)
+				storageRoutes.clear();
+			storageRoutes.put(name, route);
+		}
+		return route.orElse(null);
+	}
+
+	/**
+	 * @return the storage of the given variable if it loads its variables when they are used, {@code null} otherwise.
+	 */
+	private static @Nullable LazyBinaryStorage getLazyStorage(String name) {
+		return getStorage(name) instanceof LazyBinaryStorage lazyStorage ? lazyStorage : null;
+	}
+
 	/**
 	 * Register a VariableStorage class for Skript to create if the user config value matches.
 	 *
@@ -252,10 +305,14 @@ public class Variables {
 						Skript.info("Loading database '" + node.getKey() + "'...");
 
 					// Load the variables
-					if (variablesStorage.load(sectionNode))
+					if (variablesStorage.load(sectionNode)) {
 						STORAGES.add(variablesStorage);
-					else
+						storageRoutes.clear();
+						if (variablesStorage instanceof LazyBinaryStorage)
+							hasLazyStorages = true;
+					} else {
 						successful = false;
+					}
 
 					// Get the amount of variables loaded by this variables storage object
 					int newVariablesLoaded;
@@ -318,52 +375,27 @@ public class Variables {
 	}
 
 	/**
-	 * A lock for reading and writing variables.
-	 */
-	static final ReadWriteLock variablesLock = new ReentrantReadWriteLock(true);
-
-	/**
-	 * The {@link VariablesMap} storing global variables,
-	 * must be locked with {@link #variablesLock}.
+	 * The {@link VariablesMap} storing global variables.
+	 * This map is concurrent, so it does not need any external locking.
 	 */
-	static final VariablesMap variables = new VariablesMap();
+	static final VariablesMap variables = new VariablesMap(true);
 
 	/**
-	 * A map storing all local variables,
+	 * A map storing the local variables of events
+	 * that no {@link TriggerFrame} is currently entered for,
 	 * indexed by their {@link Event}.
 	 */
 	private static final Map<Event, VariablesMap> localVariables = new ConcurrentHashMap<>();
 
-	/**
-	 * Gets the {@link TreeMap} of all global variables.
-	 * <p>
-	 * Remember to lock with {@link #getReadLock()} and to not make any changes!
-	 */
-	static TreeMap<String, Object> getVariables() {
-		return variables.treeMap;
-	}
-
 	/**
 	 * Gets the {@link Map} of all global variables.
 	 * <p>
 	 * This map cannot be modified.
-	 * Remember to lock with {@link #getReadLock()}!
 	 */
 	static Map<String, Object> getVariablesHashMap() {
 		return Collections.unmodifiableMap(variables.hashMap);
 	}
 
-	/**
-	 * Gets the lock for reading variables.
-	 *
-	 * @return the lock.
-	 *
-	 * @see #variablesLock
-	 */
-	static Lock getReadLock() {
-		return variablesLock.readLock();
-	}
-
 	/**
 	 * Removes local variables associated with given event and returns them,
 	 * if they exist.
@@ -374,9 +406,39 @@ public class Variables {
 	 */
 	@Nullable
 	public static VariablesMap removeLocals(Event event) {
+		TriggerFrame frame = TriggerFrame.current(event);
+		if (frame != null) {
+			VariablesMap map = (VariablesMap) frame.getLocals();
+			frame.setLocals(null);
+			return map;
+		}
 		return localVariables.remove(event);
 	}
 
+	/**
+	 * Gets the local variables of the given event, from its current {@link TriggerFrame} if there is one.
+	 */
+	@Nullable
+	private static VariablesMap getLocals(Event event) {
+		TriggerFrame frame = TriggerFrame.current(event);
+		if (frame != null)
+			return (VariablesMap) frame.getLocals();
+		return localVariables.get(event);
+	}
+
+	/**
+	 * Gets the local variables of the given event, creating them if it has none yet.
+	 */
+	private static VariablesMap getOrCreateLocals(Event event) {
+		TriggerFrame frame = TriggerFrame.current(event);
+		if (frame == null)
+			return localVariables.computeIfAbsent(event, e -> new VariablesMap());
+		VariablesMap map = (VariablesMap) frame.getLocals();
+		if (map == null)
+			frame.setLocals(map = new VariablesMap());
+		return map;
+	}
+
 	/**
 	 * Sets local variables associated with given event.
 	 * <p>
@@ -389,7 +451,10 @@ public class Variables {
 	 * @param map the new local variables.
 	 */
 	public static void setLocalVariables(Event event, @Nullable Object map) {
-		if (map != null) {
+		TriggerFrame frame = TriggerFrame.current(event);
+		if (frame != null) {
+			frame.setLocals(map);
+		} else if (map != null) {
 			localVariables.put(event, (VariablesMap) map);
 		} else {
 			removeLocals(event);
@@ -404,7 +469,7 @@ public class Variables {
 	 * @return the copy.
 	 */
 	public static @Nullable Object copyLocalVariables(Event event) {
-		VariablesMap from = localVariables.get(event);
+		VariablesMap from = getLocals(event);
 		if (from == null)
 			return null;
 
@@ -451,33 +516,19 @@ public class Variables {
 		}
 
 		if (local) {
-			VariablesMap map = localVariables.get(event);
+			assert event != null : name;
+			VariablesMap map = getLocals(event);
 			if (map == null)
 				return null;
 
 			return map.getVariable(n);
 		} else {
-			// Prevent race conditions from returning variables with incorrect values
-			if (!changeQueue.isEmpty()) {
-				// Gets the last VariableChange made
-				VariableChange variableChange = changeQueue.stream()
-						.filter(change -> change.name.equals(n))
-						.reduce((first, second) -> second)
-								// Gets last value, as iteration is from head to tail,
-								//  and adding occurs at the tail (and we want the most recently added)
-						.orElse(null);
-
-				if (variableChange != null) {
-					return variableChange.value;
-				}
-			}
-
-			try {
-				variablesLock.readLock().lock();
-				return variables.getVariable(n);
-			} finally {
-				variablesLock.readLock().unlock();
+			if (hasLazyStorages && (n.endsWith("*") || !variables.hashMap.containsKey(n))) {
+				LazyBinaryStorage storage = getLazyStorage(n);
+				if (storage != null)
+					storage.loadVariable(n);
 			}
+			return variables.getVariable(n);
 		}
 	}
 
@@ -499,9 +550,12 @@ public class Variables {
 		if (val == null)
 			return new EmptyIterator<>();
 		assert val instanceof TreeMap;
-		// temporary list to prevent CMEs
+		// temporary list to prevent CMEs, copied under the lock of the list as other threads may change it
+		VariablesMap map = local ? getLocals(event) : variables;
+		assert map != null;
 		@SuppressWarnings("unchecked")
-		Iterator<String> keys = new ArrayList<>(((Map<String, Object>) val).keySet()).iterator();
+		Iterator<String> keys = map.copyIndices(caseInsensitiveVariables ? name.toLowerCase(Locale.ENGLISH) : name,
+			(Map<String, Object>) val).iterator();
 		return new Iterator<>() {
 			@Nullable
 			private String key;
@@ -574,113 +628,98 @@ public class Variables {
 		// Check if conversion is needed due to ClassInfo#getSerializeAs
 		if (value != null) {
 			assert !name.endsWith("::*");
-
-			ClassInfo<?> ci = Classes.getSuperClassInfo(value.getClass());
-			Class<?> sas = ci.getSerializeAs();
-
-			if (sas != null) {
-				value = Converters.convert(value, sas);
-				assert value != null : ci + ", " + sas;
-			}
+			value = convertToSerializeAs(value);
 		}
 
 		if (local) {
 			assert event != null : name;
 
 			// Get the variables map and set the variable in it
-			VariablesMap map = localVariables.computeIfAbsent(event, e -> new VariablesMap());
-			map.setVariable(name, value);
+			getOrCreateLocals(event).setVariable(name, value);
 		} else {
 			setVariable(name, value);
 		}
 	}
 
 	/**
-	 * Sets the given global variable name to the given value.
-	 *
-	 * @param name the variable name.
-	 * @param value the value, or {@code null} to delete the variable.
+	 * Converts the given value to the class it is serialized as, if its class is {@link ClassInfo#getSerializeAs() serialized as another class}.
 	 */
-	static void setVariable(String name, @Nullable Object value) {
-		boolean gotLock = variablesLock.writeLock().tryLock();
-		if (gotLock) {
-			try {
-				// Set the variable
-				variables.setVariable(name, value);
-				// ..., save the variable change
-				saveVariableChange(name, value);
-				// ..., and process all previously queued changes
-				processChangeQueue();
-			} finally {
-				variablesLock.writeLock().unlock();
-			}
-		} else {
-			// Couldn't acquire variable write lock, queue the change (blocking here is a bad idea)
-			queueVariableChange(name, value);
+	private static Object convertToSerializeAs(Object value) {
+		ClassInfo<?> ci = Classes.getSuperClassInfo(value.getClass());
+		Class<?> sas = ci.getSerializeAs();
+
+		if (sas != null) {
+			value = Converters.convert(value, sas);
+			assert value != null : ci + ", " + sas;
 		}
+		return value;
 	}
 
 	/**
-	 * Changes to variables that have not yet been performed.
-	 */
-	static final Queue<VariableChange> changeQueue = new ConcurrentLinkedQueue<>();
-
-	/**
-	 * A variable change name-value pair.
-	 */
-	private static class VariableChange {
-
-		/**
-		 * The name of the changed variable.
-		 */
-		public final String name;
+	 * Sets the elements {@code 1} to {@code n} of a local list variable to the given values,
+	 * e.g. to bind the values of a function parameter.
+	 * <p>
+	 * This is the same as setting each element with {@link #setVariable(String, Object, Event, boolean)},
+	 * but does not look up the list variable again for every element.
+	 *
+	 * @param name the name of the list variable, without {@code ::*}.
+	 * @param elementNames the names of the elements, i.e. {@code name::1}, {@code name::2} and so on,
+	 *                        at least as many as there are values.
+	 * @param values the values, none of which may be {@code null}.
+	 * @param event the event the local variables reside in.
+	 */
+	public static void setLocalList(String name, String[] elementNames, Object[] values, Event event) {
+		if (name.contains(Variable.SEPARATOR)) {
+			// the list is not at the top level of the variables tree
+			for (int i = 0; i < values.length; i++)
+				setVariable(elementNames[i], values[i], event, true);
+			return;
+		}
 
-		/**
-		 * The (possibly {@code null}) value of the variable change.
-		 */
-		@Nullable
-		public final Object value;
+		if (caseInsensitiveVariables) {
+			name = name.toLowerCase(Locale.ENGLISH);
+			String[] lowerCaseNames = null;
+			for (int i = 0; i < values.length; i++) {
+				String elementName = elementNames[i];
+				String lowerCaseName = elementName.toLowerCase(Locale.ENGLISH);
+				if (lowerCaseNames == null && !lowerCaseName.equals(elementName))
+					lowerCaseNames = Arrays.copyOf(elementNames, values.length);
+				if (lowerCaseNames != null)
+					lowerCaseNames[i] = lowerCaseName;
+			}
+			if (lowerCaseNames != null)
+				elementNames = lowerCaseNames;
+		}
 
-		/**
-		 * Creates a new {@link VariableChange} with the given name and value.
-		 *
-		 * @param name the variable name.
-		 * @param value the new variable value.
-		 */
-		public VariableChange(String name, @Nullable Object value) {
-			this.name = name;
-			this.value = value;
+		Object[] converted = values;
+		for (int i = 0; i < values.length; i++) {
+			Object value = convertToSerializeAs(values[i]);
+			if (value != values[i]) {
+				if (converted == values)
+					converted = values.clone();
+				converted[i] = value;
+			}
 		}
 
+		getOrCreateLocals(event).setList(name, elementNames, converted);
 	}
 
 	/**
-	 * Queues a variable change. Only to be called when direct write is not
-	 * possible, but thread cannot be allowed to block.
+	 * Sets the given global variable name to the given value.
+	 * <p>
+	 * The change is immediately visible to {@link #getVariable(String, Event, boolean)}.
 	 *
 	 * @param name the variable name.
-	 * @param value the new value.
+	 * @param value the value, or {@code null} to delete the variable.
 	 */
-	private static void queueVariableChange(String name, @Nullable Object value) {
-		changeQueue.add(new VariableChange(name, value));
-	}
-
-	/**
-	 * Processes all entries in variable change queue.
-	 * <p>
-	 * Note that caller must acquire write lock before calling this,
-	 * then release it.
-	 */
-	static void processChangeQueue() {
-		while (true) { // Run as long as we still have changes
-			VariableChange change = changeQueue.poll();
-			if (change == null)
-				break;
-
-			// Set and save variable
-			variables.setVariable(change.name, change.value);
-			saveVariableChange(change.name, change.value);
+	static void setVariable(String name, @Nullable Object value) {
+		if (hasLazyStorages) {
+			LazyBinaryStorage storage = getLazyStorage(name);
+			if (storage != null)
+				storage.changeVariable(name);
 		}
+		variables.setVariable(name, value);
+		saveVariableChange(name, value);
 	}
 
 	/**
@@ -767,12 +806,7 @@ public class Variables {
 			}
 		}
 
-		variablesLock.writeLock().lock();
-		try {
-			variables.setVariable(name, value);
-		} finally {
-			variablesLock.writeLock().unlock();
-		}
+		variables.setVariable(name, value);
 
 		// Move the variable to the right storage
 		try {
@@ -821,24 +855,19 @@ public class Variables {
 			TEMP_VARIABLES.set(null);
 			assert tvs != null;
 
-			variablesLock.writeLock().lock();
-			try {
-				// Calculate the amount of variables that don't have a storage
-				int unstoredVariables = 0;
-				for (Entry<String, NonNullPair<Object, VariablesStorage>> tv : tvs.entrySet()) {
-					if (!variableLoaded(tv.getKey(), tv.getValue().getFirst(), tv.getValue().getSecond()))
-						unstoredVariables++;
-				}
+			// Calculate the amount of variables that don't have a storage
+			int unstoredVariables = 0;
+			for (Entry<String, NonNullPair<Object, VariablesStorage>> tv : tvs.entrySet()) {
+				if (!variableLoaded(tv.getKey(), tv.getValue().getFirst(), tv.getValue().getSecond()))
+					unstoredVariables++;
+			}
 
-				for (VariablesStorage variablesStorage : STORAGES)
-					variablesStorage.allLoaded();
+			for (VariablesStorage variablesStorage : STORAGES)
+				variablesStorage.allLoaded();
 
-				Skript.debug("Variables set. Queue size = " + saveQueue.size());
+			Skript.debug("Variables set. Queue size = " + saveQueue.size());
 
-				return unstoredVariables;
-			} finally {
-				variablesLock.writeLock().unlock();
-			}
+			return unstoredVariables;
 		}
 	}
 
@@ -846,15 +875,14 @@ public class Variables {
 	 * Creates a {@link SerializedVariable} from the given variable name
 	 * and value.
 	 * <p>
-	 * Must be called from Bukkit's main thread.
+	 * Must be called from Bukkit's main thread, unless the value is a
+	 * {@link Classes#snapshotForSerialization(Object) snapshot} that can be serialized asynchronously.
 	 *
 	 * @param name the variable name.
 	 * @param value the value.
 	 * @return the serialized variable.
 	 */
 	public static SerializedVariable serialize(String name, @Nullable Object value) {
-		assert Bukkit.isPrimaryThread();
-
 		// First, serialize the variable.
 		SerializedVariable.Value var;
 		try {
@@ -869,32 +897,53 @@ public class Variables {
 	/**
 	 * Serializes the given value.
 	 * <p>
-	 * Must be called from Bukkit's main thread.
+	 * Must be called from Bukkit's main thread, unless the value is a
+	 * {@link Classes#snapshotForSerialization(Object) snapshot} that can be serialized asynchronously.
 	 *
 	 * @param value the value to serialize.
 	 * @return the serialized value.
 	 */
 	public static SerializedVariable.@Nullable Value serialize(@Nullable Object value) {
-		assert Bukkit.isPrimaryThread();
-
 		return Classes.serialize(value);
 	}
 
 	/**
-	 * Serializes and adds the variable change to the {@link #saveQueue}.
+	 * Adds the variable change to the {@link #saveQueue}.
+	 * <p>
+	 * Values whose serializer is thread-safe are only copied here, and serialized
+	 * by the {@link #serializationExecutor}, while all other values are serialized immediately.
 	 *
 	 * @param name the variable name.
 	 * @param value the value of the variable.
 	 */
 	private static void saveVariableChange(String name, @Nullable Object value) {
-		saveQueue.add(serialize(name, value));
+		assert Bukkit.isPrimaryThread(); // required by serialisation
+
+		Object snapshot = value == null ? null : Classes.snapshotForSerialization(value);
+		if (snapshot == null) {
+			saveQueue.add(CompletableFuture.completedFuture(serialize(name, value)));
+			return;
+		}
+		saveQueue.add(CompletableFuture.supplyAsync(() -> serialize(name, snapshot), serializationExecutor));
 	}
 
 	/**
-	 * The queue of serialized variables that have not yet been written
-	 * to the storage.
+	 * The queue of variable changes that have not yet been written
+	 * to the storage, in the order they were made.
+	 * Changes may still be being serialized by the {@link #serializationExecutor}.
+	 */
+	static final BlockingQueue<CompletableFuture<SerializedVariable>> saveQueue = new LinkedBlockingQueue<>();
+
+	/**
+	 * The threads that serialize values which can be serialized off Bukkit's main thread.
 	 */
-	static final BlockingQueue<SerializedVariable> saveQueue = new LinkedBlockingQueue<>();
+	private static final ExecutorService serializationExecutor = Executors.newFixedThreadPool(
+		Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)),
+		runnable -> {
+			Thread thread = Skript.newThread(runnable, "Skript variable serialization thread");
+			thread.setDaemon(true);
+			return thread;
+		});
 
 	/**
 	 * Whether the {@link #saveThread} should be stopped.
@@ -907,35 +956,26 @@ public class Variables {
 	private static final Thread saveThread = Skript.newThread(() -> {
 		while (!closed) {
 			try {
-				// Save one variable change
-				SerializedVariable variable = saveQueue.take();
-
-				for (VariablesStorage variablesStorage : STORAGES) {
-					if (variablesStorage.accept(variable.name)) {
-						variablesStorage.save(variable);
-
-						break;
-					}
+				// Save one variable change, waiting for it to be serialized if necessary
+				SerializedVariable variable;
+				try {
+					variable = saveQueue.take().join();
+				} catch (CompletionException e) {
+					continue; // already reported by serialize(String, Object)
 				}
+
+				VariablesStorage storage = getStorage(variable.name);
+				if (storage != null)
+					storage.save(variable);
 			} catch (InterruptedException ignored) {}
 		}
 	}, "Skript variable save thread");
 
 	/**
-	 * Closes the variable systems:
-	 * <ul>
-	 *     <li>Process all changes left in the {@link #changeQueue}.</li>
-	 *     <li>Stops the {@link #saveThread}.</li>
-	 * </ul>
+	 * Closes the variable systems, stopping the {@link #saveThread}
+	 * once all changes have been saved.
 	 */
 	public static void close() {
-		try { // Ensure that all changes are to save soon
-			variablesLock.writeLock().lock();
-			processChangeQueue();
-		} finally {
-			variablesLock.writeLock().unlock();
-		}
-
 		// First, make sure all variables are saved
 		while (saveQueue.size() > 0) {
 			try {
@@ -943,9 +983,10 @@ public class Variables {
 			} catch (InterruptedException ignored) {}
 		}
 
-		// Then we can safely interrupt and stop the thread
+		// Then we can safely interrupt and stop the threads
 		closed = true;
 		saveThread.interrupt();
+		serializationExecutor.shutdown();
 	}
 
 	/**
@@ -954,12 +995,7 @@ public class Variables {
 	 * @return the amount of variables.
 	 */
 	public static int numVariables() {
-		try {
-			variablesLock.readLock().lock();
-			return variables.hashMap.size();
-		} finally {
-			variablesLock.readLock().unlock();
-		}
+		return variables.hashMap.size();
 	}
 
 }
@@ -4,14 +4,29 @@ import ch.njol.skript.lang.Variable;
 import ch.njol.util.StringUtils;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NavigableMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
 
 /**
  * A map for storing variables in a sorted and efficient manner.
+ * <p>
+ * A map created with {@link #VariablesMap(boolean) concurrent} set to {@code true}
+ * may be accessed by multiple threads at once. Non-list variables can then be read without any locking,
+ * while the tree of list variables is guarded by a set of striped locks,
+ * one of which is chosen by the first part of the variable name (e.g. {@code list} for {@code list::1}).
+ * This way, changes to unrelated variables never wait for each other.
  */
 final class VariablesMap {
 
@@ -120,14 +135,94 @@ final class VariablesMap {
 		return 0;
 	};
 
+	/**
+	 * The amount of locks guarding the {@link #treeMap} of a concurrent map.
+	 * Must be a power of two.
+	 */
+	private static final int LOCK_STRIPES = 64;
+
 	/**
 	 * The map that stores all non-list variables.
 	 */
-	final HashMap<String, Object> hashMap = new HashMap<>();
+	final Map<String, Object> hashMap;
+
 	/**
 	 * The tree of variables, branched by the list structure of the variables.
+	 * <p>
+	 * Only the root of this tree may be a concurrent map,
+	 * all branches are {@link TreeMap}s guarded by the lock of their stripe.
+	 */
+	final NavigableMap<String, Object> treeMap;
+
+	/**
+	 * The striped locks guarding the branches of the {@link #treeMap},
+	 * or {@code null} if this map is not concurrent.
+	 *
+	 * @see #getLock(String)
+	 */
+	private final ReadWriteLock @Nullable [] locks;
+
+	/**
+	 * Creates a new map that is not safe for concurrent use,
+	 * e.g. for local variables.
+	 */
+	VariablesMap() {
+		this(false);
+	}
+
+	/**
+	 * Creates a new map.
+	 *
+	 * @param concurrent whether this map may be accessed by multiple threads at once.
+	 */
+	VariablesMap(boolean concurrent) {
+		if (concurrent) {
+			hashMap = new ConcurrentHashMap<>();
+			treeMap = new ConcurrentSkipListMap<>();
+			locks = new ReadWriteLock[LOCK_STRIPES];
+			for (int i = 0; i < LOCK_STRIPES; i++)
+				locks[i] = new ReentrantReadWriteLock();
+		} else {
+			hashMap = new HashMap<>();
+			treeMap = new TreeMap<>();
+			locks = null;
+		}
+	}
+
+	/**
+	 * Gets the lock guarding the branch of the given variable,
+	 * which is chosen by the first part of the variable name.
+	 *
+	 * @param name the variable name.
+	 * @return the lock, or {@code null} if this map is not concurrent.
+	 */
+	private @Nullable ReadWriteLock getLock(String name) {
+		if (locks == null)
+			return null;
+		return locks[stripe(name, LOCK_STRIPES)];
+	}
+
+	/**
+	 * Chooses the stripe of the given variable by the first part of its name,
+	 * so that a list variable and all of its elements are in the same stripe.
+	 *
+	 * @param name the variable name.
+	 * @param stripes the amount of stripes, must be a power of two.
+	 * @return the index of the stripe.
 	 */
-	final TreeMap<String, Object> treeMap = new TreeMap<>();
+	static int stripe(String name, int stripes) {
+		// Same as the hash code of the first part of the name, without creating that substring
+		int end = name.indexOf(Variable.SEPARATOR);
+		if (end == -1)
+			end = name.length();
+		int hash = 0;
+		for (int i = 0; i < end; i++)
+			hash = 31 * hash + name.charAt(i);
+
+		// Spread the higher bits, as String hashes of similar names only differ in the lower ones
+		hash ^= hash >>> 16;
+		return hash & (stripes - 1);
+	}
 
 	/**
 	 * Returns the internal value of the requested variable.
@@ -139,43 +234,85 @@ final class VariablesMap {
 	 * {@code Map<String, Object>} for a list variable,
 	 * or {@code null} if the variable is not set.
 	 */
-	@SuppressWarnings("unchecked")
 	@Nullable
 	Object getVariable(String name) {
 		if (!name.endsWith("*")) {
 			// Not a list variable, quick access from the hash map
 			return hashMap.get(name);
-		} else {
-			// List variable, search the tree branches
-			String[] split = Variables.splitVariableName(name);
-			Map<String, Object> parent = treeMap;
-
-			// Iterate over the parts of the variable name
-			for (int i = 0; i < split.length; i++) {
-				String n = split[i];
-				if (n.equals("*")) {
-					// End of variable name, return map
-					assert i == split.length - 1;
-					return parent;
-				}
+		}
 
-				// Check if the current (sub-)tree has the expected child node
-				Object childNode = parent.get(n);
-				if (childNode == null)
-					return null;
+		ReadWriteLock lock = getLock(name);
+		if (lock == null)
+			return getListVariable(name);
 
-				// Continue the iteration if the child node is a tree itself
-				if (childNode instanceof Map) {
-					// Continue iterating with the subtree
-					parent = (Map<String, Object>) childNode;
-					assert i != split.length - 1;
-				} else {
-					// ..., otherwise the list variable doesn't exist here
-					return null;
-				}
+		lock.readLock().lock();
+		try {
+			return getListVariable(name);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Copies the indices of the given list variable, as returned by {@link #getVariable(String)} for the same name.
+	 * If this map is concurrent, the copy is made while holding the read lock of the variable's stripe,
+	 * so that the list is not changed while it is being copied.
+	 *
+	 * @param name the name of the list variable.
+	 * @param list the map of the list variable.
+	 * @return the indices of the list, including {@code null} if the list variable itself has a value.
+	 */
+	List<String> copyIndices(String name, Map<String, Object> list) {
+		ReadWriteLock lock = getLock(name);
+		if (lock == null)
+			return new ArrayList<>(list.keySet());
+
+		lock.readLock().lock();
+		try {
+			return new ArrayList<>(list.keySet());
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Searches the branches of the {@link #treeMap} for the given list variable.
+	 * <p>
+	 * The caller must hold the read lock of the variable's stripe, if this map is concurrent.
+	 *
+	 * @param name the name of the list variable.
+	 * @return the {@code Map<String, Object>} of the list variable, or {@code null} if it is not set.
+	 */
+	@SuppressWarnings("unchecked")
+	private @Nullable Object getListVariable(String name) {
+		String[] split = Variables.splitVariableName(name);
+		Map<String, Object> parent = treeMap;
+
+		// Iterate over the parts of the variable name
+		for (int i = 0; i < split.length; i++) {
+			String n = split[i];
+			if (n.equals("*")) {
+				// End of variable name, return map
+				assert i == split.length - 1;
+				return parent;
+			}
+
+			// Check if the current (sub-)tree has the expected child node
+			Object childNode = parent.get(n);
+			if (childNode == null)
+				return null;
+
+			// Continue the iteration if the child node is a tree itself
+			if (childNode instanceof Map) {
+				// Continue iterating with the subtree
+				parent = (Map<String, Object>) childNode;
+				assert i != split.length - 1;
+			} else {
+				// ..., otherwise the list variable doesn't exist here
+				return null;
 			}
-			return null;
 		}
+		return null;
 	}
 
 	/**
@@ -187,8 +324,110 @@ final class VariablesMap {
 	 * @param name the variable name.
 	 * @param value the variable value, {@code null} to delete the variable.
 	 */
-	@SuppressWarnings("unchecked")
 	void setVariable(String name, @Nullable Object value) {
+		ReadWriteLock lock = getLock(name);
+		if (lock == null) {
+			setVariable_i(name, value);
+			return;
+		}
+
+		lock.writeLock().lock();
+		try {
+			setVariable_i(name, value);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Sets the elements {@code 1} to {@code n} of the given list variable to the given values,
+	 * which is the same as setting each of them with {@link #setVariable(String, Object)},
+	 * but only looks the list up once.
+	 *
+	 * @param name the name of the list variable, without {@code ::*}. Must not contain a {@link Variable#SEPARATOR}.
+	 * @param elementNames the names of the elements, i.e. {@code name::1} and so on, at least as many as there are values.
+	 * @param values the values of the elements, none of which may be {@code null}.
+	 */
+	void setList(String name, String[] elementNames, Object[] values) {
+		assert !name.contains(Variable.SEPARATOR) : name;
+		if (values.length == 0)
+			return;
+
+		ReadWriteLock lock = getLock(name);
+		if (lock == null) {
+			setList_i(name, elementNames, values);
+			return;
+		}
+
+		lock.writeLock().lock();
+		try {
+			setList_i(name, elementNames, values);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void setList_i(String name, String[] elementNames, Object[] values) {
+		Object node = treeMap.get(name);
+		TreeMap<String, Object> list;
+		if (node instanceof TreeMap) {
+			list = (TreeMap<String, Object>) node;
+		} else {
+			list = new TreeMap<>(VARIABLE_NAME_COMPARATOR);
+			if (node != null) // the list variable itself has a value
+				list.put(null, node);
+			treeMap.put(name, list);
+		}
+
+		for (int i = 0; i < values.length; i++) {
+			Object value = values[i];
+			assert value != null : elementNames[i];
+			hashMap.put(elementNames[i], value);
+
+			String index = listIndex(i + 1);
+			Object element = list.get(index);
+			if (element instanceof TreeMap) {
+				// the element is a list itself
+				((TreeMap<String, Object>) element).put(null, value);
+			} else {
+				list.put(index, value);
+			}
+		}
+	}
+
+	/**
+	 * The indices {@code "1"}, {@code "2"} and so on, see {@link #listIndex(int)}.
+	 */
+	private static volatile String[] listIndices = new String[0];
+
+	/**
+	 * @return the string of the given positive list index, which is cached for small indices.
+	 */
+	private static String listIndex(int index) {
+		String[] listIndices = VariablesMap.listIndices;
+		if (index <= listIndices.length)
+			return listIndices[index - 1];
+		if (index > 1024)
+			return Integer.toString(index);
+
+		String[] grown = Arrays.copyOf(listIndices, Math.max(index, Math.min(listIndices.length * 2, 1024)));
+		for (int i = listIndices.length; i < grown.length; i++)
+			grown[i] = Integer.toString(i + 1);
+		VariablesMap.listIndices = grown;
+		return grown[index - 1];
+	}
+
+	/**
+	 * Sets the given variable to the given value.
+	 * <p>
+	 * The caller must hold the write lock of the variable's stripe, if this map is concurrent.
+	 *
+	 * @param name the variable name.
+	 * @param value the variable value, {@code null} to delete the variable.
+	 */
+	@SuppressWarnings("unchecked")
+	private void setVariable_i(String name, @Nullable Object value) {
 		// First update the hash map easily
 		if (!name.endsWith("*")) {
 			if (value == null)
@@ -199,7 +438,7 @@ final class VariablesMap {
 
 		// Then update the tree map by going down the branches
 		String[] split = Variables.splitVariableName(name);
-		TreeMap<String, Object> parent = treeMap;
+		NavigableMap<String, Object> parent = treeMap;
 
 		// Iterate over the parts of the variable name
 		for (int i = 0; i < split.length; i++) {
@@ -309,6 +548,9 @@ final class VariablesMap {
 
 	/**
 	 * Creates a copy of this map.
+	 * <p>
+	 * The copy is not concurrent, and this method does not lock,
+	 * so it should only be used for maps of local variables.
 	 *
 	 * @return the copy.
 	 */
@@ -317,12 +559,58 @@ final class VariablesMap {
 
 		copy.hashMap.putAll(hashMap);
 
-		TreeMap<String, Object> treeMapCopy = copyTreeMap(treeMap);
-		copy.treeMap.putAll(treeMapCopy);
+		for (Entry<String, Object> child : treeMap.entrySet())
+			copy.treeMap.put(child.getKey(), copyNode(child.getValue()));
 
 		return copy;
 	}
 
+	/**
+	 * Performs the given action for each entry in the root of the {@link #treeMap},
+	 * in the order of the tree.
+	 * <p>
+	 * If this map is concurrent, the action receives a deep copy of each entry,
+	 * which is made while only holding the read lock of its stripe.
+	 * The action itself is performed without holding any lock,
+	 * and changes made to the map during the iteration may or may not be visible to it.
+	 *
+	 * @param action the action to perform for the name and node of each entry.
+	 */
+	void forEachTreeEntry(BiConsumer<String, Object> action) {
+		for (String key : treeMap.keySet()) {
+			Object node;
+			ReadWriteLock lock = getLock(key);
+			if (lock == null) {
+				node = treeMap.get(key);
+			} else {
+				lock.readLock().lock();
+				try {
+					node = treeMap.get(key);
+					if (node != null)
+						node = copyNode(node);
+				} finally {
+					lock.readLock().unlock();
+				}
+			}
+
+			if (node != null)
+				action.accept(key, node);
+		}
+	}
+
+	/**
+	 * Copies the given node of the tree, making a deep copy if it is a branch.
+	 *
+	 * @param node the node to copy.
+	 * @return the copy.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Object copyNode(Object node) {
+		if (node instanceof TreeMap)
+			return copyTreeMap((TreeMap<String, Object>) node);
+		return node;
+	}
+
 	/**
 	 * Makes a deep copy of the given {@link TreeMap}.
 	 * <p>
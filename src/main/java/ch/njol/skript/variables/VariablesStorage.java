@@ -3,7 +3,11 @@ package ch.njol.skript.variables;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.regex.Pattern;
@@ -45,6 +49,14 @@ public abstract class VariablesStorage implements Closeable {
 	 */
 	private static final int FIRST_WARNING = 300;
 
+	/**
+	 * The default maximum amount of variable changes
+	 * that are written to the storage at once.
+	 *
+	 * @see #batchSize
+	 */
+	private static final int DEFAULT_BATCH_SIZE = QUEUE_SIZE;
+
 	final LinkedBlockingQueue<SerializedVariable> changesQueue = new LinkedBlockingQueue<>(QUEUE_SIZE);
 
 	/**
@@ -76,6 +88,12 @@ public abstract class VariablesStorage implements Closeable {
 	@Nullable
 	private Pattern variableNamePattern;
 
+	/**
+	 * The maximum amount of variable changes the {@link #writeThread}
+	 * passes to {@link #save(Collection)} at once.
+	 */
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
 	/**
 	 * The thread used for writing variables to the storage.
 	 */
@@ -95,24 +113,52 @@ public abstract class VariablesStorage implements Closeable {
 		databaseType = type;
 
 		writeThread = Skript.newThread(() -> {
+			List<SerializedVariable> batch = new ArrayList<>();
 			while (!closed) {
 				try {
-					// Take a variable from the queue and process it
-					SerializedVariable variable = changesQueue.take();
-					Value value = variable.value;
-
-					// Actually save the variable
-					if (value != null)
-						save(variable.name, value.type, value.data);
-					else
-						save(variable.name, null, null);
+					// Wait for a variable change, then take all other queued changes along with it
+					batch.add(changesQueue.take());
+					changesQueue.drainTo(batch, batchSize - 1);
+
+					// Actually save the variables
+					if (save(coalesce(batch)))
+						changesSaved(batch);
 				} catch (InterruptedException ignored) {
 					// Ignored as the `closed` field will indicate whether the thread actually needs to stop
+				} finally {
+					batch.clear();
 				}
 			}
 		}, "Skript variable save thread for database '" + type + "'");
 	}
 
+	/**
+	 * Removes all but the last change to each variable from the given batch.
+	 * The last changes keep their order, as deleting a list variable also deletes the elements changed before it.
+	 *
+	 * @param batch the variable changes, in the order they were made.
+	 * @return the last change to each variable, in the order they were made.
+	 */
+	static Collection<SerializedVariable> coalesce(List<SerializedVariable> batch) {
+		if (batch.size() == 1)
+			return batch;
+
+		Map<String, SerializedVariable> lastChanges = new LinkedHashMap<>();
+		for (SerializedVariable variable : batch) {
+			// moved to the end, after the changes it follows
+			lastChanges.remove(variable.name);
+			lastChanges.put(variable.name, variable);
+		}
+		return lastChanges.values();
+	}
+
+	/**
+	 * Called on the {@link #writeThread} once the given changes have been saved.
+	 *
+	 * @param changes all changes that have been saved, including the ones that were {@link #coalesce(List) coalesced}.
+	 */
+	void changesSaved(List<SerializedVariable> changes) {}
+
 	/**
 	 * Get the config name of a database
 	 * <p>
@@ -206,6 +252,18 @@ public abstract class VariablesStorage implements Closeable {
 			return false;
 		}
 
+		// The batch size is optional, as most users won't need to change it
+		String batchSize = sectionNode.get("batch size", "" + DEFAULT_BATCH_SIZE);
+		try {
+			this.batchSize = Integer.parseInt(batchSize);
+		} catch (NumberFormatException ignored) {
+			this.batchSize = -1;
+		}
+		if (this.batchSize < 1) {
+			Skript.error("The entry for 'batch size' in the database '" + databaseName + "' must be a positive integer");
+			return false;
+		}
+
 		if (requiresFile()) {
 			// Initialize file
 			String fileName = getValue(sectionNode, "file");
@@ -313,8 +371,7 @@ public abstract class VariablesStorage implements Closeable {
 	protected abstract File getFile(String fileName);
 
 	/**
-	 * Must be locked after {@link Variables#getReadLock()}
-	 * (if that lock is used at all).
+	 * Guards the connection to the database.
 	 */
 	protected final Object connectionLock = new Object();
 
@@ -509,4 +566,29 @@ public abstract class VariablesStorage implements Closeable {
 	 */
 	protected abstract boolean save(String name, @Nullable String type, @Nullable byte[] value);
 
+	/**
+	 * Saves a batch of variable changes.
+	 * <p>
+	 * This is called from the {@link #writeThread}.
+	 * The batch contains at most one change per variable name.
+	 * <p>
+	 * The default implementation calls {@link #save(String, String, byte[])}
+	 * for each change. Storages that can write multiple changes at once
+	 * (e.g. in a single database round-trip) should override this method.
+	 *
+	 * @param variables the variable changes to save.
+	 * @return Whether all variables were saved.
+	 */
+	protected boolean save(Collection<SerializedVariable> variables) {
+		boolean saved = true;
+		for (SerializedVariable variable : variables) {
+			Value value = variable.value;
+			if (value != null)
+				saved &= save(variable.name, value.type, value.data);
+			else
+				saved &= save(variable.name, null, null);
+		}
+		return saved;
+	}
+
 }
@@ -9,9 +9,7 @@ import java.io.NotSerializableException;
 import java.io.StreamCorruptedException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -45,6 +43,12 @@ public final class Fields implements Iterable<FieldContext> {
 			isPrimitiveValue = field.getType().isPrimitive();
 		}
 		
+		FieldContext(SerializedField field, Object object) throws IllegalArgumentException, IllegalAccessException {
+			id = field.id;
+			value = field.get(object);
+			isPrimitiveValue = field.primitive;
+		}
+		
 		public String getID() {
 			return id;
 		}
@@ -129,6 +133,19 @@ public final class Fields implements Iterable<FieldContext> {
 			}
 		}
 		
+		void setField(Object object, SerializedField field, Yggdrasil yggdrasil) throws StreamCorruptedException {
+			if (field.primitive != isPrimitiveValue)
+				throw new StreamCorruptedException("The field " + id + " of " + field.field.getDeclaringClass() + " is " + (field.primitive ? "" : "not ") + "primitive");
+			try {
+				field.set(object, value);
+			} catch (IllegalArgumentException e) {
+				if (!(object instanceof YggdrasilRobustSerializable) || !((YggdrasilRobustSerializable) object).incompatibleField(field.field, this))
+					yggdrasil.incompatibleField(object, field.field, this);
+			} catch (IllegalAccessException e) {
+				assert false;
+			}
+		}
+		
 		@Override
 		public int hashCode() {
 			return id.hashCode();
@@ -174,11 +191,8 @@ public final class Fields implements Iterable<FieldContext> {
 	 */
 	public Fields(Class<?> type, Yggdrasil yggdrasil) throws NotSerializableException {
 		this.yggdrasil = yggdrasil;
-		for (Field field : getFields(type)) {
-			assert field != null;
-			String id = Yggdrasil.getID(field);
-			fields.put(id, new FieldContext(id));
-		}
+		for (SerializedField field : SerializedField.of(type))
+			fields.put(field.id, new FieldContext(field.id));
 	}
 	
 	/**
@@ -205,18 +219,15 @@ public final class Fields implements Iterable<FieldContext> {
 		this.yggdrasil = yggdrasil;
 		Class<?> type = object.getClass();
 		assert type != null;
-		for (Field field : getFields(type)) {
-			assert field != null;
+		for (SerializedField field : SerializedField.of(type)) {
 			try {
-				fields.put(Yggdrasil.getID(field), new FieldContext(field, object));
+				fields.put(field.id, new FieldContext(field, object));
 			} catch (IllegalArgumentException | IllegalAccessException e) {
 				assert false;
 			}
 		}
 	}
 	
-	private static final Map<Class<?>, Collection<Field>> cache = new HashMap<>();
-	
 	/**
 	 * Gets all serializable fields of the provided class, including superclasses.
 	 * 
@@ -226,28 +237,7 @@ public final class Fields implements Iterable<FieldContext> {
 	 *                                  field with the same name as a field in one of its superclasses)
 	 */
 	public static Collection<Field> getFields(Class<?> type) throws NotSerializableException {
-		Collection<Field> fields = cache.get(type);
-		if (fields != null)
-			return fields;
-		fields = new ArrayList<>();
-		Set<String> ids = new HashSet<>();
-		for (Class<?> superClass = type; superClass != null; superClass = superClass.getSuperclass()) {
-			Field[] declaredFields = superClass.getDeclaredFields();
-			for (Field field : declaredFields) {
-				int modifiers = field.getModifiers();
-				if (field.isSynthetic() || Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))
-					continue;
-				String id = Yggdrasil.getID(field);
-				if (ids.contains(id))
-					throw new NotSerializableException(type + "/" + superClass + ": duplicate field id '" + id + "'");
-				field.setAccessible(true);
-				fields.add(field);
-				ids.add(id);
-			}
-		}
-		fields = Collections.unmodifiableCollection(fields);
-		cache.put(type, fields);
-		return fields;
+		return SerializedField.toFields(SerializedField.of(type));
 	}
 	
 	/**
@@ -263,13 +253,11 @@ public final class Fields implements Iterable<FieldContext> {
 		Set<FieldContext> excessive = new HashSet<>(fields.values());
 		Class<?> type = object.getClass();
 		assert type != null;
-		for (Field field : getFields(type)) {
-			assert field != null;
-			String id = Yggdrasil.getID(field);
-			FieldContext context = fields.get(id);
+		for (SerializedField field : SerializedField.of(type)) {
+			FieldContext context = fields.get(field.id);
 			if (context == null) {
-				if (!(object instanceof YggdrasilRobustSerializable) || !((YggdrasilRobustSerializable) object).missingField(field))
-					yggdrasil.missingField(object, field);
+				if (!(object instanceof YggdrasilRobustSerializable) || !((YggdrasilRobustSerializable) object).missingField(field.field))
+					yggdrasil.missingField(object, field.field);
 			} else {
 				context.setField(object, field, yggdrasil);
 			}
@@ -0,0 +1,153 @@
+package ch.njol.yggdrasil;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.NotSerializableException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A serializable field of a class, whose ID and accessors are resolved once per class
+ * instead of on every (de)serialization.
+ */
+final class SerializedField {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	/**
+	 * The serializable fields of each class, or the message of the {@link NotSerializableException}
+	 * if the class cannot be serialized.
+	 */
+	private static final ClassValue<Object> CLASS_FIELDS = new ClassValue<>() {
+		@Override
+		protected Object computeValue(Class<?> type) {
+			try {
+				return computeFields(type);
+			} catch (NotSerializableException e) {
+				return "" + e.getMessage();
+			}
+		}
+	};
+
+	final Field field;
+	final String id;
+	final boolean primitive;
+
+	/** (Object)Object, or null if the field can only be read using reflection */
+	@Nullable
+	private final MethodHandle getter;
+	/** (Object, Object)void, or null if the field can only be written using reflection */
+	@Nullable
+	private final MethodHandle setter;
+
+	private SerializedField(Field field) {
+		this.field = field;
+		this.id = Yggdrasil.getID(field);
+		this.primitive = field.getType().isPrimitive();
+
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		MethodHandle getter;
+		try {
+			getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+		} catch (IllegalAccessException e) {
+			getter = null;
+		}
+		this.getter = getter;
+		MethodHandle setter;
+		try {
+			setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+		} catch (IllegalAccessException e) {
+			setter = null;
+		}
+		this.setter = setter;
+	}
+
+	/**
+	 * Gets the serializable fields of the given class and its superclasses.
+	 *
+	 * @see Fields#getFields(Class)
+	 */
+	@SuppressWarnings("unchecked")
+	static List<SerializedField> of(Class<?> type) throws NotSerializableException {
+		Object fields = CLASS_FIELDS.get(type);
+		if (fields instanceof String)
+			throw new NotSerializableException((String) fields);
+		return (List<SerializedField>) fields;
+	}
+
+	private static List<SerializedField> computeFields(Class<?> type) throws NotSerializableException {
+		List<SerializedField> fields = new ArrayList<>();
+		Set<String> ids = new HashSet<>();
+		for (Class<?> superClass = type; superClass != null; superClass = superClass.getSuperclass()) {
+			Field[] declaredFields = superClass.getDeclaredFields();
+			for (Field field : declaredFields) {
+				int modifiers = field.getModifiers();
+				if (field.isSynthetic() || Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))
+					continue;
+				String id = Yggdrasil.getID(field);
+				if (ids.contains(id))
+					throw new NotSerializableException(type + "/" + superClass + ": duplicate field id '" + id + "'");
+				field.setAccessible(true);
+				fields.add(new SerializedField(field));
+				ids.add(id);
+			}
+		}
+		return Collections.unmodifiableList(fields);
+	}
+
+	/**
+	 * @return The fields of the given serialized fields, in the same order
+	 */
+	static Collection<Field> toFields(List<SerializedField> fields) {
+		List<Field> result = new ArrayList<>(fields.size());
+		for (SerializedField field : fields)
+			result.add(field.field);
+		return Collections.unmodifiableList(result);
+	}
+
+	@Nullable
+	Object get(Object object) throws IllegalAccessException {
+		MethodHandle getter = this.getter;
+		if (getter == null)
+			return field.get(object);
+		try {
+			return (Object) getter.invokeExact(object);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * @throws IllegalArgumentException If the value cannot be assigned to the field
+	 */
+	void set(Object object, @Nullable Object value) throws IllegalAccessException {
+		MethodHandle setter = this.setter;
+		if (setter == null) {
+			field.set(object, value);
+			return;
+		}
+		try {
+			setter.invokeExact(object, value);
+		} catch (ClassCastException | NullPointerException e) {
+			// what Field#set throws for incompatible values
+			throw new IllegalArgumentException(e);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+}
@@ -19,7 +19,13 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Yggdrasil is a simple data format to store object graphs.
@@ -70,6 +76,15 @@ public final class Yggdrasil {
 	
 	private final SimpleClassResolver simpleClassResolver = new SimpleClassResolver();
 	
+	/*
+	 * Results of the class resolvers, which are looked up for every object written or read.
+	 * These are cleared whenever a class or resolver is registered, as that may change the results.
+	 */
+	private final Map<Class<?>, String> classIDs = new ConcurrentHashMap<>();
+	private final Map<String, Class<?>> classesByID = new ConcurrentHashMap<>();
+	private final Map<Class<?>, Optional<YggdrasilSerializer<?>>> serializers = new ConcurrentHashMap<>();
+	private final Set<Class<?>> serializableClasses = ConcurrentHashMap.newKeySet();
+	
 	public Yggdrasil() {
 		this(LATEST_VERSION);
 	}
@@ -93,10 +108,19 @@ public final class Yggdrasil {
 	public void registerClassResolver(ClassResolver resolver) {
 		if (!classResolvers.contains(resolver))
 			classResolvers.add(resolver);
+		clearResolverCaches();
 	}
 	
 	public void registerSingleClass(Class<?> type, String id) {
 		simpleClassResolver.registerClass(type, id);
+		clearResolverCaches();
+	}
+	
+	private void clearResolverCaches() {
+		classIDs.clear();
+		classesByID.clear();
+		serializers.clear();
+		serializableClasses.clear();
 	}
 	
 	/**
@@ -106,7 +130,7 @@ public final class Yggdrasil {
 		YggdrasilID id = type.getAnnotation(YggdrasilID.class);
 		if (id == null)
 			throw new IllegalArgumentException(type.toString());
-		simpleClassResolver.registerClass(type, id.value());
+		registerSingleClass(type, id.value());
 	}
 	
 	public void registerFieldHandler(FieldHandler handler) {
@@ -115,6 +139,15 @@ public final class Yggdrasil {
 	}
 	
 	public boolean isSerializable(Class<?> type) {
+		if (serializableClasses.contains(type))
+			return true;
+		boolean serializable = isSerializable_i(type);
+		if (serializable)
+			serializableClasses.add(type);
+		return serializable;
+	}
+	
+	private boolean isSerializable_i(Class<?> type) {
 		try {
 			return type.isPrimitive() || type == Object.class || (Enum.class.isAssignableFrom(type) ||
 					PseudoEnum.class.isAssignableFrom(type)) && getIDNoError(type) != null ||
@@ -128,21 +161,32 @@ public final class Yggdrasil {
 	
 	@Nullable
 	YggdrasilSerializer<?> getSerializer(Class<?> type) {
-		for (ClassResolver resolver : classResolvers) {
-			if (resolver instanceof YggdrasilSerializer && resolver.getID(type) != null)
-				return (YggdrasilSerializer<?>) resolver;
+		Optional<YggdrasilSerializer<?>> serializer = serializers.get(type);
+		if (serializer == null) {
+			serializer = Optional.empty();
+			for (ClassResolver resolver : classResolvers) {
+				if (resolver instanceof YggdrasilSerializer && resolver.getID(type) != null) {
+					serializer = Optional.of((YggdrasilSerializer<?>) resolver);
+					break;
+				}
+			}
+			serializers.put(type, serializer);
 		}
-		return null;
+		return serializer.orElse(null);
 	}
 	
 	public Class<?> getClass(String id) throws StreamCorruptedException {
 		if ("Object".equals(id))
 			return Object.class;
+		Class<?> cached = classesByID.get(id);
+		if (cached != null)
+			return cached;
 		for (ClassResolver resolver : classResolvers) {
 			Class<?> type = resolver.getClass(id);
 			if (type != null) { // TODO error if not serializable?
 				assert Tag.byName(id) == null && (Tag.getType(type) == Tag.T_OBJECT || Tag.getType(type) == Tag.T_ENUM) : "Tag IDs should not be matched: " + id + " (class resolver: " + resolver + ")";
 				assert id.equals(resolver.getID(type)) : resolver + " returned " + type + " for id " + id + ", but returns id " + resolver.getID(type) + " for that class";
+				classesByID.put(id, type);
 				return type;
 			}
 		}
@@ -154,6 +198,10 @@ public final class Yggdrasil {
 	private String getIDNoError(Class<?> type) {
 		if (type == Object.class)
 			return "Object";
+		String cached = classIDs.get(type);
+		if (cached != null)
+			return cached;
+		Class<?> original = type;
 		assert Tag.getType(type) == Tag.T_OBJECT || Tag.getType(type) == Tag.T_ENUM;
 		if (Enum.class.isAssignableFrom(type) && type.getSuperclass() != Enum.class) {
 			Class<?> s = type.getSuperclass();
@@ -168,6 +216,7 @@ public final class Yggdrasil {
 				assert Tag.byName(id) == null : "Class IDs should not match Tag IDs: " + id + " (class resolver: " + resolver + ")";
 				Class<?> c2 = resolver.getClass(id);
 				assert c2 != null && (resolver instanceof YggdrasilSerializer ? id.equals(resolver.getID(c2)) : resolver.getClass(id) == type) : resolver + " returned id " + id + " for " + type + ", but returns " + c2 + " for that id";
+				classIDs.put(original, id);
 				return id;
 			}
 		}
@@ -198,23 +247,51 @@ public final class Yggdrasil {
 		return "" + field.getName();
 	}
 	
-	public static String getID(Enum<?> e) {
-		try {
-			return getID(e.getDeclaringClass().getDeclaredField(e.name()));
-		} catch (NoSuchFieldException ex) {
-			assert false : e;
-			return "" + e.name();
+	/**
+	 * The IDs of each enum's constants, indexed by their ordinal.
+	 */
+	private static final ClassValue<String[]> ENUM_IDS = new ClassValue<>() {
+		@Override
+		protected String[] computeValue(Class<?> type) {
+			Object[] constants = type.getEnumConstants();
+			String[] ids = new String[constants.length];
+			for (Object constant : constants) {
+				Enum<?> e = (Enum<?>) constant;
+				try {
+					ids[e.ordinal()] = getID(type.getDeclaredField(e.name()));
+				} catch (NoSuchFieldException ex) {
+					assert false : e;
+					ids[e.ordinal()] = "" + e.name();
+				}
+			}
+			return ids;
+		}
+	};
+	
+	/**
+	 * The constants of each enum by their ID.
+	 */
+	private static final ClassValue<Map<String, Enum<?>>> ENUM_CONSTANTS = new ClassValue<>() {
+		@Override
+		protected Map<String, Enum<?>> computeValue(Class<?> type) {
+			String[] ids = ENUM_IDS.get(type);
+			Object[] constants = type.getEnumConstants();
+			Map<String, Enum<?>> byID = new HashMap<>();
+			for (int i = 0; i < constants.length; i++)
+				byID.put(ids[i], (Enum<?>) constants[i]);
+			return Collections.unmodifiableMap(byID);
 		}
+	};
+	
+	public static String getID(Enum<?> e) {
+		return ENUM_IDS.get(e.getDeclaringClass())[e.ordinal()];
 	}
 	
 	@SuppressWarnings({"unchecked", "unused"})
 	public static <T extends Enum<T>> Enum<T> getEnumConstant(Class<T> type, String id) throws StreamCorruptedException {
-		Field[] fields = type.getDeclaredFields();
-		for (Field field : fields) {
-			assert field != null;
-			if (getID(field).equals(id))
-				return Enum.valueOf(type, field.getName());
-		}
+		Enum<?> constant = ENUM_CONSTANTS.get(type).get(id);
+		if (constant != null)
+			return (Enum<T>) constant;
 		if (YggdrasilRobustEnum.class.isAssignableFrom(type)) {
 			Object[] constants = type.getEnumConstants();
 			if (constants.length == 0)
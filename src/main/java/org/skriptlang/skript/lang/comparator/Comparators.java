@@ -3,18 +3,16 @@ package org.skriptlang.skript.lang.comparator;
 import ch.njol.skript.Skript;
 import ch.njol.skript.SkriptAPIException;
 import ch.njol.skript.util.Utils;
-import ch.njol.util.Pair;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 import org.skriptlang.skript.lang.converter.Converter;
 import org.skriptlang.skript.lang.converter.ConverterInfo;
 import org.skriptlang.skript.lang.converter.Converters;
+import org.skriptlang.skript.util.ClassPairCache;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Comparators are used to provide Skript with specific instructions for comparing two objects.
@@ -53,11 +51,11 @@ public final class Comparators {
 	}
 
 	/**
-	 * A map for quickly accessing comparators that have already been resolved.
-	 * Some pairs may point to a null value, indicating that no comparator exists between the two types.
+	 * A cache for quickly accessing comparators that have already been resolved.
+	 * Pairs without a comparator between the two types are cached too.
 	 * This is useful for skipping complex lookups that may require conversion and inversion.
 	 */
-	private static final Map<Pair<Class<?>, Class<?>>, ComparatorInfo<?, ?>> QUICK_ACCESS_COMPARATORS = new HashMap<>(50);
+	private static final ClassPairCache<ComparatorInfo<?, ?>> QUICK_ACCESS_COMPARATORS = new ClassPairCache<>(Comparators::getComparatorInfo_i);
 
 	/**
 	 * Registers a new Comparator with Skript's collection of Comparators.
@@ -181,19 +179,7 @@ public final class Comparators {
 	public static <T1, T2> ComparatorInfo<T1, T2> getComparatorInfo(Class<T1> firstType, Class<T2> secondType) {
 		assertIsDoneLoading();
 
-		Pair<Class<?>, Class<?>> pair = new Pair<>(firstType, secondType);
-		ComparatorInfo<T1, T2> comparator;
-
-		synchronized (QUICK_ACCESS_COMPARATORS) {
-			if (QUICK_ACCESS_COMPARATORS.containsKey(pair)) {
-				comparator = (ComparatorInfo<T1, T2>) QUICK_ACCESS_COMPARATORS.get(pair);
-			} else { // Compute QUICK_ACCESS for provided types
-				comparator = getComparatorInfo_i(firstType, secondType);
-				QUICK_ACCESS_COMPARATORS.put(pair, comparator);
-			}
-		}
-
-		return comparator;
+		return (ComparatorInfo<T1, T2>) QUICK_ACCESS_COMPARATORS.get(firstType, secondType);
 	}
 
 	/**
@@ -11,6 +11,7 @@ import org.skriptlang.skript.lang.structure.Structure;
 import org.skriptlang.skript.util.Validated;
 
 import java.io.File;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -58,6 +59,18 @@ public final class Script implements Validated, AnyNamed {
 		return Collections.unmodifiableList(structures);
 	}
 
+	/**
+	 * Removes the given Structures from this Script and adds the new ones,
+	 * for when only some Structures of this Script are reloaded.
+	 * @param removed The Structures that have been unloaded.
+	 * @param added The Structures that have been loaded.
+	 */
+	@ApiStatus.Internal
+	public void replaceStructures(Collection<Structure> removed, Collection<Structure> added) {
+		structures.removeAll(removed);
+		structures.addAll(added);
+	}
+
 	// Warning Suppressions
 
 	private final Set<ScriptWarning> suppressedWarnings = new HashSet<>(ScriptWarning.values().length);
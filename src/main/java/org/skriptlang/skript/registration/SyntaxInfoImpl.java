@@ -9,6 +9,7 @@ import org.jetbrains.annotations.Unmodifiable;
 import org.skriptlang.skript.util.ClassUtils;
 import org.skriptlang.skript.util.Priority;
 
+import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -24,6 +25,11 @@ class SyntaxInfoImpl<T extends SyntaxElement> implements SyntaxInfo<T> {
 	private final Collection<String> patterns;
 	private final Priority priority;
 
+	/**
+	 * The nullary constructor of {@link #type}, looked up once by {@link #instance()} if there is no supplier.
+	 */
+	private volatile @Nullable Constructor<T> constructor;
+
 	protected SyntaxInfoImpl(
 		SyntaxOrigin origin, Class<T> type, @Nullable Supplier<T> supplier,
 		Collection<String> patterns, Priority priority
@@ -65,8 +71,15 @@ class SyntaxInfoImpl<T extends SyntaxElement> implements SyntaxInfo<T> {
 
 	@Override
 	public T instance() {
+		if (supplier != null) {
+			return supplier.get();
+		}
 		try {
-			return supplier == null ? type.getDeclaredConstructor().newInstance() : supplier.get();
+			Constructor<T> constructor = this.constructor;
+			if (constructor == null) {
+				this.constructor = constructor = type.getDeclaredConstructor();
+			}
+			return constructor.newInstance();
 		} catch (ReflectiveOperationException e) {
 			throw new RuntimeException(e);
 		}
@@ -1,5 +1,6 @@
 package org.skriptlang.skript.registration;
 
+import ch.njol.skript.lang.parser.ParseHints;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableSet;
 import org.jetbrains.annotations.Unmodifiable;
@@ -22,6 +23,7 @@ final class SyntaxRegistryImpl implements SyntaxRegistry {
 	@Override
 	public <I extends SyntaxInfo<?>> void register(Key<I> key, I info) {
 		register(key).add(info);
+		ParseHints.registryChanged();
 		if (key instanceof ChildKey) {
 			register(((ChildKey<? extends I, I>) key).parent(), info);
 		}
@@ -38,6 +40,7 @@ final class SyntaxRegistryImpl implements SyntaxRegistry {
 	@Override
 	public <I extends SyntaxInfo<?>> void unregister(Key<I> key, I info) {
 		register(key).remove(info);
+		ParseHints.registryChanged();
 		if (key instanceof ChildKey) {
 			unregister(((ChildKey<? extends I, I>) key).parent(), info);
 		}
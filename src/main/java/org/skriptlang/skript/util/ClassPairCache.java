@@ -0,0 +1,65 @@
+package org.skriptlang.skript.util;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * A cache of values resolved for pairs of classes, e.g. the converter between two classes.
+ * Unlike a map keyed by pairs of classes, looking up a value neither allocates a key nor locks.
+ * That no value exists for a pair is cached as well.
+ * <p>
+ * Values are never removed, thus they may only be resolved once everything they depend on can no longer change,
+ * i.e. once registrations have stopped.
+ *
+ * @param <V> The type of the values
+ */
+@ApiStatus.Internal
+public final class ClassPairCache<V> {
+
+	private static final Object ABSENT = new Object();
+
+	private final BiFunction<Class<?>, Class<?>, ? extends @Nullable V> resolver;
+
+	private final ClassValue<Map<Class<?>, Object>> values = new ClassValue<>() {
+		@Override
+		protected Map<Class<?>, Object> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	/**
+	 * @param resolver Resolves the value of a pair of classes, or returns null if there is none
+	 */
+	public ClassPairCache(BiFunction<Class<?>, Class<?>, ? extends @Nullable V> resolver) {
+		this.resolver = resolver;
+	}
+
+	/**
+	 * Gets the value for the given pair of classes, resolving it if it is not cached yet.
+	 * The same value may be resolved more than once if it is looked up concurrently, but only one of them is kept.
+	 *
+	 * @param first The first class of the pair
+	 * @param second The second class of the pair
+	 * @return The value, or null if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	public @Nullable V get(Class<?> first, Class<?> second) {
+		Map<Class<?>, Object> values = this.values.get(first);
+		Object value = values.get(second);
+		if (value == null) {
+			// not computeIfAbsent, as resolving a value may look up other values of this cache
+			value = resolver.apply(first, second);
+			if (value == null)
+				value = ABSENT;
+			Object previous = values.putIfAbsent(second, value);
+			if (previous != null)
+				value = previous;
+		}
+		return value == ABSENT ? null : (V) value;
+	}
+
+}
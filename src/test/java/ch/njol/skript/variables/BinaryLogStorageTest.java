@@ -0,0 +1,129 @@
+package ch.njol.skript.variables;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.TreeMap;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ch.njol.skript.log.RetainingLogHandler;
+import ch.njol.skript.log.SkriptLogger;
+import ch.njol.skript.variables.SerializedVariable.Value;
+
+public class BinaryLogStorageTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static void write(File file, boolean append, Object... changes) throws IOException {
+		boolean newFile = file.length() == 0;
+		try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, append)))) {
+			if (newFile || !append)
+				BinaryLogStorage.writeHeader(stream);
+			for (int i = 0; i < changes.length; i += 2) {
+				String name = (String) changes[i];
+				@Nullable String value = (String) changes[i + 1];
+				BinaryLogStorage.writeChange(stream, name, value == null ? null : "string", value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+	}
+
+	private static TreeMap<String, Value> read(File... files) throws IOException {
+		TreeMap<String, Value> variables = new TreeMap<>();
+		for (File file : files)
+			BinaryLogStorage.readChanges(file, variables);
+		return variables;
+	}
+
+	private static void assertValue(TreeMap<String, Value> variables, String name, String value) {
+		Value saved = variables.get(name);
+		assertTrue(name + " is missing", saved != null);
+		assertEquals("string", saved.type);
+		assertArrayEquals(value.getBytes(StandardCharsets.UTF_8), saved.data);
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		File file = folder.newFile("variables.skvl");
+		write(file, false, "a", "1", "b", "2", "a", "3", "c", "4", "c", null);
+
+		TreeMap<String, Value> variables = new TreeMap<>();
+		assertTrue(BinaryLogStorage.readChanges(file, variables));
+		assertEquals(2, variables.size());
+		assertValue(variables, "a", "3");
+		assertValue(variables, "b", "2");
+	}
+
+	@Test
+	public void testListDeletion() throws IOException {
+		File file = folder.newFile("variables.skvl");
+		write(file, false, "a::1", "1", "a::2", "2", "a::b::1", "3", "ab", "4", "a::*", null, "a::3", "5");
+
+		TreeMap<String, Value> variables = read(file);
+		assertEquals(2, variables.size());
+		assertValue(variables, "ab", "4");
+		assertValue(variables, "a::3", "5");
+	}
+
+	@Test
+	public void testIncompleteLastChange() throws IOException {
+		File file = folder.newFile("variables.skvl");
+		write(file, false, "a", "1", "b", "2");
+		long complete = file.length();
+		write(file, true, "c", "3");
+		try (RandomAccessFile access = new RandomAccessFile(file, "rw")) {
+			access.setLength(complete + 6); // cut off in the middle of the name
+		}
+
+		TreeMap<String, Value> variables = new TreeMap<>();
+		try (RetainingLogHandler handler = SkriptLogger.startRetainingLog()) {
+			assertFalse(BinaryLogStorage.readChanges(file, variables));
+			assertEquals(1, handler.getLog().size());
+		}
+		assertEquals(2, variables.size());
+		assertValue(variables, "a", "1");
+		assertValue(variables, "b", "2");
+	}
+
+	@Test
+	public void testInterruptedCompaction() throws IOException {
+		// a compaction was interrupted after the log was renamed, and changes were logged since
+		File snapshot = folder.newFile("variables.skvl");
+		File compactedLog = new File(folder.getRoot(), "variables.skvl.log.old");
+		File log = new File(folder.getRoot(), "variables.skvl.log");
+		write(snapshot, false, "a", "1", "b", "1", "c", "1");
+		write(compactedLog, false, "a", "2", "c", null, "d", "2");
+		write(log, false, "b", "3", "d", "3");
+
+		TreeMap<String, Value> expected = read(snapshot, compactedLog, log);
+		assertEquals(3, expected.size());
+
+		BinaryLogStorage.mergeIntoSnapshot(snapshot, compactedLog);
+		assertFalse(compactedLog.exists());
+
+		TreeMap<String, Value> variables = read(snapshot, log);
+		assertEquals(expected.keySet(), variables.keySet());
+		assertValue(variables, "a", "2");
+		assertValue(variables, "b", "3");
+		assertValue(variables, "d", "3");
+
+		TreeMap<String, Value> merged = read(snapshot);
+		assertEquals(3, merged.size());
+		assertValue(merged, "b", "1");
+		assertValue(merged, "d", "2");
+	}
+
+}
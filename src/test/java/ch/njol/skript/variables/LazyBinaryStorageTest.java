@@ -0,0 +1,278 @@
+package ch.njol.skript.variables;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ch.njol.skript.log.RetainingLogHandler;
+import ch.njol.skript.log.SkriptLogger;
+import ch.njol.skript.variables.SerializedVariable.Value;
+
+public class LazyBinaryStorageTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Stores string values, and keeps the variables in memory to itself.
+	 */
+	private static class TestStorage extends LazyBinaryStorage {
+
+		private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+		private TestStorage(File file) {
+			super("lazy binary");
+			this.file = file;
+		}
+
+		@Override
+		boolean canLoadLazily(String type) {
+			return true;
+		}
+
+		@Override
+		@Nullable Object deserialize(String name, @Nullable String type, byte[] data) {
+			return new String(data, StandardCharsets.UTF_8);
+		}
+
+		@Override
+		void setValue(String name, @Nullable Object value) {
+			if (value == null) {
+				values.remove(name);
+			} else {
+				values.put(name, value);
+			}
+		}
+
+		private void set(String name, @Nullable String value) {
+			save(name, value == null ? null : "string", value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+		}
+
+		/**
+		 * Changes a variable like {@link Variables#setVariable(String, Object)}, and saves the change like the write thread.
+		 */
+		private void change(String name, @Nullable String value, boolean saved) {
+			changeVariable(name);
+			if (name.endsWith("*")) {
+				values.keySet().removeIf(key -> key.startsWith(name.substring(0, name.length() - 1)));
+			} else {
+				setValue(name, value);
+			}
+			if (saved)
+				saveChange(name, value);
+		}
+
+		private void saveChange(String name, @Nullable String value) {
+			SerializedVariable change = new SerializedVariable(name, value == null ? null : new Value("string", value.getBytes(StandardCharsets.UTF_8)));
+			assertTrue(save(List.of(change)));
+			changesSaved(List.of(change));
+		}
+
+	}
+
+	private static void write(File file, String... changes) throws IOException {
+		try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			BinaryLogStorage.writeHeader(stream);
+			for (int i = 0; i < changes.length; i += 2) {
+				String value = changes[i + 1];
+				BinaryLogStorage.writeChange(stream, changes[i], value == null ? null : "string", value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+	}
+
+	private TestStorage open(File file) {
+		TestStorage storage = new TestStorage(file);
+		assertTrue(storage.openFiles());
+		return storage;
+	}
+
+	@Test
+	public void testLoadAndUnload() throws IOException {
+		File file = folder.newFile("variables.skvl");
+		write(file, "a", "1", "b", "2", "c", "3");
+
+		TestStorage storage = open(file);
+		assertTrue(storage.values.isEmpty());
+
+		storage.loadVariable("a");
+		storage.loadVariable("b");
+		assertEquals(2, storage.values.size());
+		assertEquals("1", storage.values.get("a"));
+		assertEquals("2", storage.values.get("b"));
+
+		// Changed variables stay in memory
+		storage.changeVariable("b");
+		storage.cacheSize = 0;
+		storage.unloadOldest();
+		assertEquals(1, storage.values.size());
+		assertEquals("2", storage.values.get("b"));
+
+		storage.loadVariable("a");
+		assertEquals("1", storage.values.get("a"));
+		storage.loadVariable("d");
+		assertNull(storage.values.get("d"));
+		storage.close();
+	}
+
+	@Test
+	public void testUnloadOnceSaved() throws IOException {
+		File file = folder.newFile("variables.skvl");
+		write(file, "a", "1", "l::1", "2");
+
+		TestStorage storage = open(file);
+		storage.loadVariable("a");
+		storage.change("a", "3", true);
+		storage.change("a", "4", false);
+		storage.cacheSize = 0;
+
+		// Only the first change has been saved
+		storage.unloadOldest();
+		assertEquals("4", storage.values.get("a"));
+
+		storage.saveChange("a", "4");
+		storage.unloadOldest();
+		assertTrue(storage.values.isEmpty());
+		storage.loadVariable("a");
+		assertEquals("4", storage.values.get("a"));
+
+		// Elements of a deleted list are not loaded before the deletion has been saved
+		storage.change("l::*", null, false);
+		storage.loadVariable("l::1");
+		assertNull(storage.values.get("l::1"));
+		storage.saveChange("l::*", null);
+		storage.loadVariable("l::1");
+		assertNull(storage.values.get("l::1"));
+
+		// Deleted variables are no longer known once their deletion has been saved
+		storage.change("b", "5", true);
+		storage.change("b", null, true);
+		storage.unloadOldest();
+		storage.loadVariable("b");
+		assertNull(storage.values.get("b"));
+		storage.close();
+	}
+
+	@Test
+	public void testListDeletion() throws IOException {
+		File file = folder.newFile("variables.skvl");
+		write(file, "a::1", "1", "a::2", "2", "a::b::1", "3", "ab", "4");
+
+		TestStorage storage = open(file);
+		storage.loadVariable("a::1");
+		storage.cacheSize = 0;
+		storage.unloadOldest();
+		assertTrue(storage.values.isEmpty());
+
+		storage.set("a::*", null);
+		storage.set("a::3", "5");
+		storage.loadVariable("a::*");
+		storage.loadVariable("ab");
+		assertEquals(2, storage.values.size());
+		assertEquals("5", storage.values.get("a::3"));
+		assertEquals("4", storage.values.get("ab"));
+		storage.close();
+
+		storage = open(file);
+		storage.loadVariable("a::*");
+		assertEquals(1, storage.values.size());
+		assertEquals("5", storage.values.get("a::3"));
+		storage.close();
+	}
+
+	@Test
+	public void testCompactionWhileSaving() throws Exception {
+		File file = folder.newFile("variables.skvl");
+		TestStorage storage = open(file);
+
+		int count = 2000;
+		Thread writer = new Thread(() -> {
+			for (int i = 0; i < count; i++) {
+				List<SerializedVariable> batch = new ArrayList<>();
+				batch.add(new SerializedVariable("v::" + i, new Value("string", ("" + i).getBytes(StandardCharsets.UTF_8))));
+				if (i % 3 == 0) // overwrite an older variable
+					batch.add(new SerializedVariable("v::" + (i / 3), new Value("string", ("new " + i).getBytes(StandardCharsets.UTF_8))));
+				if (i % 7 == 0) // delete the variable again
+					batch.add(new SerializedVariable("v::" + i, null));
+				assertTrue(storage.save(batch));
+			}
+		});
+		writer.start();
+		while (writer.isAlive())
+			storage.compact(true);
+		writer.join();
+		storage.compact(true);
+
+		Map<String, String> expected = new ConcurrentHashMap<>();
+		for (int i = 0; i < count; i++) {
+			expected.put("v::" + i, "" + i);
+			if (i % 3 == 0)
+				expected.put("v::" + (i / 3), "new " + i);
+			if (i % 7 == 0)
+				expected.remove("v::" + i);
+		}
+
+		storage.loadVariable("v::*");
+		assertEquals(expected, storage.values);
+		storage.close();
+		assertFalse(new File(folder.getRoot(), "variables.skvl.log.old").exists());
+
+		TestStorage reopened = open(file);
+		reopened.loadVariable("v::*");
+		assertEquals(expected, reopened.values);
+		reopened.close();
+	}
+
+	@Test
+	public void testTruncatedLog() throws IOException {
+		File file = folder.newFile("variables.skvl");
+		File log = new File(folder.getRoot(), "variables.skvl.log");
+		write(file, "a", "1", "b", "2");
+		write(log, "a", "3", "c", "4");
+		long complete = log.length();
+		write(log, "a", "3", "c", "4", "d", "5");
+		try (RandomAccessFile access = new RandomAccessFile(log, "rw")) {
+			access.setLength(complete + 9); // cut off in the middle of the type
+		}
+
+		TestStorage storage;
+		try (RetainingLogHandler handler = SkriptLogger.startRetainingLog()) {
+			storage = open(file);
+			assertEquals(1, handler.getLog().size());
+		}
+		assertEquals(complete, log.length());
+		for (String name : new String[] {"a", "b", "c", "d"})
+			storage.loadVariable(name);
+		assertEquals(3, storage.values.size());
+		assertEquals("3", storage.values.get("a"));
+		assertEquals("2", storage.values.get("b"));
+		assertEquals("4", storage.values.get("c"));
+
+		// Changes are appended after the last complete change
+		storage.set("d", "6");
+		storage.close();
+
+		storage = open(file);
+		storage.loadVariable("d");
+		assertEquals("6", storage.values.get("d"));
+		storage.close();
+	}
+
+}
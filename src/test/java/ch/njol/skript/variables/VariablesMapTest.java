@@ -0,0 +1,174 @@
+package ch.njol.skript.variables;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+public class VariablesMapTest {
+
+	private static final int THREADS = 8;
+
+	private static final int CHANGES = 3000;
+
+	/**
+	 * Adds the variables of the given node of the tree to the given map, like the variables are saved.
+	 */
+	@SuppressWarnings("unchecked")
+	private static void flatten(String name, Object node, Map<String, Object> variables) {
+		if (!(node instanceof TreeMap)) {
+			variables.put(name, node);
+			return;
+		}
+		for (Entry<String, Object> child : ((TreeMap<String, Object>) node).entrySet()) {
+			if (child.getKey() == null) {
+				variables.put(name, child.getValue());
+			} else {
+				flatten(name + "::" + child.getKey(), child.getValue(), variables);
+			}
+		}
+	}
+
+	/**
+	 * Sets variables from several threads at once, while others iterate and save the lists.
+	 * Each thread changes its own variables, which are in lists shared with the other threads,
+	 * so that the final state of the map is known.
+	 */
+	@Test
+	public void testConcurrentChanges() throws InterruptedException {
+		VariablesMap map = new VariablesMap(true);
+		List<Throwable> failures = new CopyOnWriteArrayList<>();
+		List<Map<String, Object>> expected = new ArrayList<>();
+		List<Thread> writers = new ArrayList<>();
+
+		for (int t = 0; t < THREADS; t++) {
+			Map<String, Object> variables = new HashMap<>();
+			expected.add(variables);
+			String thread = "t" + t;
+			writers.add(new Thread(() -> {
+				try {
+					for (int i = 0; i < CHANGES; i++) {
+						String element = "shared" + (i % 4) + "::" + thread + "-" + (i % 50);
+						String scalar = "scalar-" + thread + "-" + (i % 20);
+						String nested = "nested::" + thread + "::" + (i % 30);
+						if (i % 5 == 0) {
+							map.setVariable(element, null);
+							variables.remove(element);
+						} else {
+							map.setVariable(element, element);
+							variables.put(element, element);
+						}
+						map.setVariable(scalar, scalar);
+						variables.put(scalar, scalar);
+						map.setVariable(nested, nested);
+						variables.put(nested, nested);
+						if (i % 97 == 0) {
+							map.setVariable("nested::" + thread + "::*", null);
+							variables.keySet().removeIf(name -> name.startsWith("nested::" + thread + "::"));
+						}
+					}
+				} catch (Throwable e) {
+					failures.add(e);
+				}
+			}));
+		}
+
+		Thread reader = new Thread(() -> {
+			try {
+				while (writers.stream().anyMatch(Thread::isAlive)) {
+					for (int l = 0; l < 4; l++) {
+						String name = "shared" + l + "::*";
+						@SuppressWarnings("unchecked")
+						Map<String, Object> list = (Map<String, Object>) map.getVariable(name);
+						if (list == null)
+							continue;
+						for (String index : map.copyIndices(name, list)) {
+							Object value = map.getVariable("shared" + l + "::" + index);
+							// deleted since, or the element with the same name
+							if (value != null)
+								assertEquals("shared" + l + "::" + index, value);
+						}
+					}
+					map.forEachTreeEntry((name, node) -> flatten(name, node, new HashMap<>()));
+				}
+			} catch (Throwable e) {
+				failures.add(e);
+			}
+		});
+
+		writers.forEach(Thread::start);
+		reader.start();
+		for (Thread writer : writers)
+			writer.join();
+		reader.join();
+		assertTrue(failures.toString(), failures.isEmpty());
+
+		Map<String, Object> variables = new HashMap<>();
+		expected.forEach(variables::putAll);
+		assertEquals(variables, map.hashMap);
+
+		Map<String, Object> saved = new HashMap<>();
+		map.forEachTreeEntry((name, node) -> flatten(name, node, saved));
+		assertEquals(variables, saved);
+
+		for (int l = 0; l < 4; l++) {
+			String prefix = "shared" + l + "::";
+			@SuppressWarnings("unchecked")
+			Map<String, Object> list = (Map<String, Object>) map.getVariable(prefix + "*");
+			int size = 0;
+			for (String index : map.copyIndices(prefix + "*", list)) {
+				assertEquals(prefix + index, map.getVariable(prefix + index));
+				size++;
+			}
+			assertEquals(variables.keySet().stream().filter(key -> key.startsWith(prefix)).count(), size);
+		}
+	}
+
+	/**
+	 * Deletes whole lists while their elements are set by other threads.
+	 */
+	@Test
+	public void testConcurrentListDeletion() throws InterruptedException {
+		VariablesMap map = new VariablesMap(true);
+		List<Throwable> failures = new CopyOnWriteArrayList<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			int thread = t;
+			threads.add(new Thread(() -> {
+				try {
+					for (int i = 0; i < CHANGES; i++) {
+						if (thread == 0 && i % 10 == 0) {
+							map.setVariable("list::*", null);
+						} else {
+							map.setVariable("list::" + thread + "::" + (i % 40), "value");
+						}
+					}
+				} catch (Throwable e) {
+					failures.add(e);
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		for (Thread thread : threads)
+			thread.join();
+		assertTrue(failures.toString(), failures.isEmpty());
+
+		// The list and the non-list variables must agree, whichever changes came last
+		Map<String, Object> saved = new HashMap<>();
+		map.forEachTreeEntry((name, node) -> flatten(name, node, saved));
+		assertEquals(map.hashMap, saved);
+
+		map.setVariable("list::*", null);
+		assertEquals(null, map.getVariable("list::*"));
+		assertTrue(map.hashMap.isEmpty());
+	}
+
+}
@@ -0,0 +1,85 @@
+package org.skriptlang.skript.test.tests.lang;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.ScriptLoader;
+import ch.njol.skript.ScriptLoader.ScriptInfo;
+import ch.njol.skript.log.LogEntry;
+import ch.njol.skript.log.RetainingLogHandler;
+import ch.njol.skript.log.SkriptLogger;
+import ch.njol.util.OpenCloseable;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.skriptlang.skript.lang.script.Script;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Loads a script with many events on several loader threads.
+ */
+public class ParallelLoadingTest {
+
+	private static final int EVENTS = 16;
+
+	private int loaderSize;
+
+	private File file;
+
+	@Before
+	public void setup() throws IOException {
+		loaderSize = ScriptLoader.getAsyncLoaderSize();
+		ScriptLoader.setAsyncLoaderSize(4);
+
+		// the events use the same local variables with different types,
+		// which only parse if no event sees the type hints of another one
+		StringBuilder script = new StringBuilder();
+		for (int i = 0; i < EVENTS; i++) {
+			if (i % 2 == 0) {
+				script.append("on join:\n")
+					.append("\tset {_value} to ").append(i).append("\n")
+					.append("\tset {_result} to {_value} + 1\n");
+			} else {
+				script.append("on quit:\n")
+					.append("\tset {_value} to \"").append(i).append("\"\n")
+					.append("\tset {_result} to length of {_value}\n");
+			}
+		}
+		file = new File(Skript.getInstance().getScriptsFolder(), "parallel loading test.sk");
+		Files.writeString(file.toPath(), script.toString());
+	}
+
+	@Test
+	public void testParallelEvents() throws Exception {
+		// loaded off the main thread, as the loader would queue the load otherwise
+		ScriptInfo info = CompletableFuture.supplyAsync(() -> {
+			try (RetainingLogHandler log = SkriptLogger.startRetainingLog()) {
+				ScriptInfo loaded = ScriptLoader.loadScripts(file, OpenCloseable.EMPTY).join();
+				Assert.assertFalse("errors while loading: " + log.getErrors().stream()
+					.map(LogEntry::getMessage)
+					.collect(Collectors.joining(", ")), log.hasErrors());
+				log.printLog();
+				return loaded;
+			}
+		}).get();
+
+		Assert.assertEquals(EVENTS, info.structures);
+		Script script = ScriptLoader.getScript(file);
+		Assert.assertNotNull(script);
+		Assert.assertEquals("not all events were loaded", EVENTS, script.getStructures().size());
+	}
+
+	@After
+	public void cleanup() throws IOException {
+		Script script = ScriptLoader.getScript(file);
+		if (script != null)
+			ScriptLoader.unloadScript(script);
+		Files.deleteIfExists(file.toPath());
+		ScriptLoader.setAsyncLoaderSize(loaderSize);
+	}
+
+}
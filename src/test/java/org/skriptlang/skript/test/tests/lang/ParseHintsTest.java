@@ -0,0 +1,73 @@
+package org.skriptlang.skript.test.tests.lang;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.ScriptLoader;
+import ch.njol.skript.lang.parser.ParseHints;
+import ch.njol.skript.log.LogEntry;
+import ch.njol.skript.log.RetainingLogHandler;
+import ch.njol.skript.log.SkriptLogger;
+import ch.njol.util.OpenCloseable;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.skriptlang.skript.lang.script.Script;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Checks that the hints of a script's lines are used again when it is reloaded without changes.
+ */
+public class ParseHintsTest {
+
+	private File file;
+
+	@Before
+	public void setup() throws IOException {
+		file = new File(Skript.getInstance().getScriptsFolder(), "parse hints test.sk");
+		Files.writeString(file.toPath(), """
+			on join:
+				set {_value} to 5
+				add 1 to {_value}
+				broadcast "%{_value}%"
+			""");
+	}
+
+	@Test
+	public void testHintsAfterReload() throws Exception {
+		load();
+		Script script = ScriptLoader.getScript(file);
+		Assert.assertNotNull(script);
+		ScriptLoader.unloadScript(script);
+
+		long hits = ParseHints.getHitCount();
+		load();
+		Assert.assertTrue("no hints were used when reloading the script", ParseHints.getHitCount() >= hits + 3);
+	}
+
+	private void load() throws Exception {
+		// loaded off the main thread, as the loader would queue the load otherwise
+		CompletableFuture.runAsync(() -> {
+			try (RetainingLogHandler log = SkriptLogger.startRetainingLog()) {
+				ScriptLoader.loadScripts(file, OpenCloseable.EMPTY).join();
+				Assert.assertFalse("errors while loading: " + log.getErrors().stream()
+					.map(LogEntry::getMessage)
+					.collect(Collectors.joining(", ")), log.hasErrors());
+				log.printLog();
+			}
+		}).get();
+	}
+
+	@After
+	public void cleanup() throws IOException {
+		Script script = ScriptLoader.getScript(file);
+		if (script != null)
+			ScriptLoader.unloadScript(script);
+		Files.deleteIfExists(file.toPath());
+	}
+
+}
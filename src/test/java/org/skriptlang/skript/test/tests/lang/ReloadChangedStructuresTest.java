@@ -0,0 +1,134 @@
+package org.skriptlang.skript.test.tests.lang;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.ScriptLoader;
+import ch.njol.skript.ScriptLoader.ScriptPreInitEvent;
+import ch.njol.skript.log.LogEntry;
+import ch.njol.skript.log.RetainingLogHandler;
+import ch.njol.skript.log.SkriptLogger;
+import ch.njol.util.OpenCloseable;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.skriptlang.skript.lang.script.Script;
+import org.skriptlang.skript.lang.structure.Structure;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Checks which Structures are reloaded when a script is reloaded after it has been edited.
+ */
+public class ReloadChangedStructuresTest {
+
+	private static final String FUNCTION = "function reload_test_value() :: number:\n\treturn 1\n\n";
+	private static final String JOIN = "on join:\n\tset {_a} to reload_test_value()\n\n";
+	private static final String QUIT = "on quit:\n\tset {_b} to 2\n";
+
+	private File file;
+
+	private volatile int preInits;
+
+	private final ScriptPreInitEvent preInitListener = configs -> preInits++;
+
+	/**
+	 * The Structures of the script before it was last reloaded.
+	 */
+	private Set<Structure> previous;
+
+	@Before
+	public void setup() throws Exception {
+		file = new File(Skript.getInstance().getScriptsFolder(), "reload changed structures test.sk");
+		Files.writeString(file.toPath(), FUNCTION + JOIN + QUIT);
+		run(() -> ScriptLoader.loadScripts(file, OpenCloseable.EMPTY).join());
+		ScriptLoader.eventRegistry().register(ScriptPreInitEvent.class, preInitListener);
+	}
+
+	@Test
+	public void testEventEdit() throws Exception {
+		Set<Structure> loaded = reload(FUNCTION + JOIN + QUIT.replace("2", "3"));
+		Assert.assertEquals(3, loaded.size());
+		Assert.assertEquals("the unchanged structures were reloaded", 2, retained(loaded).size());
+	}
+
+	@Test
+	public void testFunctionEdit() throws Exception {
+		Set<Structure> loaded = reload(FUNCTION.replace("return 1", "return 2") + JOIN + QUIT);
+		Assert.assertEquals(3, loaded.size());
+		Assert.assertTrue("the script was not reloaded completely", retained(loaded).isEmpty());
+	}
+
+	@Test
+	public void testShiftedLines() throws Exception {
+		Set<Structure> loaded = reload(FUNCTION + "on death:\n\tset {_c} to 3\n\n" + JOIN + QUIT);
+		Assert.assertEquals(4, loaded.size());
+		// the events below the new one moved to other lines, so they have to be reloaded as well
+		Assert.assertEquals("only the function should have been kept", 1, retained(loaded).size());
+	}
+
+	/**
+	 * Writes the given code to the script and reloads it.
+	 * @return The Structures of the reloaded script
+	 */
+	private Set<Structure> reload(String code) throws Exception {
+		Script script = ScriptLoader.getScript(file);
+		Assert.assertNotNull(script);
+		previous = identitySet(script.getStructures());
+
+		Files.writeString(file.toPath(), code);
+		run(() -> ScriptLoader.reloadScript(script, OpenCloseable.EMPTY).join());
+		Assert.assertEquals("the events before loading were not called once", 1, preInits);
+
+		Script reloaded = ScriptLoader.getScript(file);
+		Assert.assertNotNull(reloaded);
+		return identitySet(reloaded.getStructures());
+	}
+
+	/**
+	 * @return The Structures of the given ones that were loaded before the script was reloaded
+	 */
+	private Set<Structure> retained(Set<Structure> loaded) {
+		Set<Structure> retained = identitySet(loaded);
+		retained.retainAll(previous);
+		return retained;
+	}
+
+	private static Set<Structure> identitySet(Iterable<Structure> structures) {
+		Set<Structure> set = Collections.newSetFromMap(new IdentityHashMap<>());
+		structures.forEach(set::add);
+		return set;
+	}
+
+	/**
+	 * Runs a load off the main thread, as the loader would queue it otherwise, and checks that it logged no errors.
+	 */
+	private static void run(Supplier<?> load) throws Exception {
+		CompletableFuture.runAsync(() -> {
+			try (RetainingLogHandler log = SkriptLogger.startRetainingLog()) {
+				load.get();
+				Assert.assertFalse("errors while loading: " + log.getErrors().stream()
+					.map(LogEntry::getMessage)
+					.collect(Collectors.joining(", ")), log.hasErrors());
+				log.printLog();
+			}
+		}).get();
+	}
+
+	@After
+	public void cleanup() throws IOException {
+		ScriptLoader.eventRegistry().unregister(preInitListener);
+		Script script = ScriptLoader.getScript(file);
+		if (script != null)
+			ScriptLoader.unloadScript(script);
+		Files.deleteIfExists(file.toPath());
+	}
+
+}